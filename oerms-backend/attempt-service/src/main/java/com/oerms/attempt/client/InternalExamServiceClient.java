@@ -1,6 +1,6 @@
 package com.oerms.attempt.client;
 
-import com.oerms.attempt.config.FeignClientConfig;
+import com.oerms.attempt.config.FeignM2MConfig;
 import com.oerms.common.dto.ApiResponse;
 import com.oerms.common.dto.ExamDTO;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -9,8 +9,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.UUID;
 
-@FeignClient(name = "exam-service", path = "/api/exams", configuration = FeignClientConfig.class)
-public interface ExamServiceClient {
+@FeignClient(
+    name = "exam-service",
+    path = "/api/exams",
+    configuration = FeignM2MConfig.class,
+    contextId = "internalExamServiceClient"
+)
+public interface InternalExamServiceClient {
 
     @GetMapping("/{id}")
     ApiResponse<ExamDTO> getExam(@PathVariable("id") UUID examId);
@@ -3,7 +3,9 @@ package com.oerms.attempt.client;
 import com.oerms.attempt.config.FeignM2MConfig;
 import com.oerms.common.dto.ApiResponse;
 import com.oerms.common.dto.QuestionDTO;
+import com.oerms.common.dto.StudentQuestionDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
@@ -20,4 +22,7 @@ import java.util.UUID;
 public interface InternalQuestionServiceClient {
     @PostMapping("/batch")
     ApiResponse<List<QuestionDTO>> getQuestionsByIds(@RequestBody List<UUID> questionIds);
+
+    @PostMapping("/exam/{examId}/student")
+    ApiResponse<List<StudentQuestionDTO>> getExamQuestionsForAttempts(@PathVariable("examId") UUID examId);
 }
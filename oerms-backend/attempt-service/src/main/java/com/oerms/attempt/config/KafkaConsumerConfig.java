@@ -0,0 +1,56 @@
+package com.oerms.attempt.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.oerms.attempt.kafka.ExamEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${attempt.instance-id:${HOSTNAME:${server.port:8080}}}")
+    private String instanceId;
+
+    /**
+     * Exam events feed the in-memory exam cache, so every instance needs to see all of them
+     * through its own consumer group, starting from the latest offset. The group is named
+     * after the instance so that a restart reuses it instead of leaving an orphan behind.
+     */
+    @Bean
+    public ConsumerFactory<String, ExamEvent> examEventConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-exam-events-" + instanceId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+
+        JsonDeserializer<ExamEvent> deserializer = new JsonDeserializer<>(ExamEvent.class);
+        deserializer.setUseTypeHeaders(false);
+        deserializer.addTrustedPackages("*");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ExamEvent> examEventKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ExamEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(examEventConsumerFactory());
+        return factory;
+    }
+}
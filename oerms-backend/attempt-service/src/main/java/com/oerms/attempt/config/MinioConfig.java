@@ -0,0 +1,53 @@
+package com.oerms.attempt.config;
+
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "attempt.storage.minio.enabled", havingValue = "true")
+@Slf4j
+public class MinioConfig {
+
+    @Value("${attempt.storage.minio.url}")
+    private String minioUrl;
+
+    @Value("${attempt.storage.minio.access-key}")
+    private String accessKey;
+
+    @Value("${attempt.storage.minio.secret-key}")
+    private String secretKey;
+
+    @Value("${attempt.storage.minio.bucket-name}")
+    private String bucketName;
+
+    @Bean
+    public MinioClient minioClient() {
+        try {
+            MinioClient client = MinioClient.builder()
+                    .endpoint(minioUrl)
+                    .credentials(accessKey, secretKey)
+                    .build();
+
+            // Create bucket if it doesn't exist; proctoring media is never publicly readable
+            boolean bucketExists = client.bucketExists(
+                    BucketExistsArgs.builder().bucket(bucketName).build()
+            );
+            if (!bucketExists) {
+                client.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+                log.info("MinIO bucket created: {}", bucketName);
+            } else {
+                log.info("MinIO bucket already exists: {}", bucketName);
+            }
+            return client;
+        } catch (Exception e) {
+            log.error("Error initializing MinIO client: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to initialize MinIO client", e);
+        }
+    }
+}
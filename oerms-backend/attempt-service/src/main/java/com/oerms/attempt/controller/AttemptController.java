@@ -1,8 +1,11 @@
 package com.oerms.attempt.controller;
 
 import com.oerms.attempt.dto.*;
+import com.oerms.attempt.entity.ProctoringMedia;
 import com.oerms.attempt.service.AttemptService;
+import com.oerms.attempt.service.IdempotentRequests;
 import com.oerms.common.dto.ApiResponse;
+import com.oerms.common.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,12 +14,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +35,7 @@ import java.util.UUID;
 public class AttemptController {
 
     private final AttemptService attemptService;
+    private final IdempotentRequests idempotentRequests;
 
     // ==================== Student Operations ====================
 
@@ -52,26 +58,37 @@ public class AttemptController {
 
     @PostMapping("/{attemptId}/answers")
     @PreAuthorize("hasRole('STUDENT')")
-    @Operation(summary = "Save answer", description = "Saves or updates an answer for a question in an attempt")
+    @Operation(summary = "Save answer", description = "Saves or updates an answer for a question in an attempt. " +
+            "Retries carrying the same Idempotency-Key and body get the original response; " +
+            "a different body is rejected with 409.")
     public ResponseEntity<ApiResponse<AttemptAnswerResponse>> saveAnswer(
             @Parameter(description = "Attempt ID") @PathVariable UUID attemptId,
             @Valid @RequestBody SaveAnswerRequest request,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         log.debug("Save answer request for attempt: {}, question: {}", attemptId, request.getQuestionId());
 
-        AttemptAnswerResponse response = attemptService.saveAnswer(attemptId, request, authentication);
+        AttemptAnswerResponse response = idempotentRequests.execute(idempotencyKey,
+                "answer:" + attemptId + ":" + request.getQuestionId(), request, authentication,
+                AttemptAnswerResponse.class,
+                () -> attemptService.saveAnswer(attemptId, request, authentication));
         return ResponseEntity.ok(ApiResponse.success("Answer saved successfully", response));
     }
 
     @PostMapping("/submit")
     @PreAuthorize("hasRole('STUDENT')")
-    @Operation(summary = "Submit attempt", description = "Submits a completed exam attempt")
+    @Operation(summary = "Submit attempt", description = "Submits a completed exam attempt. " +
+            "Retries carrying the same Idempotency-Key and body get the original response; " +
+            "a different body is rejected with 409.")
     public ResponseEntity<ApiResponse<AttemptResponse>> submitAttempt(
             @Valid @RequestBody SubmitAttemptRequest request,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         log.info("Submit attempt request: {}", request.getAttemptId());
 
-        AttemptResponse response = attemptService.submitAttempt(request, authentication);
+        AttemptResponse response = idempotentRequests.execute(idempotencyKey,
+                "submit:" + request.getAttemptId(), request, authentication, AttemptResponse.class,
+                () -> attemptService.submitAttempt(request, authentication));
         return ResponseEntity.ok(ApiResponse.success("Attempt submitted successfully", response));
     }
 
@@ -159,6 +176,7 @@ public class AttemptController {
             Authentication authentication) {
         log.info("Get attempt request: {}", attemptId);
 
+        attemptService.flushBufferedAnswers(attemptId);
         AttemptResponse response = attemptService.getAttempt(attemptId, authentication);
         return ResponseEntity.ok(ApiResponse.success("Attempt retrieved successfully", response));
     }
@@ -171,6 +189,7 @@ public class AttemptController {
             Authentication authentication) {
         log.info("Get attempt answers request: {}", attemptId);
 
+        attemptService.flushBufferedAnswers(attemptId);
         List<AttemptAnswerResponse> answers = attemptService.getAttemptAnswers(attemptId, authentication);
         return ResponseEntity.ok(ApiResponse.success("Answers retrieved successfully", answers));
     }
@@ -192,6 +211,20 @@ public class AttemptController {
         return ResponseEntity.ok(ApiResponse.success("Attempts retrieved successfully", attempts));
     }
 
+    @GetMapping("/exam/{examId}/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Scroll exam attempts", description = "Keyset-paginated attempts of an exam, newest first")
+    public ResponseEntity<ApiResponse<CursorPage<AttemptSummary>>> scrollExamAttempts(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        CursorPage<AttemptSummary> attempts = attemptService.scrollExamAttempts(
+                examId, cursor, size, includeTotal, authentication);
+        return ResponseEntity.ok(ApiResponse.success("Attempts retrieved successfully", attempts));
+    }
+
     @GetMapping("/exam/{examId}/count")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Get exam attempts count", description = "Returns total number of attempts for an exam")
@@ -231,6 +264,18 @@ public class AttemptController {
         return ResponseEntity.ok(ApiResponse.success("Attempts retrieved successfully", attempts));
     }
 
+    @GetMapping("/all/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Scroll all attempts",
+            description = "Keyset-paginated listing of all attempts, newest first (admin only)")
+    public ResponseEntity<ApiResponse<CursorPage<AttemptSummary>>> scrollAllAttempts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<AttemptSummary> attempts = attemptService.scrollAllAttempts(cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success("Attempts retrieved successfully", attempts));
+    }
+
     // ==================== Attempt Management ====================
 
     @PostMapping("/{attemptId}/pause")
@@ -269,6 +314,7 @@ public class AttemptController {
     public ResponseEntity<ApiResponse<AttemptProgressDTO>> getAttemptProgress(
             @PathVariable UUID attemptId,
             Authentication auth) {
+        attemptService.flushBufferedAnswers(attemptId);
         AttemptProgressDTO progress = attemptService.getAttemptProgress(attemptId, auth);
         return ResponseEntity.ok(ApiResponse.success("Attempt progress retrieved successfully", progress));
     }
@@ -308,6 +354,18 @@ public class AttemptController {
         return ResponseEntity.ok(ApiResponse.success("Bulk answers saved successfully", responses));
     }
 
+    @PostMapping("/{attemptId}/answers/sync")
+    @PreAuthorize("hasRole('STUDENT')")
+    @Operation(summary = "Sync changed answers",
+            description = "Apply answers changed since the last acknowledged sequence number and return the new high-water mark")
+    public ResponseEntity<ApiResponse<AnswerSyncResponse>> syncAnswers(
+            @PathVariable UUID attemptId,
+            @RequestBody AnswerSyncRequest request,
+            Authentication auth) {
+        AnswerSyncResponse response = attemptService.syncAnswers(attemptId, request, auth);
+        return ResponseEntity.ok(ApiResponse.success("Answers synced successfully", response));
+    }
+
     @GetMapping("/{attemptId}/answers/{questionId}")
     @PreAuthorize("hasRole('STUDENT')")
     @Operation(summary = "Get specific answer", description = "Get answer for a specific question")
@@ -315,6 +373,7 @@ public class AttemptController {
             @PathVariable UUID attemptId,
             @PathVariable UUID questionId,
             Authentication auth) {
+        attemptService.flushBufferedAnswers(attemptId);
         AttemptAnswerResponse answer = attemptService.getAnswer(attemptId, questionId, auth);
         return ResponseEntity.ok(ApiResponse.success("Answer retrieved successfully", answer));
     }
@@ -347,6 +406,7 @@ public class AttemptController {
     public ResponseEntity<ApiResponse<List<UUID>>> getFlaggedQuestions(
             @PathVariable UUID attemptId,
             Authentication auth) {
+        attemptService.flushBufferedAnswers(attemptId);
         List<UUID> flaggedQuestions = attemptService.getFlaggedQuestions(attemptId, auth);
         return ResponseEntity.ok(ApiResponse.success("Flagged questions retrieved successfully", flaggedQuestions));
     }
@@ -386,6 +446,37 @@ public class AttemptController {
         return ResponseEntity.ok(ApiResponse.success("Webcam frame uploaded successfully", null));
     }
 
+    @GetMapping("/{attemptId}/proctoring/media")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get proctoring media manifest", description = "List screenshots and webcam frames captured during the attempt")
+    public ResponseEntity<ApiResponse<List<ProctoringMediaDTO>>> getProctoringMedia(
+            @PathVariable UUID attemptId,
+            Authentication auth) {
+        List<ProctoringMediaDTO> media = attemptService.getProctoringMedia(attemptId, auth);
+        return ResponseEntity.ok(ApiResponse.success("Proctoring media retrieved successfully", media));
+    }
+
+    @GetMapping("/{attemptId}/proctoring/media/{mediaId}/content")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Download proctoring media", description = "Stream a captured screenshot or webcam frame")
+    public ResponseEntity<InputStreamResource> getProctoringMediaContent(
+            @PathVariable UUID attemptId,
+            @PathVariable UUID mediaId,
+            Authentication auth) {
+        ProctoringMedia media = attemptService.getProctoringMediaEntry(attemptId, mediaId, auth);
+        MediaType contentType = media.getContentType() != null
+                ? MediaType.parseMediaType(media.getContentType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+        // Served as a download so that stored content is never rendered inline by the browser
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(mediaId.toString()).build().toString())
+                .header("X-Content-Type-Options", "nosniff")
+                .contentLength(media.getSizeBytes())
+                .body(new InputStreamResource(attemptService.openProctoringMediaContent(media)));
+    }
+
     @GetMapping("/{attemptId}/proctoring/summary")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Get proctoring summary", description = "Get summary of all proctoring events")
@@ -434,6 +525,7 @@ public class AttemptController {
     public ResponseEntity<ApiResponse<TimeBreakdownDTO>> getTimeBreakdown(
             @PathVariable UUID attemptId,
             Authentication auth) {
+        attemptService.flushBufferedAnswers(attemptId);
         TimeBreakdownDTO breakdown = attemptService.getTimeBreakdown(attemptId, auth);
         return ResponseEntity.ok(ApiResponse.success("Time breakdown retrieved successfully", breakdown));
     }
@@ -522,6 +614,26 @@ public class AttemptController {
         return ResponseEntity.ok(ApiResponse.success("Suspicious exam attempts retrieved successfully", attempts));
     }
 
+    @GetMapping("/exam/{examId}/inactive")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get inactive attempts for exam", description = "In-progress attempts without recent heartbeats")
+    public ResponseEntity<ApiResponse<List<AttemptSummary>>> getInactiveExamAttempts(
+            @PathVariable UUID examId,
+            @RequestParam(defaultValue = "120") long idleSeconds,
+            Authentication auth) {
+        List<AttemptSummary> attempts = attemptService.getInactiveExamAttempts(examId, idleSeconds, auth);
+        return ResponseEntity.ok(ApiResponse.success("Inactive exam attempts retrieved successfully", attempts));
+    }
+
+    @GetMapping(value = "/exam/{examId}/monitor", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Monitor exam live",
+            description = "Server-sent events: a snapshot of open attempts, then one delta frame per second")
+    public SseEmitter monitorExam(@PathVariable UUID examId, Authentication auth) {
+        log.info("Live monitor requested for exam: {}", examId);
+        return attemptService.openExamMonitor(examId, auth);
+    }
+
     @PostMapping("/{attemptId}/flag-suspicious")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Flag attempt as suspicious", description = "Manually flag attempt for review")
@@ -554,6 +666,25 @@ public class AttemptController {
         return ResponseEntity.ok(ApiResponse.success("Search results retrieved successfully", attempts));
     }
 
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Scroll attempt search", description = "Keyset-paginated attempt search, newest first")
+    public ResponseEntity<ApiResponse<CursorPage<AttemptSummary>>> scrollSearchAttempts(
+            @RequestParam(required = false) UUID examId,
+            @RequestParam(required = false) UUID studentId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean suspicious,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication auth) {
+        CursorPage<AttemptSummary> attempts = attemptService.scrollSearchAttempts(
+                examId, studentId, status, suspicious, startDate, endDate, cursor, size, includeTotal, auth);
+        return ResponseEntity.ok(ApiResponse.success("Search results retrieved successfully", attempts));
+    }
+
     // ==================== Bulk Operations ====================
 
     @PostMapping("/bulk/submit")
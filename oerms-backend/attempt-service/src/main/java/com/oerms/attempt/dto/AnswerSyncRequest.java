@@ -0,0 +1,31 @@
+package com.oerms.attempt.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Answers changed on the client since its last acknowledged sequence number. Each change
+ * carries the full answer content of one question; {@code flagged} and
+ * {@code timeSpentSeconds} are left unchanged when null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSyncRequest {
+    private Long lastAckedSequence;
+    private List<AnswerChange> changes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnswerChange {
+        private UUID questionId;
+        private Long sequence;
+        private String answerText;
+        private Set<String> selectedOptions;
+        private Boolean flagged;
+        private Long timeSpentSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.oerms.attempt.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSyncResponse {
+    private UUID attemptId;
+    private Long highWaterMark;
+    private Integer applied;
+    private List<UUID> staleQuestionIds;
+    private Integer answeredQuestions;
+    private Integer flaggedQuestions;
+}
@@ -0,0 +1,52 @@
+package com.oerms.attempt.dto;
+
+import com.oerms.common.enums.AttemptStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Change to one attempt in a live monitoring frame. Fields that did not change are null.
+ * Counters always hold the attempt's current totals, in snapshot and delta frames alike, so a
+ * subscriber replaces its values and never drifts from frames it missed or saw twice.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptMonitorDelta {
+    private UUID attemptId;
+    private UUID studentId;
+    private String studentName;
+    private AttemptStatus status;
+    private LocalDateTime startedAt;
+    private Integer answeredQuestions;
+    private Integer flaggedQuestions;
+    private Integer tabSwitches;
+    private Integer webcamViolations;
+    private Integer copyPasteCount;
+    private LocalDateTime lastActivityAt;
+    private Boolean stale;
+
+    /**
+     * Folds a later change of the same attempt into this one: every field set in the later
+     * change replaces this one's.
+     */
+    public AttemptMonitorDelta merge(AttemptMonitorDelta later) {
+        return toBuilder()
+                .studentId(later.studentId != null ? later.studentId : studentId)
+                .studentName(later.studentName != null ? later.studentName : studentName)
+                .status(later.status != null ? later.status : status)
+                .startedAt(later.startedAt != null ? later.startedAt : startedAt)
+                .answeredQuestions(later.answeredQuestions != null ? later.answeredQuestions : answeredQuestions)
+                .flaggedQuestions(later.flaggedQuestions != null ? later.flaggedQuestions : flaggedQuestions)
+                .tabSwitches(later.tabSwitches != null ? later.tabSwitches : tabSwitches)
+                .webcamViolations(later.webcamViolations != null ? later.webcamViolations : webcamViolations)
+                .copyPasteCount(later.copyPasteCount != null ? later.copyPasteCount : copyPasteCount)
+                .lastActivityAt(later.lastActivityAt != null && (lastActivityAt == null
+                        || later.lastActivityAt.isAfter(lastActivityAt)) ? later.lastActivityAt : lastActivityAt)
+                .stale(later.stale != null ? later.stale : stale)
+                .build();
+    }
+}
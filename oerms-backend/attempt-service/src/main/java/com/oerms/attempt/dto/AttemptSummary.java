@@ -22,5 +22,6 @@ public class AttemptSummary {
     private LocalDateTime startedAt;
     private LocalDateTime submittedAt;
     private Long timeTakenSeconds;
+    private LocalDateTime lastActivityAt;
     private Boolean suspicious;
 }
@@ -0,0 +1,24 @@
+package com.oerms.attempt.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamMonitorFrame {
+
+    public enum Type {
+        SNAPSHOT,
+        DELTA
+    }
+
+    private UUID examId;
+    private Type type;
+    private LocalDateTime sentAt;
+    private List<AttemptMonitorDelta> attempts;
+}
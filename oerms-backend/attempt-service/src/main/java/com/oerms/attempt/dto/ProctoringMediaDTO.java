@@ -0,0 +1,23 @@
+package com.oerms.attempt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProctoringMediaDTO {
+    private UUID id;
+    private String kind;
+    private String contentHash;
+    private String contentType;
+    private Long sizeBytes;
+    private Boolean deduplicated;
+    private LocalDateTime capturedAt;
+}
@@ -64,6 +64,10 @@ public class AttemptAnswer extends BaseEntity {
     @Column(name = "answered_at")
     private LocalDateTime answeredAt;
 
+    // Client sequence of the last delta-synced write; plain writes raise it to the attempt's sync high-water mark
+    @Column(name = "client_sequence")
+    private Long clientSequence;
+
     @Column(nullable = false)
     @Builder.Default
     private boolean deleted = false;
@@ -79,6 +83,13 @@ public class AttemptAnswer extends BaseEntity {
         }
     }
 
+    /**
+     * Whether this answer counts towards the attempt's answered counter.
+     */
+    public boolean hasAnswerContent() {
+        return answerText != null || (selectedOptions != null && !selectedOptions.isEmpty());
+    }
+
     public boolean isAnswered() {
         return (answerText != null && !answerText.trim().isEmpty()) ||
                 !selectedOptions.isEmpty();
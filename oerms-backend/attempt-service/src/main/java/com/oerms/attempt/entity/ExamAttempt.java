@@ -20,7 +20,10 @@ import java.util.UUID;
 @Table(name = "exam_attempts", indexes = {
         @Index(name = "idx_attempt_student_id", columnList = "student_id"),
         @Index(name = "idx_attempt_exam_id", columnList = "exam_id"),
-        @Index(name = "idx_exam_student_status", columnList = "exam_id, student_id, status")
+        @Index(name = "idx_exam_student_status", columnList = "exam_id, student_id, status"),
+        @Index(name = "idx_attempt_status_deadline", columnList = "status, deadline_at"),
+        @Index(name = "idx_attempt_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_attempt_exam_created_id", columnList = "exam_id, created_at, id")
 })
 @Data
 @Builder
@@ -54,14 +57,19 @@ public class ExamAttempt extends BaseEntity {
     @Column(name = "total_questions", nullable = false)
     private Integer totalQuestions;
 
-    @Column(name = "answered_questions")
+    // Maintained through delta updates in AttemptRepository, never written back from the entity
+    @Column(name = "answered_questions", updatable = false)
     @Builder.Default
     private Integer answeredQuestions = 0;
 
-    @Column(name = "flagged_questions")
+    @Column(name = "flagged_questions", updatable = false)
     @Builder.Default
     private Integer flaggedQuestions = 0;
 
+    // Highest client sequence acknowledged by answer delta sync, advanced in AttemptAnswerBatchRepository
+    @Column(name = "sync_sequence", updatable = false)
+    private Long syncSequence;
+
     @Column(name = "total_marks", nullable = false)
     private Integer totalMarks;
 
@@ -86,15 +94,16 @@ public class ExamAttempt extends BaseEntity {
     @Column(name = "browser_info", length = 200)
     private String browserInfo;
 
-    @Column(name = "tab_switches")
+    // Incremented by ProctoringEventLog's counter deltas, never written back from the entity
+    @Column(name = "tab_switches", updatable = false)
     @Builder.Default
     private Integer tabSwitches = 0;
 
-    @Column(name = "webcam_violations")
+    @Column(name = "webcam_violations", updatable = false)
     @Builder.Default
     private Integer webcamViolations = 0;
 
-    @Column(name = "copy_paste_count")
+    @Column(name = "copy_paste_count", updatable = false)
     @Builder.Default
     private Integer copyPasteCount = 0;
 
@@ -136,36 +145,19 @@ public class ExamAttempt extends BaseEntity {
     @Builder.Default
     private Long totalPauseDurationSeconds = 0L;
 
+    @Column(name = "exam_end_time")
+    private LocalDateTime examEndTime;
+
+    // Hard deadline, kept in step with pauses and the exam end time by calculateDeadline()
+    @Column(name = "deadline_at")
+    private LocalDateTime deadlineAt;
+
     // Helper methods
     public void addAnswer(AttemptAnswer answer) {
         answers.add(answer);
         answer.setAttempt(this);
     }
     
-    public void incrementTabSwitches() {
-        this.tabSwitches++;
-    }
-    
-    public void incrementWebcamViolations() {
-        this.webcamViolations++;
-    }
-    
-    public void incrementCopyPaste() {
-        this.copyPasteCount++;
-    }
-    
-    public void updateAnsweredCount() {
-        this.answeredQuestions = (int) answers.stream()
-            .filter(a -> a.getAnswerText() != null || (a.getSelectedOptions() != null && !a.getSelectedOptions().isEmpty()))
-            .count();
-    }
-    
-    public void updateFlaggedCount() {
-        this.flaggedQuestions = (int) answers.stream()
-            .filter(AttemptAnswer::getFlagged)
-            .count();
-    }
-    
     public Integer calculateTimeTaken() {
         if (startedAt != null && submittedAt != null) {
             long totalSeconds = java.time.Duration.between(startedAt, submittedAt).getSeconds();
@@ -174,6 +166,19 @@ public class ExamAttempt extends BaseEntity {
         return null;
     }
     
+    /**
+     * The moment the attempt runs out of time: its duration plus the time spent paused,
+     * counted from the start, but never later than the exam end time.
+     */
+    public LocalDateTime calculateDeadline() {
+        if (startedAt == null || examDurationInMinutes == null) {
+            return examEndTime;
+        }
+        long pausedSeconds = totalPauseDurationSeconds != null ? totalPauseDurationSeconds : 0L;
+        LocalDateTime byDuration = startedAt.plusMinutes(examDurationInMinutes).plusSeconds(pausedSeconds);
+        return examEndTime != null && examEndTime.isBefore(byDuration) ? examEndTime : byDuration;
+    }
+
     public void addPauseDuration(long seconds) {
         this.totalPauseDurationSeconds += seconds;
     }
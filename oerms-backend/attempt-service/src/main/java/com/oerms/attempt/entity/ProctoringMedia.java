@@ -0,0 +1,65 @@
+package com.oerms.attempt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Manifest entry for one screenshot or webcam frame captured during an attempt. Identical
+ * captures of the same attempt share one stored object, identified by its content hash.
+ */
+@Entity
+@Table(name = "proctoring_media", indexes = {
+        @Index(name = "idx_proctoring_media_attempt", columnList = "attempt_id, captured_at"),
+        @Index(name = "idx_proctoring_media_attempt_hash", columnList = "attempt_id, content_hash"),
+        @Index(name = "idx_proctoring_media_captured_at", columnList = "captured_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProctoringMedia {
+
+    public enum Kind {
+        SCREENSHOT,
+        WEBCAM_FRAME
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "attempt_id", nullable = false)
+    private UUID attemptId;
+
+    @Column(name = "exam_id", nullable = false)
+    private UUID examId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "object_key", nullable = false)
+    private String objectKey;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private boolean deduplicated;
+
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+}
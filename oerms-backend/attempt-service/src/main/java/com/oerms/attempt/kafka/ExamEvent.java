@@ -0,0 +1,26 @@
+package com.oerms.attempt.kafka;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Subset of the event exam-service publishes on the {@code exam-events} topic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExamEvent {
+    private String eventType;
+    private UUID examId;
+    private UUID studentId;
+    private String status;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,44 @@
+package com.oerms.attempt.kafka;
+
+import com.oerms.attempt.service.ExamContentCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExamEventConsumer {
+
+    private static final Set<String> WARMING_EVENTS = Set.of("exam.published", "exam.started");
+
+    private static final Set<String> INVALIDATING_EVENTS = Set.of(
+            "exam.updated", "exam.deleted", "exam.published", "exam.unpublished",
+            "exam.archived", "exam.cancelled", "exam.completed", "exam.scheduled");
+
+    private final ExamContentCache examContentCache;
+
+    @KafkaListener(
+            topics = "exam-events",
+            containerFactory = "examEventKafkaListenerContainerFactory"
+    )
+    public void handleExamEvent(ExamEvent event) {
+        if (event == null || event.getExamId() == null) {
+            return;
+        }
+        if (INVALIDATING_EVENTS.contains(event.getEventType())) {
+            log.debug("Received {} for examId: {}, evicting cached exam content", event.getEventType(), event.getExamId());
+            examContentCache.evict(event.getExamId());
+        }
+        if (WARMING_EVENTS.contains(event.getEventType())) {
+            try {
+                examContentCache.warm(event.getExamId());
+            } catch (Exception e) {
+                log.warn("Could not warm exam cache for examId: {}: {}", event.getExamId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.oerms.attempt.mapper;
 import com.oerms.attempt.dto.*;
 import com.oerms.attempt.entity.AttemptAnswer;
 import com.oerms.attempt.entity.ExamAttempt;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AnswerRow;
 import com.oerms.common.dto.AttemptDTO;
 import org.springframework.stereotype.Component;
 
@@ -60,6 +61,22 @@ public class AttemptMapper {
                 .build();
     }
 
+    public AttemptAnswerResponse toAnswerResponse(AnswerRow answer) {
+        if (answer == null) return null;
+
+        return AttemptAnswerResponse.builder()
+                .id(answer.getId())
+                .questionId(answer.getQuestionId())
+                .questionOrder(answer.getQuestionOrder())
+                .selectedOptions(answer.getSelectedOptions())
+                .answerText(answer.getAnswerText())
+                .marksAllocated(answer.getMarksAllocated())
+                .timeSpentSeconds(answer.getTimeSpentSeconds())
+                .flagged(answer.isFlagged())
+                .answeredAt(answer.getAnsweredAt())
+                .build();
+    }
+
     public AttemptSummary toSummary(ExamAttempt attempt) {
         if (attempt == null) return null;
 
@@ -73,6 +90,7 @@ public class AttemptMapper {
                 .totalQuestions(attempt.getTotalQuestions())
                 .startedAt(attempt.getStartedAt())
                 .submittedAt(attempt.getSubmittedAt())
+                .lastActivityAt(attempt.getLastActivityAt())
                 .build();
     }
 
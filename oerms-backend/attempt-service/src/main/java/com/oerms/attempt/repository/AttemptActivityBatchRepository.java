@@ -0,0 +1,42 @@
+package com.oerms.attempt.repository;
+
+import com.oerms.attempt.service.HeartbeatStore.Activity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes buffered heartbeat activity to {@code exam_attempts} in one JDBC batch. Only the
+ * activity columns are touched, so a flush neither bumps the row version nor conflicts with
+ * concurrent entity updates.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttemptActivityBatchRepository {
+
+    private static final String UPDATE_ACTIVITY_SQL =
+            "UPDATE exam_attempts SET last_activity_at = GREATEST(last_activity_at, ?), " +
+            "current_question_id = COALESCE(?, current_question_id) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateActivity(Collection<Activity> activities) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        List<Object[]> params = new ArrayList<>(activities.size());
+        for (Activity activity : activities) {
+            params.add(new Object[]{
+                    Timestamp.valueOf(activity.lastActivityAt()),
+                    activity.currentQuestionId(),
+                    activity.attemptId()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ACTIVITY_SQL, params);
+    }
+}
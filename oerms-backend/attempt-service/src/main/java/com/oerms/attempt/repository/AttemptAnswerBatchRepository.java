@@ -0,0 +1,449 @@
+package com.oerms.attempt.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Plain JDBC access to attempt answers for the hot write paths, where going through
+ * the JPA entity graph would cost one statement per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttemptAnswerBatchRepository {
+
+    private static final int PLACEHOLDER_COLUMNS = 8;
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final int SYNC_COLUMNS = 6;
+
+    private static final String INSERT_PLACEHOLDERS_PREFIX =
+            "INSERT INTO attempt_answers (id, attempt_id, question_id, question_order, marks_allocated, " +
+            "flagged, deleted, created_at, updated_at, version) VALUES ";
+
+    // Buffered writes only land while the attempt is still open, so a late flush cannot
+    // overwrite the answers of a submitted attempt
+    // Raises client_sequence to the attempt's sync high-water mark, as plain JPA saves do
+    private static final String UPDATE_ANSWER_SQL =
+            "UPDATE attempt_answers a SET answer_text = ?, flagged = ?, time_spent_seconds = ?, " +
+            "answered_at = ?, updated_at = ?, version = COALESCE(a.version, 0) + 1, " +
+            "client_sequence = GREATEST(a.client_sequence, x.sync_sequence) " +
+            "FROM exam_attempts x WHERE a.id = ? AND x.id = a.attempt_id AND x.status = 'IN_PROGRESS'";
+
+    private static final String DELETE_OPTIONS_SQL =
+            "DELETE FROM attempt_selected_options WHERE attempt_answer_id = ?";
+
+    private static final String INSERT_OPTION_SQL =
+            "INSERT INTO attempt_selected_options (attempt_answer_id, option_value) VALUES (?, ?)";
+
+    // Applies only changes newer than the answer's last synced sequence; stale ones match no row
+    private static final String APPLY_SYNCED_CHANGES_PREFIX =
+            "UPDATE attempt_answers a SET answer_text = v.answer_text, " +
+            "flagged = COALESCE(v.flagged, a.flagged), " +
+            "time_spent_seconds = COALESCE(v.time_spent_seconds, a.time_spent_seconds), " +
+            "answered_at = CASE WHEN v.has_content THEN COALESCE(a.answered_at, ?) ELSE a.answered_at END, " +
+            "client_sequence = v.sequence, updated_at = ?, version = COALESCE(a.version, 0) + 1 FROM (VALUES ";
+
+    private static final String APPLY_SYNCED_CHANGES_SUFFIX =
+            ") AS v(question_id, sequence, answer_text, flagged, time_spent_seconds, has_content) " +
+            "WHERE a.attempt_id = ? AND a.question_id = v.question_id AND a.deleted = false " +
+            "AND (a.client_sequence IS NULL OR a.client_sequence < v.sequence) " +
+            "RETURNING a.id, a.question_id";
+
+    private static final String SYNCED_CHANGE_ROW =
+            "(CAST(? AS uuid), CAST(? AS bigint), CAST(? AS text), CAST(? AS boolean), CAST(? AS bigint), CAST(? AS boolean))";
+
+    private static final String FINISH_SYNC_SQL =
+            "WITH counts AS (" +
+            "  SELECT COUNT(*) FILTER (WHERE ans.answer_text IS NOT NULL OR EXISTS (" +
+            "    SELECT 1 FROM attempt_selected_options o WHERE o.attempt_answer_id = ans.id)) AS answered, " +
+            "  COUNT(*) FILTER (WHERE ans.flagged) AS flagged " +
+            "  FROM attempt_answers ans WHERE ans.attempt_id = ? AND ans.deleted = false" +
+            ") " +
+            "UPDATE exam_attempts x SET answered_questions = counts.answered, flagged_questions = counts.flagged, " +
+            "sync_sequence = GREATEST(COALESCE(x.sync_sequence, 0), ?), updated_at = ? " +
+            "FROM counts WHERE x.id = ? " +
+            "RETURNING x.sync_sequence, x.answered_questions, x.flagged_questions";
+
+    private static final String APPLY_COUNTER_DELTAS_SQL =
+            "UPDATE exam_attempts SET answered_questions = answered_questions + ?, " +
+            "flagged_questions = flagged_questions + ?, updated_at = ? WHERE id = ? AND status = 'IN_PROGRESS'";
+
+    private static final String APPLY_COUNTER_DELTA_RETURNING_SQL =
+            "UPDATE exam_attempts SET answered_questions = answered_questions + ?, " +
+            "flagged_questions = flagged_questions + ?, updated_at = ? WHERE id = ? " +
+            "RETURNING answered_questions, flagged_questions";
+
+    private static final String RECONCILE_COUNTERS_SQL =
+            "UPDATE exam_attempts SET answered_questions = ?, flagged_questions = ? " +
+            "WHERE id = ? AND answered_questions IS NOT DISTINCT FROM ? AND flagged_questions IS NOT DISTINCT FROM ?";
+
+    private static final String FIND_COUNTER_MISMATCHES_SQL =
+            "SELECT a.id, a.answered_questions, a.flagged_questions, c.answered, c.flagged " +
+            "FROM exam_attempts a JOIN (" +
+            "  SELECT ans.attempt_id, " +
+            "    COUNT(*) FILTER (WHERE ans.answer_text IS NOT NULL OR EXISTS (" +
+            "      SELECT 1 FROM attempt_selected_options o WHERE o.attempt_answer_id = ans.id)) AS answered, " +
+            "    COUNT(*) FILTER (WHERE ans.flagged) AS flagged " +
+            "  FROM attempt_answers ans JOIN exam_attempts x ON x.id = ans.attempt_id " +
+            "  WHERE ans.deleted = false AND x.deleted = false AND x.updated_at >= ? AND x.updated_at < ? " +
+            "  GROUP BY ans.attempt_id" +
+            ") c ON c.attempt_id = a.id " +
+            "WHERE a.answered_questions IS DISTINCT FROM c.answered " +
+            "OR a.flagged_questions IS DISTINCT FROM c.flagged";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Data
+    @Builder(toBuilder = true)
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnswerRow {
+        private UUID id;
+        private UUID questionId;
+        private Integer questionOrder;
+        private Integer marksAllocated;
+        private String answerText;
+        private Set<String> selectedOptions;
+        private boolean flagged;
+        private Long timeSpentSeconds;
+        private LocalDateTime answeredAt;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class AttemptHeader {
+        private UUID studentId;
+        private String status;
+        private UUID examId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SyncedChange {
+        private UUID questionId;
+        private long sequence;
+        private String answerText;
+        private Set<String> selectedOptions;
+        private Boolean flagged;
+        private Long timeSpentSeconds;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SyncState {
+        private long highWaterMark;
+        private int answered;
+        private int flagged;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class CounterMismatch {
+        private UUID attemptId;
+        private Integer storedAnswered;
+        private Integer storedFlagged;
+        private int actualAnswered;
+        private int actualFlagged;
+    }
+
+    public Optional<AttemptHeader> findAttemptHeader(UUID attemptId) {
+        List<AttemptHeader> headers = jdbcTemplate.query(
+                "SELECT student_id, status, exam_id FROM exam_attempts WHERE id = ? AND deleted = false",
+                (rs, i) -> new AttemptHeader(
+                        rs.getObject("student_id", UUID.class),
+                        rs.getString("status"),
+                        rs.getObject("exam_id", UUID.class)),
+                attemptId);
+        return headers.stream().findFirst();
+    }
+
+    /**
+     * Same as {@link #findAttemptHeader} but locks the attempt row for the rest of the transaction.
+     */
+    public Optional<AttemptHeader> lockAttemptHeader(UUID attemptId) {
+        List<AttemptHeader> headers = jdbcTemplate.query(
+                "SELECT student_id, status, exam_id FROM exam_attempts WHERE id = ? AND deleted = false FOR UPDATE",
+                (rs, i) -> new AttemptHeader(
+                        rs.getObject("student_id", UUID.class),
+                        rs.getString("status"),
+                        rs.getObject("exam_id", UUID.class)),
+                attemptId);
+        return headers.stream().findFirst();
+    }
+
+    /**
+     * Loads every answer of an attempt together with its selected options in two queries.
+     */
+    public List<AnswerRow> findAnswers(UUID attemptId) {
+        Map<UUID, AnswerRow> rows = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, question_id, question_order, marks_allocated, answer_text, flagged, " +
+                "time_spent_seconds, answered_at FROM attempt_answers " +
+                "WHERE attempt_id = ? AND deleted = false ORDER BY question_order",
+                rs -> {
+                    AnswerRow row = mapAnswer(rs);
+                    rows.put(row.getId(), row);
+                },
+                attemptId);
+
+        jdbcTemplate.query(
+                "SELECT o.attempt_answer_id, o.option_value FROM attempt_selected_options o " +
+                "JOIN attempt_answers a ON a.id = o.attempt_answer_id " +
+                "WHERE a.attempt_id = ? AND a.deleted = false",
+                rs -> {
+                    AnswerRow row = rows.get(rs.getObject("attempt_answer_id", UUID.class));
+                    if (row != null) {
+                        row.getSelectedOptions().add(rs.getString("option_value"));
+                    }
+                },
+                attemptId);
+
+        return new ArrayList<>(rows.values());
+    }
+
+    /**
+     * Inserts the unanswered placeholder rows of a new attempt with multi-row INSERT statements
+     * of up to 500 rows each, instead of one statement per answer entity.
+     */
+    public void insertPlaceholders(UUID attemptId, List<AnswerRow> answers) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < answers.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<AnswerRow> chunk = answers.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, answers.size()));
+            StringBuilder sql = new StringBuilder(INSERT_PLACEHOLDERS_PREFIX);
+            Object[] params = new Object[chunk.size() * PLACEHOLDER_COLUMNS];
+            int p = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                AnswerRow answer = chunk.get(i);
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, false, ?, ?, 0)");
+                params[p++] = answer.getId();
+                params[p++] = attemptId;
+                params[p++] = answer.getQuestionId();
+                params[p++] = answer.getQuestionOrder();
+                params[p++] = answer.getMarksAllocated();
+                params[p++] = answer.isFlagged();
+                params[p++] = now;
+                params[p++] = now;
+            }
+            jdbcTemplate.update(sql.toString(), params);
+        }
+    }
+
+    /**
+     * Writes the full state of the given answers with one JDBC batch per statement type.
+     * Answers of attempts that are no longer IN_PROGRESS are left untouched.
+     *
+     * @return number of answers written
+     */
+    public int updateAnswers(List<AnswerRow> answers) {
+        if (answers.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> updates = new ArrayList<>(answers.size());
+        for (AnswerRow answer : answers) {
+            updates.add(new Object[]{
+                    answer.getAnswerText(),
+                    answer.isFlagged(),
+                    answer.getTimeSpentSeconds(),
+                    answer.getAnsweredAt() != null ? Timestamp.valueOf(answer.getAnsweredAt()) : null,
+                    now,
+                    answer.getId()
+            });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_ANSWER_SQL, updates);
+
+        List<Object[]> deletes = new ArrayList<>(answers.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO is treated as written; only an explicit 0 means the guard held
+            if (counts[i] == 0) {
+                continue;
+            }
+            AnswerRow answer = answers.get(i);
+            deletes.add(new Object[]{answer.getId()});
+            if (answer.getSelectedOptions() != null) {
+                for (String option : answer.getSelectedOptions()) {
+                    inserts.add(new Object[]{answer.getId(), option});
+                }
+            }
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_OPTIONS_SQL, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OPTION_SQL, inserts);
+        }
+        return deletes.size();
+    }
+
+    /**
+     * Applies delta-synced changes with one multi-row UPDATE per 500 changes, skipping every
+     * change whose sequence is not newer than the one last applied to its answer, then rewrites
+     * the selected options of the applied answers.
+     *
+     * @return ids of the questions whose change was applied
+     */
+    public Set<UUID> applySyncedChanges(UUID attemptId, List<SyncedChange> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<UUID, UUID> appliedAnswers = new HashMap<>();
+        for (int from = 0; from < changes.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<SyncedChange> chunk = changes.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, changes.size()));
+            StringBuilder sql = new StringBuilder(APPLY_SYNCED_CHANGES_PREFIX);
+            Object[] params = new Object[chunk.size() * SYNC_COLUMNS + 3];
+            int p = 0;
+            params[p++] = now;
+            params[p++] = now;
+            for (int i = 0; i < chunk.size(); i++) {
+                SyncedChange change = chunk.get(i);
+                sql.append(i == 0 ? "" : ", ").append(SYNCED_CHANGE_ROW);
+                params[p++] = change.getQuestionId();
+                params[p++] = change.getSequence();
+                params[p++] = change.getAnswerText();
+                params[p++] = change.getFlagged();
+                params[p++] = change.getTimeSpentSeconds();
+                params[p++] = change.getAnswerText() != null
+                        || (change.getSelectedOptions() != null && !change.getSelectedOptions().isEmpty());
+            }
+            sql.append(APPLY_SYNCED_CHANGES_SUFFIX);
+            params[p] = attemptId;
+            jdbcTemplate.query(sql.toString(),
+                    (RowCallbackHandler) rs -> appliedAnswers.put(
+                            rs.getObject("question_id", UUID.class), rs.getObject("id", UUID.class)),
+                    params);
+        }
+        if (appliedAnswers.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Object[]> deletes = new ArrayList<>(appliedAnswers.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (SyncedChange change : changes) {
+            UUID answerId = appliedAnswers.get(change.getQuestionId());
+            if (answerId == null) {
+                continue;
+            }
+            deletes.add(new Object[]{answerId});
+            if (change.getSelectedOptions() != null) {
+                for (String option : change.getSelectedOptions()) {
+                    inserts.add(new Object[]{answerId, option});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(DELETE_OPTIONS_SQL, deletes);
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OPTION_SQL, inserts);
+        }
+        return appliedAnswers.keySet();
+    }
+
+    /**
+     * Recounts the attempt's answered and flagged questions and raises its sync high-water mark
+     * to at least {@code sequence}, returning the new state.
+     */
+    public SyncState finishSync(UUID attemptId, long sequence) {
+        return jdbcTemplate.queryForObject(FINISH_SYNC_SQL,
+                (rs, i) -> new SyncState(
+                        rs.getLong("sync_sequence"),
+                        rs.getInt("answered_questions"),
+                        rs.getInt("flagged_questions")),
+                attemptId, sequence, Timestamp.valueOf(LocalDateTime.now()), attemptId);
+    }
+
+    /**
+     * Adds answered/flagged deltas ({@code [answered, flagged]}) to the counters of each attempt
+     * that is still IN_PROGRESS.
+     */
+    public void applyCounterDeltas(Map<UUID, int[]> deltasByAttempt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> params = new ArrayList<>(deltasByAttempt.size());
+        deltasByAttempt.forEach((attemptId, deltas) -> {
+            if (deltas[0] != 0 || deltas[1] != 0) {
+                params.add(new Object[]{deltas[0], deltas[1], now, attemptId});
+            }
+        });
+        if (!params.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_COUNTER_DELTAS_SQL, params);
+        }
+    }
+
+    /**
+     * Adds answered/flagged deltas to a single attempt's counters.
+     *
+     * @return the attempt's {@code [answered, flagged]} totals after the change, or
+     * {@code null} if it does not exist
+     */
+    public int[] applyCounterDelta(UUID attemptId, int answeredDelta, int flaggedDelta) {
+        return jdbcTemplate.query(APPLY_COUNTER_DELTA_RETURNING_SQL,
+                rs -> rs.next() ? new int[]{rs.getInt(1), rs.getInt(2)} : null,
+                answeredDelta, flaggedDelta, Timestamp.valueOf(LocalDateTime.now()), attemptId);
+    }
+
+    /**
+     * Recounts answers of attempts modified within the window and returns those whose stored
+     * counters disagree with the answer rows.
+     */
+    public List<CounterMismatch> findCounterMismatches(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(FIND_COUNTER_MISMATCHES_SQL,
+                (rs, i) -> new CounterMismatch(
+                        rs.getObject("id", UUID.class),
+                        (Integer) rs.getObject("answered_questions"),
+                        (Integer) rs.getObject("flagged_questions"),
+                        rs.getInt("answered"),
+                        rs.getInt("flagged")),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Overwrites counters with their recounted values, skipping rows whose counters changed
+     * since the mismatch was read.
+     *
+     * @return number of attempts corrected
+     */
+    public int reconcileCounters(List<CounterMismatch> mismatches) {
+        if (mismatches.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> params = new ArrayList<>(mismatches.size());
+        for (CounterMismatch mismatch : mismatches) {
+            params.add(new Object[]{
+                    mismatch.getActualAnswered(),
+                    mismatch.getActualFlagged(),
+                    mismatch.getAttemptId(),
+                    mismatch.getStoredAnswered(),
+                    mismatch.getStoredFlagged()
+            });
+        }
+        int corrected = 0;
+        for (int rows : jdbcTemplate.batchUpdate(RECONCILE_COUNTERS_SQL, params)) {
+            corrected += Math.max(rows, 0);
+        }
+        return corrected;
+    }
+
+    private AnswerRow mapAnswer(ResultSet rs) throws SQLException {
+        Timestamp answeredAt = rs.getTimestamp("answered_at");
+        return AnswerRow.builder()
+                .id(rs.getObject("id", UUID.class))
+                .questionId(rs.getObject("question_id", UUID.class))
+                .questionOrder((Integer) rs.getObject("question_order"))
+                .marksAllocated((Integer) rs.getObject("marks_allocated"))
+                .answerText(rs.getString("answer_text"))
+                .selectedOptions(new HashSet<>())
+                .flagged(rs.getBoolean("flagged"))
+                .timeSpentSeconds((Long) rs.getObject("time_spent_seconds"))
+                .answeredAt(answeredAt != null ? answeredAt.toLocalDateTime() : null)
+                .build();
+    }
+}
@@ -6,7 +6,9 @@ import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,7 +19,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface AttemptRepository extends JpaRepository<ExamAttempt, UUID> {
+public interface AttemptRepository extends JpaRepository<ExamAttempt, UUID>, JpaSpecificationExecutor<ExamAttempt> {
     
     // Existing methods
     Page<ExamAttempt> findByStudentId(UUID studentId, Pageable pageable);
@@ -37,13 +39,58 @@ public interface AttemptRepository extends JpaRepository<ExamAttempt, UUID> {
     @Query("SELECT a FROM ExamAttempt a WHERE a.id = :id")
     Optional<ExamAttempt> findByIdWithLock(@Param("id") UUID id);
     
-    @Query("SELECT a FROM ExamAttempt a WHERE a.status = 'IN_PROGRESS' " +
-           "AND a.startedAt < :cutoffTime")
-    List<ExamAttempt> findStalledAttempts(@Param("cutoffTime") LocalDateTime cutoffTime);
-    
+    @Query("SELECT a FROM ExamAttempt a WHERE a.examId = :examId AND a.status = 'IN_PROGRESS'")
+    List<ExamAttempt> findInProgressAttemptsByExam(@Param("examId") UUID examId);
+
+    /**
+     * Open attempts due before the given time. Paused attempts are only due when the exam
+     * itself ends, and never when it has no end time.
+     */
+    @Query("SELECT a.id, CASE WHEN a.status = 'PAUSED' THEN a.examEndTime ELSE a.deadlineAt END " +
+           "FROM ExamAttempt a " +
+           "WHERE (a.status = 'IN_PROGRESS' AND a.deadlineAt < :before) " +
+           "OR (a.status = 'PAUSED' AND a.examEndTime < :before)")
+    List<Object[]> findDeadlinesBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Fills in deadline_at for open attempts created before deadlines were stored.
+     */
+    @Modifying
+    @Query(value = "UPDATE exam_attempts SET deadline_at = started_at " +
+           "+ make_interval(mins => exam_duration_in_minutes) " +
+           "+ make_interval(secs => COALESCE(total_pause_duration_seconds, 0)) " +
+           "WHERE deadline_at IS NULL AND status IN ('IN_PROGRESS', 'PAUSED') " +
+           "AND started_at IS NOT NULL AND exam_duration_in_minutes IS NOT NULL AND deleted = false",
+           nativeQuery = true)
+    int backfillDeadlines();
+
     // New methods
     
     List<ExamAttempt> findByExamId(UUID examId);
+
+    /**
+     * Per-exam attempt counts and averages, computed by the database in one grouped query.
+     */
+    interface ExamAttemptAggregates {
+        Long getTotalAttempts();
+        Long getSubmittedCount();
+        Long getAutoSubmittedCount();
+        Long getAbandonedCount();
+        Double getAverageTimeTakenSeconds();
+        Double getAverageTabSwitches();
+    }
+
+    @Query("SELECT COUNT(a) AS totalAttempts, " +
+           "COALESCE(SUM(CASE WHEN a.status = 'SUBMITTED' THEN 1 ELSE 0 END), 0) AS submittedCount, " +
+           "COALESCE(SUM(CASE WHEN a.status = 'AUTO_SUBMITTED' THEN 1 ELSE 0 END), 0) AS autoSubmittedCount, " +
+           "COALESCE(SUM(CASE WHEN a.status = 'IN_PROGRESS' AND a.deadlineAt < :abandonedBefore " +
+           "THEN 1 ELSE 0 END), 0) AS abandonedCount, " +
+           "AVG(a.timeTakenSeconds) AS averageTimeTakenSeconds, " +
+           "AVG(COALESCE(a.tabSwitches, 0)) AS averageTabSwitches " +
+           "FROM ExamAttempt a WHERE a.examId = :examId")
+    ExamAttemptAggregates aggregateByExamId(
+            @Param("examId") UUID examId,
+            @Param("abandonedBefore") LocalDateTime abandonedBefore);
     
     @Query("SELECT a FROM ExamAttempt a WHERE " +
            "(a.tabSwitches > 5 OR a.webcamViolations > 3 OR a.flaggedAsSuspicious = true)")
@@ -0,0 +1,67 @@
+package com.oerms.attempt.repository;
+
+import com.oerms.attempt.entity.ExamAttempt;
+import com.oerms.common.enums.AttemptStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Attempt filters for keyset listings. Only the criteria that were given become predicates,
+ * so the planner sees a plain query instead of a chain of {@code :x IS NULL OR ...} terms.
+ */
+public final class AttemptSpecifications {
+
+    private AttemptSpecifications() {
+    }
+
+    public static Specification<ExamAttempt> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<ExamAttempt> forExam(UUID examId) {
+        return (root, query, cb) -> cb.equal(root.get("examId"), examId);
+    }
+
+    public static Specification<ExamAttempt> search(UUID examId, UUID studentId, AttemptStatus status,
+                                                     Boolean suspicious, LocalDateTime startDate,
+                                                     LocalDateTime endDate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (examId != null) {
+                predicates.add(cb.equal(root.get("examId"), examId));
+            }
+            if (studentId != null) {
+                predicates.add(cb.equal(root.get("studentId"), studentId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (suspicious != null) {
+                Predicate isSuspicious = suspicious(root, cb);
+                predicates.add(suspicious ? isSuspicious : cb.not(isSuspicious));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startedAt"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startedAt"), endDate));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Same rule as findSuspiciousAttempts, with missing counters treated as zero
+    private static Predicate suspicious(Root<ExamAttempt> root, CriteriaBuilder cb) {
+        return cb.or(
+                cb.gt(cb.coalesce(root.<Integer>get("tabSwitches"), 0), 5),
+                cb.gt(cb.coalesce(root.<Integer>get("webcamViolations"), 0), 3),
+                cb.isTrue(cb.coalesce(root.<Boolean>get("flaggedAsSuspicious"), false)));
+    }
+}
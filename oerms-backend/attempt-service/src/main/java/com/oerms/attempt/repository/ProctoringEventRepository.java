@@ -0,0 +1,158 @@
+package com.oerms.attempt.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Plain JDBC access to the append-only {@code proctoring_events} log.
+ * <p>
+ * The table is range-partitioned by month on {@code occurred_at}, which Hibernate cannot
+ * create, so the schema is maintained here. Reads always carry a lower time bound so that
+ * PostgreSQL only scans the partitions an attempt can have written to.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProctoringEventRepository {
+
+    private static final String TABLE = "proctoring_events";
+    private static final int COLUMNS = 8;
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+            "  id UUID NOT NULL, " +
+            "  attempt_id UUID NOT NULL, " +
+            "  exam_id UUID NOT NULL, " +
+            "  student_id UUID NOT NULL, " +
+            "  event_type VARCHAR(50) NOT NULL, " +
+            "  severity VARCHAR(10) NOT NULL, " +
+            "  description VARCHAR(500), " +
+            "  occurred_at TIMESTAMP NOT NULL, " +
+            "  PRIMARY KEY (id, occurred_at)" +
+            ") PARTITION BY RANGE (occurred_at)";
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO " + TABLE + " (id, attempt_id, exam_id, student_id, event_type, severity, " +
+            "description, occurred_at) VALUES ";
+
+    private static final String APPLY_COUNTER_DELTAS_SQL =
+            "UPDATE exam_attempts SET tab_switches = COALESCE(tab_switches, 0) + ?, " +
+            "webcam_violations = COALESCE(webcam_violations, 0) + ?, " +
+            "copy_paste_count = COALESCE(copy_paste_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EventRow {
+        private UUID id;
+        private UUID attemptId;
+        private UUID examId;
+        private UUID studentId;
+        private String eventType;
+        private String severity;
+        private String description;
+        private LocalDateTime occurredAt;
+    }
+
+    /**
+     * Creates the partitioned table, its indexes and a default partition if they are missing.
+     */
+    public void createSchemaIfMissing() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_proctoring_events_attempt ON " + TABLE +
+                " (attempt_id, occurred_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_proctoring_events_exam ON " + TABLE +
+                " (exam_id, occurred_at)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + "_default PARTITION OF " + TABLE + " DEFAULT");
+    }
+
+    public void createPartitionIfMissing(YearMonth month) {
+        String partition = TABLE + "_" + month.format(PARTITION_SUFFIX);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * Appends the events with multi-row INSERT statements of up to 500 rows each.
+     */
+    public void insertAll(List<EventRow> events) {
+        for (int from = 0; from < events.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<EventRow> chunk = events.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, events.size()));
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            Object[] params = new Object[chunk.size() * COLUMNS];
+            int p = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                EventRow event = chunk.get(i);
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?)");
+                params[p++] = event.getId();
+                params[p++] = event.getAttemptId();
+                params[p++] = event.getExamId();
+                params[p++] = event.getStudentId();
+                params[p++] = event.getEventType();
+                params[p++] = event.getSeverity();
+                params[p++] = event.getDescription();
+                params[p++] = Timestamp.valueOf(event.getOccurredAt());
+            }
+            jdbcTemplate.update(sql.toString(), params);
+        }
+    }
+
+    /**
+     * Adds per-attempt counter deltas, indexed as tab switches, webcam violations and copy/paste.
+     *
+     * @return the updated attempts' counter totals, indexed the same way
+     */
+    public Map<UUID, int[]> applyCounterDeltas(Map<UUID, int[]> deltasByAttempt) {
+        if (deltasByAttempt.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> params = new ArrayList<>(deltasByAttempt.size());
+        deltasByAttempt.forEach((attemptId, deltas) ->
+                params.add(new Object[]{deltas[0], deltas[1], deltas[2], attemptId}));
+        jdbcTemplate.batchUpdate(APPLY_COUNTER_DELTAS_SQL, params);
+
+        Map<UUID, int[]> totals = new HashMap<>();
+        List<UUID> attemptIds = new ArrayList<>(deltasByAttempt.keySet());
+        for (int from = 0; from < attemptIds.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<UUID> chunk = attemptIds.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, attemptIds.size()));
+            jdbcTemplate.query("SELECT id, tab_switches, webcam_violations, copy_paste_count FROM exam_attempts " +
+                            "WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                    (RowCallbackHandler) rs -> totals.put(rs.getObject("id", UUID.class), new int[]{
+                            rs.getInt("tab_switches"), rs.getInt("webcam_violations"), rs.getInt("copy_paste_count")}),
+                    chunk.toArray());
+        }
+        return totals;
+    }
+
+    public List<EventRow> findByAttempt(UUID attemptId, LocalDateTime from) {
+        return jdbcTemplate.query(
+                "SELECT id, attempt_id, exam_id, student_id, event_type, severity, description, occurred_at " +
+                "FROM " + TABLE + " WHERE attempt_id = ? AND occurred_at >= ? ORDER BY occurred_at, id",
+                (rs, i) -> new EventRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("attempt_id", UUID.class),
+                        rs.getObject("exam_id", UUID.class),
+                        rs.getObject("student_id", UUID.class),
+                        rs.getString("event_type"),
+                        rs.getString("severity"),
+                        rs.getString("description"),
+                        rs.getTimestamp("occurred_at").toLocalDateTime()),
+                attemptId, Timestamp.valueOf(from));
+    }
+}
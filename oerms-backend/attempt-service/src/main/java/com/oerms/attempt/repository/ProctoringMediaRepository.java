@@ -0,0 +1,32 @@
+package com.oerms.attempt.repository;
+
+import com.oerms.attempt.entity.ProctoringMedia;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProctoringMediaRepository extends JpaRepository<ProctoringMedia, UUID> {
+
+    boolean existsByAttemptIdAndContentHash(UUID attemptId, String contentHash);
+
+    List<ProctoringMedia> findByAttemptIdOrderByCapturedAtAsc(UUID attemptId);
+
+    @Query("SELECT m FROM ProctoringMedia m WHERE m.capturedAt < :cutoff ORDER BY m.capturedAt")
+    List<ProctoringMedia> findExpired(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ProctoringMedia m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT m.objectKey FROM ProctoringMedia m WHERE m.objectKey IN :objectKeys")
+    List<String> findReferencedObjectKeys(@Param("objectKeys") Collection<String> objectKeys);
+}
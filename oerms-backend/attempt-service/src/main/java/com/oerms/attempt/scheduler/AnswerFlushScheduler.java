@@ -0,0 +1,24 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.service.AnswerWriteBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerFlushScheduler {
+
+    private final AnswerWriteBuffer answerWriteBuffer;
+
+    @Scheduled(fixedDelayString = "${attempt.answer-buffer.flush-interval-ms:2000}")
+    public void flushBufferedAnswers() {
+        try {
+            answerWriteBuffer.flushAll();
+        } catch (Exception ex) {
+            log.error("Failed to flush buffered answers, will retry on next run: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.CounterMismatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Verifies the incrementally maintained answered/flagged counters of recently modified
+ * attempts against their answer rows and corrects any drift.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttemptCounterReconciliationScheduler {
+
+    private final AttemptAnswerBatchRepository batchRepository;
+
+    @Value("${attempt.counter-reconciliation.lookback-minutes:120}")
+    private long lookbackMinutes;
+
+    // Attempts touched more recently than this may have a delta in flight
+    @Value("${attempt.counter-reconciliation.settle-seconds:60}")
+    private long settleSeconds;
+
+    @Scheduled(fixedDelayString = "${attempt.counter-reconciliation.interval-ms:600000}",
+            initialDelayString = "${attempt.counter-reconciliation.interval-ms:600000}")
+    @Transactional
+    public void reconcileCounters() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CounterMismatch> mismatches = batchRepository.findCounterMismatches(
+                now.minusMinutes(lookbackMinutes), now.minusSeconds(settleSeconds));
+
+        if (mismatches.isEmpty()) {
+            log.debug("Attempt counters are consistent with answer rows");
+            return;
+        }
+
+        for (CounterMismatch mismatch : mismatches) {
+            log.warn("Counter drift on attemptId: {}. answered {} -> {}, flagged {} -> {}",
+                    mismatch.getAttemptId(),
+                    mismatch.getStoredAnswered(), mismatch.getActualAnswered(),
+                    mismatch.getStoredFlagged(), mismatch.getActualFlagged());
+        }
+
+        int corrected = batchRepository.reconcileCounters(mismatches);
+        log.info("Reconciled counters for {} of {} drifted attempts", corrected, mismatches.size());
+    }
+}
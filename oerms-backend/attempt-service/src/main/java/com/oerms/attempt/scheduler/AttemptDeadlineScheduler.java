@@ -0,0 +1,34 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.service.AttemptDeadlineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttemptDeadlineScheduler {
+
+    private final AttemptDeadlineService attemptDeadlineService;
+
+    @Scheduled(fixedDelayString = "${attempt.deadline.tick-ms:1000}")
+    public void fireDueDeadlines() {
+        try {
+            attemptDeadlineService.fireDue();
+        } catch (Exception ex) {
+            log.error("Failed to auto-submit attempts past their deadline: {}", ex.getMessage(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${attempt.deadline.sweep-interval-ms:60000}",
+            initialDelayString = "${attempt.deadline.sweep-interval-ms:60000}")
+    public void loadUpcomingDeadlines() {
+        try {
+            attemptDeadlineService.loadUpcoming();
+        } catch (Exception ex) {
+            log.error("Failed to load upcoming attempt deadlines, will retry on next run: {}", ex.getMessage(), ex);
+        }
+    }
+}
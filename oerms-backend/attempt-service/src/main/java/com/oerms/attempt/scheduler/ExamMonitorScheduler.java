@@ -0,0 +1,24 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.service.ExamMonitorHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExamMonitorScheduler {
+
+    private final ExamMonitorHub examMonitorHub;
+
+    @Scheduled(fixedRateString = "${attempt.monitor.frame-interval-ms:1000}")
+    public void publishMonitorFrames() {
+        try {
+            examMonitorHub.publishFrames();
+        } catch (Exception ex) {
+            log.error("Failed to publish monitor frames, will retry on next run: {}", ex.getMessage(), ex);
+        }
+    }
+}
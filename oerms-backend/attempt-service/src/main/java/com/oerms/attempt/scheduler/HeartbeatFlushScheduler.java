@@ -0,0 +1,24 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.service.HeartbeatTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HeartbeatFlushScheduler {
+
+    private final HeartbeatTracker heartbeatTracker;
+
+    @Scheduled(fixedDelayString = "${attempt.heartbeat.flush-interval-ms:5000}")
+    public void flushHeartbeats() {
+        try {
+            heartbeatTracker.flush();
+        } catch (Exception ex) {
+            log.error("Failed to flush heartbeat activity, will retry on next run: {}", ex.getMessage(), ex);
+        }
+    }
+}
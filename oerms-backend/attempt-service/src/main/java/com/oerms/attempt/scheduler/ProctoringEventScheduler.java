@@ -0,0 +1,33 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.service.ProctoringEventLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProctoringEventScheduler {
+
+    private final ProctoringEventLog proctoringEventLog;
+
+    @Scheduled(fixedDelayString = "${attempt.proctoring.flush-interval-ms:500}")
+    public void flushProctoringEvents() {
+        try {
+            proctoringEventLog.flush();
+        } catch (Exception ex) {
+            log.error("Failed to flush proctoring events, will retry on next run: {}", ex.getMessage(), ex);
+        }
+    }
+
+    @Scheduled(cron = "${attempt.proctoring.partition-cron:0 0 2 * * *}")
+    public void createUpcomingPartitions() {
+        try {
+            proctoringEventLog.ensurePartitions();
+        } catch (Exception ex) {
+            log.error("Failed to create proctoring event partitions: {}", ex.getMessage(), ex);
+        }
+    }
+}
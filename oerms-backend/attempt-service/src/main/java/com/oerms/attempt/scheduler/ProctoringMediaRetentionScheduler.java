@@ -0,0 +1,24 @@
+package com.oerms.attempt.scheduler;
+
+import com.oerms.attempt.service.ProctoringMediaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProctoringMediaRetentionScheduler {
+
+    private final ProctoringMediaService proctoringMediaService;
+
+    @Scheduled(cron = "${attempt.storage.retention-cron:0 30 3 * * *}")
+    public void purgeExpiredMedia() {
+        try {
+            proctoringMediaService.purgeExpired();
+        } catch (Exception ex) {
+            log.error("Failed to purge expired proctoring media, will retry on next run: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.dto.AttemptAnswerResponse;
+import com.oerms.attempt.dto.SaveAnswerRequest;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AnswerRow;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AttemptHeader;
+import com.oerms.common.enums.AttemptStatus;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.UnauthorizedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for answer saves.
+ * <p>
+ * Each in-progress attempt touched on this node gets a session holding the current state of
+ * all its answers. Saves mutate the session and are acknowledged immediately; the flusher
+ * writes the dirty answers (coalesced per question) to {@code attempt_answers} in JDBC batches
+ * together with the accumulated answered/flagged counter deltas.
+ * Status transitions must call {@link #sealAndFlush(UUID)} first so that no buffered answer is
+ * lost and no save is accepted while the attempt is leaving IN_PROGRESS.
+ */
+@Component
+@Slf4j
+public class AnswerWriteBuffer {
+
+    private final AttemptAnswerBatchRepository batchRepository;
+    private final ExamMonitorHub examMonitorHub;
+    // Joins the caller's transaction, used when sealing ahead of a status change
+    private final TransactionTemplate joiningTransaction;
+    // Independent transaction, used by the background flusher and by reads before their transaction
+    private final TransactionTemplate newTransaction;
+
+    private final Map<UUID, AttemptSession> sessions = new ConcurrentHashMap<>();
+
+    // Serializes flushes so that an older snapshot can never be written after a newer one
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${attempt.answer-buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attempt.answer-buffer.session-idle-minutes:30}")
+    private long sessionIdleMinutes;
+
+    public AnswerWriteBuffer(AttemptAnswerBatchRepository batchRepository,
+                             ExamMonitorHub examMonitorHub,
+                             PlatformTransactionManager transactionManager) {
+        this.batchRepository = batchRepository;
+        this.examMonitorHub = examMonitorHub;
+        this.joiningTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applies a save to the buffered state of the attempt.
+     *
+     * @return the acknowledged answer, or {@code null} when the attempt is not IN_PROGRESS or is
+     * being sealed, in which case the caller must fall back to the synchronous path
+     */
+    public AttemptAnswerResponse save(UUID attemptId, UUID studentId, SaveAnswerRequest request) {
+        return apply(attemptId, studentId, request.getQuestionId(), answer -> {
+            if (request.getSelectedOptions() != null) {
+                answer.setSelectedOptions(new HashSet<>(request.getSelectedOptions()));
+            }
+            if (request.getAnswerText() != null) {
+                answer.setAnswerText(request.getAnswerText());
+            }
+            if (request.getFlagged() != null) {
+                answer.setFlagged(request.getFlagged());
+            }
+            if (request.getTimeSpentSeconds() != null) {
+                answer.setTimeSpentSeconds(request.getTimeSpentSeconds());
+            }
+        });
+    }
+
+    public AttemptAnswerResponse setFlagged(UUID attemptId, UUID studentId, UUID questionId, boolean flagged) {
+        return apply(attemptId, studentId, questionId, answer -> answer.setFlagged(flagged));
+    }
+
+    public AttemptAnswerResponse clear(UUID attemptId, UUID studentId, UUID questionId) {
+        return apply(attemptId, studentId, questionId, answer -> {
+            answer.setAnswerText(null);
+            answer.setSelectedOptions(new HashSet<>());
+        });
+    }
+
+    /**
+     * Closes the attempt's session for writes and synchronously flushes its pending answers in
+     * the caller's transaction. The session stays closed until that transaction completes; if
+     * it rolls back, the drained answers are written again in a transaction of their own.
+     */
+    public void sealAndFlush(UUID attemptId) {
+        if (!enabled) {
+            return;
+        }
+        AttemptSession session = sessions.compute(attemptId, (id, existing) -> {
+            AttemptSession sealed = existing != null ? existing : AttemptSession.tombstone();
+            synchronized (sealed) {
+                sealed.open = false;
+                sealed.sealed = true;
+            }
+            return sealed;
+        });
+        Map<UUID, AttemptSession> toFlush = Map.of(attemptId, session);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            flushSessions(toFlush, joiningTransaction);
+            sessions.remove(attemptId, session);
+            return;
+        }
+
+        Map<UUID, Drained> drained = new HashMap<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    restore(toFlush, drained);
+                    if (session.hasPending() && !flushAfterRollback(attemptId, session)) {
+                        return;
+                    }
+                }
+                sessions.remove(attemptId, session);
+            }
+        });
+        drained.putAll(flushSessions(toFlush, joiningTransaction));
+    }
+
+    /**
+     * Flushes pending answers of a single attempt so that a subsequent read sees them. Readers
+     * call this before opening their own transaction, so as not to hold two connections.
+     */
+    public void flush(UUID attemptId) {
+        if (!enabled) {
+            return;
+        }
+        AttemptSession session = sessions.get(attemptId);
+        if (session != null && session.hasPending()) {
+            flushSessions(Map.of(attemptId, session), newTransaction);
+        }
+    }
+
+    /**
+     * @return the attempt's {@code [answered, flagged]} totals including unflushed saves, if
+     * its answers are buffered on this node
+     */
+    public Optional<int[]> bufferedCounts(UUID attemptId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        AttemptSession session = sessions.get(attemptId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session) {
+            if (!session.open) {
+                return Optional.empty();
+            }
+            return Optional.of(new int[]{session.answeredQuestions, session.flaggedQuestions});
+        }
+    }
+
+    public void flushAll() {
+        if (!enabled || sessions.isEmpty()) {
+            return;
+        }
+        flushSessions(sessions, newTransaction);
+        evictIdleSessions();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled && !sessions.isEmpty()) {
+            log.info("Flushing {} buffered attempt sessions before shutdown", sessions.size());
+            flushSessions(sessions, newTransaction);
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private interface AnswerMutation {
+        void apply(AnswerRow answer);
+    }
+
+    private AttemptAnswerResponse apply(UUID attemptId, UUID studentId, UUID questionId,
+                                        AnswerMutation mutation) {
+        while (true) {
+            AttemptSession session = sessions.computeIfAbsent(attemptId, this::loadSession);
+            if (session == null) {
+                return null;
+            }
+            AttemptAnswerResponse response;
+            int answeredQuestions;
+            int flaggedQuestions;
+            synchronized (session) {
+                if (session.sealed) {
+                    return null;
+                }
+                if (!session.open) {
+                    // Evicted for idleness between lookup and lock; load a fresh session
+                    continue;
+                }
+                if (!session.studentId.equals(studentId)) {
+                    log.warn("Ownership verification failed. Attempt {} belongs to student {}, " +
+                            "but was accessed by student {}", attemptId, session.studentId, studentId);
+                    throw new UnauthorizedException("Not authorized to access this attempt");
+                }
+                AnswerRow answer = session.answers.get(questionId);
+                if (answer == null) {
+                    throw new ResourceNotFoundException("Question not found in attempt: " + questionId);
+                }
+
+                boolean wasAnswered = isAnswered(answer);
+                boolean wasFlagged = answer.isFlagged();
+                mutation.apply(answer);
+                if (answer.getAnsweredAt() == null && isAnswered(answer)) {
+                    answer.setAnsweredAt(LocalDateTime.now());
+                }
+                int answeredDelta = Boolean.compare(isAnswered(answer), wasAnswered);
+                int flaggedDelta = Boolean.compare(answer.isFlagged(), wasFlagged);
+                session.answeredDelta += answeredDelta;
+                session.flaggedDelta += flaggedDelta;
+                session.answeredQuestions += answeredDelta;
+                session.flaggedQuestions += flaggedDelta;
+                answeredQuestions = session.answeredQuestions;
+                flaggedQuestions = session.flaggedQuestions;
+                session.dirty.add(questionId);
+                session.lastTouched = System.currentTimeMillis();
+                response = toResponse(answer);
+            }
+            examMonitorHub.answersChanged(session.examId, attemptId, answeredQuestions, flaggedQuestions);
+            return response;
+        }
+    }
+
+    private AttemptSession loadSession(UUID attemptId) {
+        Optional<AttemptHeader> header = batchRepository.findAttemptHeader(attemptId);
+        if (header.isEmpty() || !AttemptStatus.IN_PROGRESS.name().equals(header.get().getStatus())) {
+            return null;
+        }
+        Map<UUID, AnswerRow> answers = new HashMap<>();
+        for (AnswerRow row : batchRepository.findAnswers(attemptId)) {
+            answers.put(row.getQuestionId(), row);
+        }
+        log.debug("Loaded buffered session for attemptId: {} with {} answers", attemptId, answers.size());
+        return new AttemptSession(header.get().getStudentId(), header.get().getExamId(), answers);
+    }
+
+    /**
+     * Writes the sessions' dirty answers and counter deltas in the given transaction.
+     *
+     * @return what was taken out of each session, for restoring it should an enclosing
+     * transaction roll back
+     */
+    private Map<UUID, Drained> flushSessions(Map<UUID, AttemptSession> toFlush, TransactionTemplate transaction) {
+        flushLock.lock();
+        try {
+            List<AnswerRow> rows = new ArrayList<>();
+            Map<UUID, int[]> counterDeltas = new HashMap<>();
+            Map<UUID, Drained> drained = new HashMap<>();
+
+            toFlush.forEach((attemptId, session) -> {
+                synchronized (session) {
+                    if (session.dirty.isEmpty()) {
+                        return;
+                    }
+                    for (UUID questionId : session.dirty) {
+                        rows.add(copyOf(session.answers.get(questionId)));
+                    }
+                    counterDeltas.put(attemptId, new int[]{session.answeredDelta, session.flaggedDelta});
+                    drained.put(attemptId, new Drained(new HashSet<>(session.dirty),
+                            session.answeredDelta, session.flaggedDelta));
+                    session.dirty.clear();
+                    session.answeredDelta = 0;
+                    session.flaggedDelta = 0;
+                }
+            });
+
+            if (rows.isEmpty()) {
+                return drained;
+            }
+
+            try {
+                Integer written = transaction.execute(status -> {
+                    int count = batchRepository.updateAnswers(rows);
+                    batchRepository.applyCounterDeltas(counterDeltas);
+                    return count;
+                });
+                if (written != null && written < rows.size()) {
+                    log.warn("Dropped {} buffered answers of attempts no longer in progress", rows.size() - written);
+                }
+                log.debug("Flushed {} buffered answers across {} attempts", written, counterDeltas.size());
+                return drained;
+            } catch (RuntimeException e) {
+                // Put the questions back so the next flush retries them with their latest state
+                restore(toFlush, drained);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static void restore(Map<UUID, AttemptSession> toRestore, Map<UUID, Drained> drained) {
+        drained.forEach((attemptId, taken) -> {
+            AttemptSession session = toRestore.get(attemptId);
+            synchronized (session) {
+                session.dirty.addAll(taken.questionIds());
+                session.answeredDelta += taken.answeredDelta();
+                session.flaggedDelta += taken.flaggedDelta();
+            }
+        });
+    }
+
+    /**
+     * Writes the answers a rolled-back seal took with it; the attempt is still open. Should
+     * that fail too, the session is reopened so that the background flusher retries them.
+     *
+     * @return whether the answers were written and the session can be dropped
+     */
+    private boolean flushAfterRollback(UUID attemptId, AttemptSession session) {
+        try {
+            flushSessions(Map.of(attemptId, session), newTransaction);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to write buffered answers of attemptId: {} after its seal rolled back, " +
+                    "keeping them buffered: {}", attemptId, e.getMessage());
+            synchronized (session) {
+                session.sealed = false;
+                session.open = true;
+            }
+            return false;
+        }
+    }
+
+    private void evictIdleSessions() {
+        long cutoff = System.currentTimeMillis() - Duration.ofMinutes(sessionIdleMinutes).toMillis();
+        sessions.forEach((attemptId, session) -> {
+            synchronized (session) {
+                if (session.open && session.dirty.isEmpty() && session.lastTouched < cutoff) {
+                    session.open = false;
+                    sessions.remove(attemptId, session);
+                }
+            }
+        });
+    }
+
+    private static boolean isAnswered(AnswerRow answer) {
+        return answer.getAnswerText() != null ||
+                (answer.getSelectedOptions() != null && !answer.getSelectedOptions().isEmpty());
+    }
+
+    private static AnswerRow copyOf(AnswerRow answer) {
+        return answer.toBuilder()
+                .selectedOptions(answer.getSelectedOptions() != null
+                        ? new HashSet<>(answer.getSelectedOptions())
+                        : new HashSet<>())
+                .build();
+    }
+
+    private static AttemptAnswerResponse toResponse(AnswerRow answer) {
+        return AttemptAnswerResponse.builder()
+                .id(answer.getId())
+                .questionId(answer.getQuestionId())
+                .questionOrder(answer.getQuestionOrder())
+                .answerText(answer.getAnswerText())
+                .selectedOptions(new HashSet<>(answer.getSelectedOptions()))
+                .flagged(answer.isFlagged())
+                .timeSpentSeconds(answer.getTimeSpentSeconds())
+                .marksAllocated(answer.getMarksAllocated())
+                .answeredAt(answer.getAnsweredAt())
+                .build();
+    }
+
+    private record Drained(Set<UUID> questionIds, int answeredDelta, int flaggedDelta) {
+    }
+
+    private static final class AttemptSession {
+        private final UUID studentId;
+        private final UUID examId;
+        private final Map<UUID, AnswerRow> answers;
+        private final Set<UUID> dirty = new LinkedHashSet<>();
+        private boolean open = true;
+        private boolean sealed;
+        // Counter changes not yet written to exam_attempts
+        private int answeredDelta;
+        private int flaggedDelta;
+        // Counters including the buffered changes
+        private int answeredQuestions;
+        private int flaggedQuestions;
+        private volatile long lastTouched = System.currentTimeMillis();
+
+        private AttemptSession(UUID studentId, UUID examId, Map<UUID, AnswerRow> answers) {
+            this.studentId = studentId;
+            this.examId = examId;
+            this.answers = answers;
+            for (AnswerRow answer : answers.values()) {
+                answeredQuestions += isAnswered(answer) ? 1 : 0;
+                flaggedQuestions += answer.isFlagged() ? 1 : 0;
+            }
+        }
+
+        /**
+         * Placeholder that blocks a session from being loaded while the attempt is sealed.
+         */
+        static AttemptSession tombstone() {
+            return new AttemptSession(null, null, Map.of());
+        }
+
+        synchronized boolean hasPending() {
+            return !dirty.isEmpty();
+        }
+    }
+}
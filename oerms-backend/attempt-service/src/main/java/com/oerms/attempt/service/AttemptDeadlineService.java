@@ -0,0 +1,214 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.entity.ExamAttempt;
+import com.oerms.attempt.kafka.AttemptEventProducer;
+import com.oerms.attempt.repository.AttemptRepository;
+import com.oerms.common.enums.AttemptStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Auto-submits attempts when their time runs out.
+ * <p>
+ * Each open attempt's {@code deadline_at} is held in a {@link DeadlineTimerWheel}, rebuilt
+ * from the indexed column on startup and topped up by a periodic sweep that loads deadlines
+ * falling within the look-ahead window, so attempts started on other instances are covered
+ * too. Due attempts are submitted in small batches, each in its own transaction, and their
+ * events are published once the batch commits. Every instance may fire the same deadline;
+ * the row lock and status check make the submission happen once.
+ */
+@Service
+@Slf4j
+public class AttemptDeadlineService {
+
+    private final AttemptRepository attemptRepository;
+    private final AnswerWriteBuffer answerWriteBuffer;
+    private final ProctoringEventLog proctoringEventLog;
+    private final AttemptEventProducer eventProducer;
+    private final ExamMonitorHub examMonitorHub;
+    private final TransactionTemplate newTransaction;
+    private final DeadlineTimerWheel wheel;
+    private final long graceSeconds;
+    private final long lookAheadMinutes;
+    private final int batchSize;
+
+    public AttemptDeadlineService(AttemptRepository attemptRepository,
+                                  AnswerWriteBuffer answerWriteBuffer,
+                                  ProctoringEventLog proctoringEventLog,
+                                  AttemptEventProducer eventProducer,
+                                  ExamMonitorHub examMonitorHub,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${attempt.grace-period-seconds:60}") long graceSeconds,
+                                  @Value("${attempt.deadline.wheel-size:3600}") int wheelSize,
+                                  @Value("${attempt.deadline.tick-ms:1000}") long tickMillis,
+                                  @Value("${attempt.deadline.look-ahead-minutes:30}") long lookAheadMinutes,
+                                  @Value("${attempt.deadline.batch-size:50}") int batchSize) {
+        this.attemptRepository = attemptRepository;
+        this.answerWriteBuffer = answerWriteBuffer;
+        this.proctoringEventLog = proctoringEventLog;
+        this.eventProducer = eventProducer;
+        this.examMonitorHub = examMonitorHub;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.wheel = new DeadlineTimerWheel(wheelSize, tickMillis, System.currentTimeMillis());
+        this.graceSeconds = graceSeconds;
+        this.lookAheadMinutes = lookAheadMinutes;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Integer backfilled = newTransaction.execute(status -> attemptRepository.backfillDeadlines());
+        if (backfilled != null && backfilled > 0) {
+            log.info("Backfilled deadlines for {} open attempts", backfilled);
+        }
+        loadUpcoming();
+        log.info("Deadline wheel rebuilt with {} attempts", wheel.size());
+    }
+
+    /**
+     * Schedules the attempt's deadline once the current transaction commits.
+     */
+    public void register(UUID attemptId, LocalDateTime deadlineAt) {
+        if (deadlineAt == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(attemptId, deadlineAt);
+                }
+            });
+        } else {
+            schedule(attemptId, deadlineAt);
+        }
+    }
+
+    public void cancel(UUID attemptId) {
+        wheel.cancel(attemptId);
+    }
+
+    /**
+     * Loads the deadlines that fall within the look-ahead window, including overdue ones.
+     */
+    public void loadUpcoming() {
+        LocalDateTime before = LocalDateTime.now().plusMinutes(lookAheadMinutes);
+        for (Object[] row : attemptRepository.findDeadlinesBefore(before)) {
+            schedule((UUID) row[0], toLocalDateTime(row[1]));
+        }
+    }
+
+    /**
+     * Auto-submits every attempt whose deadline, plus the grace period, has passed.
+     *
+     * @return the number of attempts auto-submitted
+     */
+    public int fireDue() {
+        List<UUID> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        log.info("{} attempt deadlines reached, auto-submitting in batches of {}", due.size(), batchSize);
+        // Queued proctoring events must reach the counters carried by the auto-submitted events
+        proctoringEventLog.flush();
+        int submitted = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            submitted += submitBatch(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+        return submitted;
+    }
+
+    // ==================== Internals ====================
+
+    private void schedule(UUID attemptId, LocalDateTime deadlineAt) {
+        long fireAt = deadlineAt.plusSeconds(graceSeconds).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(attemptId, fireAt);
+    }
+
+    private int submitBatch(List<UUID> attemptIds) {
+        List<ExamAttempt> submitted;
+        try {
+            submitted = newTransaction.execute(status -> {
+                List<ExamAttempt> done = new ArrayList<>();
+                for (UUID attemptId : attemptIds) {
+                    autoSubmitIfDue(attemptId).ifPresent(done::add);
+                }
+                return done;
+            });
+        } catch (Exception e) {
+            log.warn("Auto-submit batch of {} attempts failed, retrying one by one: {}", attemptIds.size(), e.getMessage());
+            submitted = new ArrayList<>();
+            for (UUID attemptId : attemptIds) {
+                try {
+                    newTransaction.execute(status -> autoSubmitIfDue(attemptId)).ifPresent(submitted::add);
+                } catch (Exception ex) {
+                    log.error("Failed to auto-submit attemptId: {}. Error: {}", attemptId, ex.getMessage(), ex);
+                }
+            }
+        }
+        for (ExamAttempt attempt : submitted) {
+            eventProducer.publishAttemptAutoSubmitted(attempt);
+            examMonitorHub.statusChanged(attempt);
+        }
+        return submitted.size();
+    }
+
+    /**
+     * Locks the attempt and auto-submits it if it is still open and out of time. Paused
+     * attempts are only submitted once the exam itself has ended; otherwise their deadline
+     * moves when they resume.
+     * <p>
+     * Buffered answers are sealed before the row lock, as in {@code submitAttempt}: the flusher
+     * takes its lock before updating attempt rows, and the batch transaction keeps every row it
+     * locked. An attempt that turns out not to be due has its session dropped when the batch
+     * completes, and its next save reloads it.
+     */
+    private Optional<ExamAttempt> autoSubmitIfDue(UUID attemptId) {
+        answerWriteBuffer.sealAndFlush(attemptId);
+        ExamAttempt attempt = attemptRepository.findByIdWithLock(attemptId).orElse(null);
+        if (attempt == null || attempt.isFinalState()) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (attempt.getStatus() == AttemptStatus.PAUSED) {
+            if (attempt.getExamEndTime() == null) {
+                return Optional.empty();
+            }
+            if (now.isBefore(attempt.getExamEndTime())) {
+                register(attemptId, attempt.getExamEndTime());
+                return Optional.empty();
+            }
+        } else if (attempt.getStatus() != AttemptStatus.IN_PROGRESS) {
+            return Optional.empty();
+        } else if (attempt.getDeadlineAt() == null || now.isBefore(attempt.getDeadlineAt().plusSeconds(graceSeconds))) {
+            // The deadline moved since it was scheduled
+            register(attemptId, attempt.getDeadlineAt());
+            return Optional.empty();
+        }
+
+        log.warn("Auto-submitting attemptId: {} with deadline {}", attemptId, attempt.getDeadlineAt());
+        attempt.setStatus(AttemptStatus.AUTO_SUBMITTED);
+        attempt.setSubmittedAt(now);
+        attempt.setTimeTakenSeconds(attempt.calculateTimeTaken());
+        attempt.setAutoSubmitted(true);
+        return Optional.of(attemptRepository.saveAndFlush(attempt));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
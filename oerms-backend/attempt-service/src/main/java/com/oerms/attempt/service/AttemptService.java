@@ -8,25 +8,35 @@ import com.oerms.common.enums.ExamStatus;
 import com.oerms.attempt.kafka.AttemptEventProducer;
 import com.oerms.attempt.mapper.AttemptMapper;
 import com.oerms.attempt.repository.*;
-import com.oerms.common.dto.ApiResponse;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AnswerRow;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AttemptHeader;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.SyncState;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.SyncedChange;
+import com.oerms.common.dto.CursorPage;
 import com.oerms.common.dto.ExamDTO;
 import com.oerms.common.dto.StudentQuestionDTO;
 import com.oerms.common.exception.*;
 import com.oerms.common.util.JwtUtils;
-import feign.FeignException;
+import com.oerms.common.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,12 +49,20 @@ import static com.oerms.common.constant.Constants.Roles.ROLE_TEACHER;
 @Slf4j
 public class AttemptService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final AttemptRepository attemptRepository;
     private final AttemptAnswerRepository answerRepository;
+    private final AttemptAnswerBatchRepository answerBatchRepository;
     private final AttemptMapper attemptMapper;
-    private final ExamServiceClient examServiceClient;
-    private final StudentQuestionServiceClient studentQuestionServiceClient;
+    private final ExamContentCache examContentCache;
     private final AttemptEventProducer eventProducer;
+    private final AnswerWriteBuffer answerWriteBuffer;
+    private final HeartbeatTracker heartbeatTracker;
+    private final ProctoringEventLog proctoringEventLog;
+    private final ProctoringMediaService proctoringMediaService;
+    private final AttemptDeadlineService attemptDeadlineService;
+    private final ExamMonitorHub examMonitorHub;
 
     @Transactional
     public AttemptResponse startAttempt(
@@ -72,8 +90,7 @@ public class AttemptService {
 
             long attemptCount = attemptRepository.countByExamIdAndStudentId(request.getExamId(), studentId);
 
-            List<StudentQuestionDTO> questions = getExamQuestionsForStudentOrThrow(
-                    request.getExamId(), exam.getShuffleQuestions());
+            List<StudentQuestionDTO> questions = getQuestionsForAttempt(exam, studentId, attemptCount);
 
             if (questions.isEmpty()) {
                 throw new BadRequestException("Exam has no questions");
@@ -83,9 +100,17 @@ public class AttemptService {
                     request, studentId, studentName, ipAddress, userAgent, exam, questions, attemptCount
             );
 
+            attempt.setDeadlineAt(attempt.calculateDeadline());
             attempt = attemptRepository.saveAndFlush(attempt);
+            List<AnswerRow> placeholders = createPlaceholderAnswers(questions);
+            answerBatchRepository.insertPlaceholders(attempt.getId(), placeholders);
+            attemptDeadlineService.register(attempt.getId(), attempt.getDeadlineAt());
+            examMonitorHub.attemptStarted(attempt);
             log.info("New attempt created: attemptId: {}, attemptNumber: {}", attempt.getId(), attempt.getAttemptNumber());
-            return attemptMapper.toResponse(attempt);
+
+            AttemptResponse response = attemptMapper.toResponse(attempt);
+            response.setAnswers(placeholders.stream().map(attemptMapper::toAnswerResponse).toList());
+            return response;
 
         } catch (DataIntegrityViolationException ex) {
             // Race condition detected - another request created an IN_PROGRESS attempt
@@ -108,6 +133,14 @@ public class AttemptService {
         log.debug("Saving answer for attemptId: {}, questionId: {}, studentId: {}",
                 attemptId, request.getQuestionId(), studentId);
 
+        if (answerWriteBuffer.isEnabled()) {
+            AttemptAnswerResponse buffered = answerWriteBuffer.save(attemptId, studentId, request);
+            if (buffered != null) {
+                log.debug("Answer buffered for attemptId: {}, questionId: {}", attemptId, request.getQuestionId());
+                return buffered;
+            }
+        }
+
         ExamAttempt attempt = getAttemptEntity(attemptId);
         verifyAttemptOwnership(attempt, studentId);
 
@@ -131,12 +164,15 @@ public class AttemptService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Question not found in attempt: " + request.getQuestionId()));
 
+        boolean wasAnswered = answer.hasAnswerContent();
+        boolean wasFlagged = Boolean.TRUE.equals(answer.getFlagged());
+
         updateAnswerFields(answer, request);
-        answerRepository.save(answer);
+        savePlainAnswer(attempt, answer);
 
-        attempt.updateAnsweredCount();
-        attempt.updateFlaggedCount();
-        attemptRepository.save(attempt);
+        applyCounterDeltas(attempt,
+                Boolean.compare(answer.hasAnswerContent(), wasAnswered),
+                Boolean.compare(Boolean.TRUE.equals(answer.getFlagged()), wasFlagged));
 
         log.info("Answer saved successfully for attemptId: {}, questionId: {}", attemptId, request.getQuestionId());
         return attemptMapper.toAnswerResponse(answer);
@@ -149,6 +185,13 @@ public class AttemptService {
         log.info("Attempt submission initiated for attemptId: {} by studentId: {}",
                 request.getAttemptId(), studentId);
 
+        // Queued proctoring events must reach the counters carried by the submitted event;
+        // this runs in its own transaction, so it goes before anything locks the attempt row
+        proctoringEventLog.flush();
+
+        // Buffered answers must be persisted before the attempt leaves IN_PROGRESS
+        answerWriteBuffer.sealAndFlush(request.getAttemptId());
+
         try {
             // Use pessimistic write lock to prevent concurrent modifications
             ExamAttempt attempt = attemptRepository.findByIdWithLock(request.getAttemptId())
@@ -181,10 +224,12 @@ public class AttemptService {
 
             // Use saveAndFlush to ensure immediate persistence
             attempt = attemptRepository.saveAndFlush(attempt);
+            attemptDeadlineService.cancel(attempt.getId());
             log.info("Attempt submitted successfully for attemptId: {}.", attempt.getId());
 
             // Publish event after successful save
             eventProducer.publishAttemptSubmitted(attempt);
+            examMonitorHub.statusChanged(attempt);
 
             return attemptMapper.toResponse(attempt);
 
@@ -205,40 +250,23 @@ public class AttemptService {
         }
     }
 
-    @Transactional
-    public void autoSubmitExpiredAttempts() {
-        // Auto-submit attempts that haven't been updated in 24 hours
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24);
-        List<ExamAttempt> stalledAttempts = attemptRepository.findStalledAttempts(cutoffTime);
-
-        if (stalledAttempts.isEmpty()) {
-            log.info("No expired attempts to auto-submit.");
-            return;
-        }
-
-        log.info("Found {} expired attempts to auto-submit.", stalledAttempts.size());
-
-        for (ExamAttempt attempt : stalledAttempts) {
-            try {
-                log.warn("Auto-submitting attemptId: {} which started at {}",
-                        attempt.getId(), attempt.getStartedAt());
-
-                attempt.setStatus(AttemptStatus.AUTO_SUBMITTED);
-                attempt.setSubmittedAt(LocalDateTime.now());
-                attempt.setTimeTakenSeconds(attempt.calculateTimeTaken());
-                attempt.setAutoSubmitted(true);
-
-                attemptRepository.saveAndFlush(attempt);
-                eventProducer.publishAttemptAutoSubmitted(attempt);
-
-                log.info("Successfully auto-submitted attemptId: {}", attempt.getId());
+    /**
+     * Auto-submits every attempt whose deadline has passed. Deadlines normally fire on their
+     * own; this only forces a check of the overdue ones.
+     */
+    public int autoSubmitExpiredAttempts() {
+        attemptDeadlineService.loadUpcoming();
+        int submitted = attemptDeadlineService.fireDue();
+        log.info("Auto-submitted {} expired attempts.", submitted);
+        return submitted;
+    }
 
-            } catch (Exception ex) {
-                log.error("Failed to auto-submit attemptId: {}. Error: {}",
-                        attempt.getId(), ex.getMessage(), ex);
-                // Continue with next attempt
-            }
-        }
+    /**
+     * Writes the attempt's buffered answers so that a following read sees them. Callers run
+     * this before the read's transaction opens, as the flush takes a connection of its own.
+     */
+    public void flushBufferedAnswers(UUID attemptId) {
+        answerWriteBuffer.flush(attemptId);
     }
 
     @Transactional(readOnly = true)
@@ -331,6 +359,14 @@ public class AttemptService {
                 .map(attemptMapper::toSummary);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<AttemptSummary> scrollExamAttempts(UUID examId, String cursor, int size,
+                                                         boolean includeTotal, Authentication authentication) {
+        log.debug("Scrolling attempts for exam: {}", examId);
+        verifyTeacherOrAdminRole(authentication);
+        return scrollAttempts(AttemptSpecifications.forExam(examId), cursor, size, includeTotal);
+    }
+
     @Transactional(readOnly = true)
     public Long getExamAttemptsCount(UUID examId, Authentication authentication) {
         log.debug("Counting attempts for exam: {}", examId);
@@ -352,36 +388,18 @@ public class AttemptService {
                 .map(attemptMapper::toSummary);
     }
 
-    @Transactional
-    public void recordTabSwitch(UUID attemptId, Authentication authentication) {
-        UUID studentId = JwtUtils.getUserId(authentication);
-        ExamAttempt attempt = getAttemptEntity(attemptId);
-        verifyAttemptOwnership(attempt, studentId);
+    @Transactional(readOnly = true)
+    public CursorPage<AttemptSummary> scrollAllAttempts(String cursor, int size, boolean includeTotal) {
+        log.debug("Admin scrolling all attempts");
+        return scrollAttempts(AttemptSpecifications.all(), cursor, size, includeTotal);
+    }
 
-        if (!attempt.isFinalState()) {
-            attempt.incrementTabSwitches();
-            attemptRepository.save(attempt);
-            log.warn("Tab switch recorded for attemptId: {}. Total: {}",
-                    attemptId, attempt.getTabSwitches());
-        } else {
-            log.debug("Ignoring tab switch for finalized attemptId: {}", attemptId);
-        }
+    public void recordTabSwitch(UUID attemptId, Authentication authentication) {
+        recordProctoringEvent(attemptId, ProctoringEventLog.TAB_SWITCH, authentication);
     }
 
-    @Transactional
     public void recordWebcamViolation(UUID attemptId, Authentication authentication) {
-        UUID studentId = JwtUtils.getUserId(authentication);
-        ExamAttempt attempt = getAttemptEntity(attemptId);
-        verifyAttemptOwnership(attempt, studentId);
-
-        if (!attempt.isFinalState()) {
-            attempt.incrementWebcamViolations();
-            attemptRepository.save(attempt);
-            log.warn("Webcam violation recorded for attemptId: {}. Total: {}",
-                    attemptId, attempt.getWebcamViolations());
-        } else {
-            log.debug("Ignoring webcam violation for finalized attemptId: {}", attemptId);
-        }
+        recordProctoringEvent(attemptId, ProctoringEventLog.WEBCAM_VIOLATION, authentication);
     }
 
     // Add these methods to AttemptService class
@@ -391,6 +409,7 @@ public class AttemptService {
     @Transactional
     public AttemptResponse pauseAttempt(UUID attemptId, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
+        answerWriteBuffer.sealAndFlush(attemptId);
         ExamAttempt attempt = getAttemptEntity(attemptId);
         verifyAttemptOwnership(attempt, studentId);
 
@@ -401,6 +420,7 @@ public class AttemptService {
         attempt.setStatus(AttemptStatus.PAUSED);
         attempt.setPausedAt(LocalDateTime.now());
         attemptRepository.save(attempt);
+        examMonitorHub.statusChanged(attempt);
 
         log.info("Attempt {} paused by student {}", attemptId, studentId);
         return attemptMapper.toResponse(attempt);
@@ -421,12 +441,15 @@ public class AttemptService {
 
         // Calculate pause duration and add to total time
         if (attempt.getPausedAt() != null) {
-            long pauseDuration = java.time.Duration.between(
+            long pauseDuration = Duration.between(
                     attempt.getPausedAt(), LocalDateTime.now()).toSeconds();
             attempt.addPauseDuration(pauseDuration);
         }
+        attempt.setDeadlineAt(attempt.calculateDeadline());
 
         attemptRepository.save(attempt);
+        attemptDeadlineService.register(attemptId, attempt.getDeadlineAt());
+        examMonitorHub.statusChanged(attempt);
 
         log.info("Attempt {} resumed by student {}", attemptId, studentId);
         return attemptMapper.toResponse(attempt);
@@ -439,9 +462,14 @@ public class AttemptService {
         verifyAttemptOwnership(attempt, studentId);
 
         LocalDateTime now = LocalDateTime.now();
-        long elapsedSeconds = java.time.Duration.between(attempt.getStartedAt(), now).getSeconds();
-        long examDurationSeconds = attempt.getExamDurationInMinutes() * 60L;
-        long remainingSeconds = Math.max(0, examDurationSeconds - elapsedSeconds);
+        long elapsedSeconds = Duration.between(attempt.getStartedAt(), now).getSeconds();
+        long remainingSeconds;
+        if (attempt.getDeadlineAt() != null) {
+            remainingSeconds = Math.max(0, Duration.between(now, attempt.getDeadlineAt()).getSeconds());
+        } else {
+            long examDurationSeconds = attempt.getExamDurationInMinutes() * 60L;
+            remainingSeconds = Math.max(0, examDurationSeconds - elapsedSeconds);
+        }
 
         return AttemptStatusDTO.builder()
                 .attemptId(attemptId)
@@ -461,14 +489,9 @@ public class AttemptService {
         verifyAttemptOwnership(attempt, studentId);
 
         int totalQuestions = attempt.getTotalQuestions();
-        int answeredCount = (int) attempt.getAnswers().stream()
-                .filter(a -> a.getAnswerText() != null ||
-                        (a.getSelectedOptions() != null && !a.getSelectedOptions().isEmpty()))
-                .count();
+        int answeredCount = attempt.getAnsweredQuestions() != null ? attempt.getAnsweredQuestions() : 0;
         int unansweredCount = totalQuestions - answeredCount;
-        int flaggedCount = (int) attempt.getAnswers().stream()
-                .filter(a -> Boolean.TRUE.equals(a.getFlagged()))
-                .count();
+        int flaggedCount = attempt.getFlaggedQuestions() != null ? attempt.getFlaggedQuestions() : 0;
 
         double completionPercentage = totalQuestions > 0
                 ? (double) answeredCount * 100 / totalQuestions
@@ -484,17 +507,9 @@ public class AttemptService {
                 .build();
     }
 
-    @Transactional
     public void saveProgress(UUID attemptId, SaveProgressRequest request, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
-        ExamAttempt attempt = getAttemptEntity(attemptId);
-        verifyAttemptOwnership(attempt, studentId);
-
-        attempt.setLastActivityAt(LocalDateTime.now());
-        if (request != null && request.getCurrentQuestionId() != null) {
-            attempt.setCurrentQuestionId(request.getCurrentQuestionId());
-        }
-        attemptRepository.save(attempt);
+        heartbeatTracker.record(attemptId, studentId, request != null ? request.getCurrentQuestionId() : null);
 
         log.debug("Progress saved for attempt: {}", attemptId);
     }
@@ -502,6 +517,11 @@ public class AttemptService {
     @Transactional
     public void clearAnswer(UUID attemptId, UUID questionId, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
+        if (answerWriteBuffer.isEnabled() && answerWriteBuffer.clear(attemptId, studentId, questionId) != null) {
+            log.info("Answer cleared for attempt: {}, question: {}", attemptId, questionId);
+            return;
+        }
+
         ExamAttempt attempt = getAttemptEntity(attemptId);
         verifyAttemptOwnership(attempt, studentId);
 
@@ -512,12 +532,12 @@ public class AttemptService {
         AttemptAnswer answer = answerRepository.findByAttemptIdAndQuestionId(attemptId, questionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Answer not found"));
 
+        boolean wasAnswered = answer.hasAnswerContent();
         answer.setAnswerText(null);
         answer.setSelectedOptions(new HashSet<>());
-        answerRepository.save(answer);
+        savePlainAnswer(attempt, answer);
 
-        attempt.updateAnsweredCount();
-        attemptRepository.save(attempt);
+        applyCounterDeltas(attempt, wasAnswered ? -1 : 0, 0);
 
         log.info("Answer cleared for attempt: {}, question: {}", attemptId, questionId);
     }
@@ -527,6 +547,19 @@ public class AttemptService {
                                                        List<SaveAnswerRequest> requests,
                                                        Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
+        List<AttemptAnswerResponse> responses = new ArrayList<>();
+        List<SaveAnswerRequest> remaining = requests;
+        if (answerWriteBuffer.isEnabled()) {
+            int buffered = saveBulkAnswersBuffered(attemptId, studentId, requests, responses);
+            if (buffered == requests.size()) {
+                log.info("Bulk buffered {} answers for attempt: {}", responses.size(), attemptId);
+                return responses;
+            }
+            // The session was sealed partway through; the rest goes through the database, which
+            // rejects the whole request if the attempt has been finalized in the meantime
+            remaining = requests.subList(buffered, requests.size());
+        }
+
         ExamAttempt attempt = getAttemptEntity(attemptId);
         verifyAttemptOwnership(attempt, studentId);
 
@@ -534,33 +567,95 @@ public class AttemptService {
             throw new BadRequestException("Cannot save answers for finalized attempt");
         }
 
-        List<AttemptAnswerResponse> responses = new ArrayList<>();
+        int answeredDelta = 0;
+        int flaggedDelta = 0;
 
-        for (SaveAnswerRequest request : requests) {
+        for (SaveAnswerRequest request : remaining) {
             try {
                 AttemptAnswer answer = answerRepository
                         .findByAttemptIdAndQuestionId(attemptId, request.getQuestionId())
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 "Question not found: " + request.getQuestionId()));
 
+                boolean wasAnswered = answer.hasAnswerContent();
+                boolean wasFlagged = Boolean.TRUE.equals(answer.getFlagged());
+
                 updateAnswerFields(answer, request);
-                answerRepository.save(answer);
+                savePlainAnswer(attempt, answer);
                 responses.add(attemptMapper.toAnswerResponse(answer));
 
+                answeredDelta += Boolean.compare(answer.hasAnswerContent(), wasAnswered);
+                flaggedDelta += Boolean.compare(Boolean.TRUE.equals(answer.getFlagged()), wasFlagged);
+
             } catch (Exception e) {
                 log.error("Failed to save answer for question {}: {}",
                         request.getQuestionId(), e.getMessage());
             }
         }
 
-        attempt.updateAnsweredCount();
-        attempt.updateFlaggedCount();
-        attemptRepository.save(attempt);
+        applyCounterDeltas(attempt, answeredDelta, flaggedDelta);
 
         log.info("Bulk saved {} answers for attempt: {}", responses.size(), attemptId);
         return responses;
     }
 
+    /**
+     * Applies the answers changed on the client since its last acknowledged sequence number.
+     * A change is applied only if its sequence is newer than the last one applied to the same
+     * answer, so writes that arrive out of order after a reconnect are reported back as stale
+     * instead of overwriting newer content. The returned high-water mark acknowledges every
+     * change up to it.
+     */
+    @Transactional
+    @CacheEvict(value = "attempts", key = "#attemptId")
+    public AnswerSyncResponse syncAnswers(UUID attemptId, AnswerSyncRequest request, Authentication auth) {
+        UUID studentId = JwtUtils.getUserId(auth);
+        Map<UUID, SyncedChange> latest = new LinkedHashMap<>();
+        long maxSequence = request.getLastAckedSequence() != null ? request.getLastAckedSequence() : 0L;
+        for (AnswerSyncRequest.AnswerChange change : Optional.ofNullable(request.getChanges()).orElse(List.of())) {
+            if (change.getQuestionId() == null || change.getSequence() == null || change.getSequence() <= 0) {
+                throw new BadRequestException("Each change needs a questionId and a positive sequence");
+            }
+            maxSequence = Math.max(maxSequence, change.getSequence());
+            latest.merge(change.getQuestionId(),
+                    new SyncedChange(change.getQuestionId(), change.getSequence(), change.getAnswerText(),
+                            change.getSelectedOptions(), change.getFlagged(), change.getTimeSpentSeconds()),
+                    (a, b) -> b.getSequence() > a.getSequence() ? b : a);
+        }
+
+        // Buffered saves land first, before the row lock, as the flusher takes flushLock before
+        // touching the row; the next buffered save reloads the synced rows
+        answerWriteBuffer.sealAndFlush(attemptId);
+
+        AttemptHeader header = answerBatchRepository.lockAttemptHeader(attemptId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attempt not found with id: " + attemptId));
+        if (!header.getStudentId().equals(studentId)) {
+            throw new UnauthorizedException("Not authorized to access this attempt");
+        }
+        if (!AttemptStatus.IN_PROGRESS.name().equals(header.getStatus())) {
+            throw new BadRequestException("Cannot save answers for attempt in status: " + header.getStatus());
+        }
+
+        Set<UUID> applied = latest.isEmpty()
+                ? Set.of()
+                : answerBatchRepository.applySyncedChanges(attemptId, new ArrayList<>(latest.values()));
+        SyncState state = answerBatchRepository.finishSync(attemptId, maxSequence);
+
+        examMonitorHub.answersChanged(header.getExamId(), attemptId, state.getAnswered(), state.getFlagged());
+
+        List<UUID> stale = latest.keySet().stream().filter(id -> !applied.contains(id)).toList();
+        log.info("Synced {} of {} answer changes for attempt: {}, high-water mark {}",
+                applied.size(), latest.size(), attemptId, state.getHighWaterMark());
+        return AnswerSyncResponse.builder()
+                .attemptId(attemptId)
+                .highWaterMark(state.getHighWaterMark())
+                .applied(applied.size())
+                .staleQuestionIds(stale)
+                .answeredQuestions(state.getAnswered())
+                .flaggedQuestions(state.getFlagged())
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public AttemptAnswerResponse getAnswer(UUID attemptId, UUID questionId, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
@@ -576,17 +671,22 @@ public class AttemptService {
     @Transactional
     public void flagQuestion(UUID attemptId, UUID questionId, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
+        if (answerWriteBuffer.isEnabled() && answerWriteBuffer.setFlagged(attemptId, studentId, questionId, true) != null) {
+            log.debug("Question flagged: {} in attempt: {}", questionId, attemptId);
+            return;
+        }
+
         ExamAttempt attempt = getAttemptEntity(attemptId);
         verifyAttemptOwnership(attempt, studentId);
 
         AttemptAnswer answer = answerRepository.findByAttemptIdAndQuestionId(attemptId, questionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Answer not found"));
 
+        boolean wasFlagged = Boolean.TRUE.equals(answer.getFlagged());
         answer.setFlagged(true);
-        answerRepository.save(answer);
+        savePlainAnswer(attempt, answer);
 
-        attempt.updateFlaggedCount();
-        attemptRepository.save(attempt);
+        applyCounterDeltas(attempt, 0, wasFlagged ? 0 : 1);
 
         log.debug("Question flagged: {} in attempt: {}", questionId, attemptId);
     }
@@ -594,17 +694,22 @@ public class AttemptService {
     @Transactional
     public void unflagQuestion(UUID attemptId, UUID questionId, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
+        if (answerWriteBuffer.isEnabled() && answerWriteBuffer.setFlagged(attemptId, studentId, questionId, false) != null) {
+            log.debug("Question unflagged: {} in attempt: {}", questionId, attemptId);
+            return;
+        }
+
         ExamAttempt attempt = getAttemptEntity(attemptId);
         verifyAttemptOwnership(attempt, studentId);
 
         AttemptAnswer answer = answerRepository.findByAttemptIdAndQuestionId(attemptId, questionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Answer not found"));
 
+        boolean wasFlagged = Boolean.TRUE.equals(answer.getFlagged());
         answer.setFlagged(false);
-        answerRepository.save(answer);
+        savePlainAnswer(attempt, answer);
 
-        attempt.updateFlaggedCount();
-        attemptRepository.save(attempt);
+        applyCounterDeltas(attempt, 0, wasFlagged ? -1 : 0);
 
         log.debug("Question unflagged: {} in attempt: {}", questionId, attemptId);
     }
@@ -621,43 +726,48 @@ public class AttemptService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
     public void sendHeartbeat(UUID attemptId, ProctoringHeartbeatRequest request, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
-        ExamAttempt attempt = getAttemptEntity(attemptId);
-        verifyAttemptOwnership(attempt, studentId);
-
-        attempt.setLastActivityAt(LocalDateTime.now());
-
-        // Store heartbeat data if needed
-        if (request.getCurrentQuestionId() != null) {
-            attempt.setCurrentQuestionId(request.getCurrentQuestionId());
-        }
-
-        attemptRepository.save(attempt);
+        heartbeatTracker.record(attemptId, studentId, request.getCurrentQuestionId());
         log.trace("Heartbeat received for attempt: {}", attemptId);
     }
 
-    @Transactional
     public void uploadScreenshot(UUID attemptId, MultipartFile screenshot, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
-        ExamAttempt attempt = getAttemptEntity(attemptId);
-        verifyAttemptOwnership(attempt, studentId);
-
-        // Store screenshot - would integrate with file storage service
-        log.info("Screenshot uploaded for attempt: {}, size: {} bytes",
-                attemptId, screenshot.getSize());
+        proctoringMediaService.store(attemptId, studentId, ProctoringMedia.Kind.SCREENSHOT, screenshot);
+        log.info("Screenshot uploaded for attempt: {}, size: {} bytes", attemptId, screenshot.getSize());
     }
 
-    @Transactional
     public void uploadWebcamFrame(UUID attemptId, MultipartFile frame, Authentication auth) {
         UUID studentId = JwtUtils.getUserId(auth);
-        ExamAttempt attempt = getAttemptEntity(attemptId);
-        verifyAttemptOwnership(attempt, studentId);
+        proctoringMediaService.store(attemptId, studentId, ProctoringMedia.Kind.WEBCAM_FRAME, frame);
+        log.info("Webcam frame uploaded for attempt: {}, size: {} bytes", attemptId, frame.getSize());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProctoringMediaDTO> getProctoringMedia(UUID attemptId, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        return proctoringMediaService.getManifest(attemptId).stream()
+                .map(media -> ProctoringMediaDTO.builder()
+                        .id(media.getId())
+                        .kind(media.getKind().name())
+                        .contentHash(media.getContentHash())
+                        .contentType(media.getContentType())
+                        .sizeBytes(media.getSizeBytes())
+                        .deduplicated(media.isDeduplicated())
+                        .capturedAt(media.getCapturedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public ProctoringMedia getProctoringMediaEntry(UUID attemptId, UUID mediaId, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        return proctoringMediaService.getMedia(attemptId, mediaId);
+    }
 
-        // Store webcam frame - would integrate with file storage service
-        log.info("Webcam frame uploaded for attempt: {}, size: {} bytes",
-                attemptId, frame.getSize());
+    public InputStream openProctoringMediaContent(ProctoringMedia media) {
+        return proctoringMediaService.openContent(media);
     }
 
     @Transactional(readOnly = true)
@@ -679,27 +789,14 @@ public class AttemptService {
         verifyTeacherOrAdminRole(auth);
         ExamAttempt attempt = getAttemptEntity(attemptId);
 
-        List<ViolationDetailDTO> violations = new ArrayList<>();
-
-        // Add tab switch violations
-        for (int i = 0; i < attempt.getTabSwitches(); i++) {
-            violations.add(ViolationDetailDTO.builder()
-                    .type("TAB_SWITCH")
-                    .severity("MEDIUM")
-                    .description("Student switched browser tab")
-                    .build());
-        }
-
-        // Add webcam violations
-        for (int i = 0; i < attempt.getWebcamViolations(); i++) {
-            violations.add(ViolationDetailDTO.builder()
-                    .type("WEBCAM_VIOLATION")
-                    .severity("HIGH")
-                    .description("Face not detected or multiple faces")
-                    .build());
-        }
-
-        return violations;
+        return proctoringEventLog.findEvents(attemptId, attempt.getStartedAt()).stream()
+                .map(event -> ViolationDetailDTO.builder()
+                        .type(event.getEventType())
+                        .severity(event.getSeverity())
+                        .description(event.getDescription())
+                        .timestamp(event.getOccurredAt())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
@@ -715,6 +812,15 @@ public class AttemptService {
                 .description("Exam attempt started")
                 .build());
 
+        for (ProctoringEventRepository.EventRow event : proctoringEventLog.findEvents(attemptId, attempt.getStartedAt())) {
+            timeline.add(ProctoringEventDTO.builder()
+                    .eventType(event.getEventType())
+                    .timestamp(event.getOccurredAt())
+                    .description(event.getDescription())
+                    .metadata(Map.of("severity", event.getSeverity()))
+                    .build());
+        }
+
         if (attempt.getSubmittedAt() != null) {
             timeline.add(ProctoringEventDTO.builder()
                     .eventType("ATTEMPT_SUBMITTED")
@@ -730,24 +836,12 @@ public class AttemptService {
     public AttemptAnalyticsDTO getExamAttemptAnalytics(UUID examId, Authentication auth) {
         verifyTeacherOrAdminRole(auth);
 
-        List<ExamAttempt> attempts = attemptRepository.findByExamId(examId);
+        AttemptRepository.ExamAttemptAggregates stats = aggregateAttempts(examId);
 
-        long totalAttempts = attempts.size();
-        long completedAttempts = attempts.stream()
-                .filter(a -> a.getStatus() == AttemptStatus.SUBMITTED ||
-                        a.getStatus() == AttemptStatus.AUTO_SUBMITTED)
-                .count();
-
-        double averageTime = attempts.stream()
-                .filter(a -> a.getTimeTakenSeconds() != null)
-                .mapToLong(ExamAttempt::getTimeTakenSeconds)
-                .average()
-                .orElse(0.0);
-
-        double averageTabSwitches = attempts.stream()
-                .mapToInt(ExamAttempt::getTabSwitches)
-                .average()
-                .orElse(0.0);
+        long totalAttempts = stats.getTotalAttempts();
+        long completedAttempts = stats.getSubmittedCount() + stats.getAutoSubmittedCount();
+        double averageTime = Objects.requireNonNullElse(stats.getAverageTimeTakenSeconds(), 0.0);
+        double averageTabSwitches = Objects.requireNonNullElse(stats.getAverageTabSwitches(), 0.0);
 
         return AttemptAnalyticsDTO.builder()
                 .examId(examId)
@@ -798,29 +892,18 @@ public class AttemptService {
     public CompletionStatsDTO getCompletionStats(UUID examId, Authentication auth) {
         verifyTeacherOrAdminRole(auth);
 
-        List<ExamAttempt> attempts = attemptRepository.findByExamId(examId);
-
-        long completed = attempts.stream()
-                .filter(a -> a.getStatus() == AttemptStatus.SUBMITTED)
-                .count();
+        AttemptRepository.ExamAttemptAggregates stats = aggregateAttempts(examId);
 
-        long autoSubmitted = attempts.stream()
-                .filter(a -> a.getStatus() == AttemptStatus.AUTO_SUBMITTED)
-                .count();
-
-        long abandoned = attempts.stream()
-                .filter(a -> a.getStatus() == AttemptStatus.IN_PROGRESS &&
-                        a.getStartedAt().plusMinutes(a.getExamDurationInMinutes() + 30)
-                                .isBefore(LocalDateTime.now()))
-                .count();
+        long total = stats.getTotalAttempts();
+        long completed = stats.getSubmittedCount();
 
         return CompletionStatsDTO.builder()
                 .examId(examId)
-                .totalAttempts((long) attempts.size())
+                .totalAttempts(total)
                 .completedCount(completed)
-                .autoSubmittedCount(autoSubmitted)
-                .abandonedCount(abandoned)
-                .completionRate(attempts.size() > 0 ? (double) completed * 100 / attempts.size() : 0.0)
+                .autoSubmittedCount(stats.getAutoSubmittedCount())
+                .abandonedCount(stats.getAbandonedCount())
+                .completionRate(total > 0 ? (double) completed * 100 / total : 0.0)
                 .build();
     }
 
@@ -828,11 +911,7 @@ public class AttemptService {
     public Double getAverageCompletionTime(UUID examId, Authentication auth) {
         verifyTeacherOrAdminRole(auth);
 
-        return attemptRepository.findByExamId(examId).stream()
-                .filter(a -> a.getTimeTakenSeconds() != null)
-                .mapToLong(ExamAttempt::getTimeTakenSeconds)
-                .average()
-                .orElse(0.0);
+        return Objects.requireNonNullElse(aggregateAttempts(examId).getAverageTimeTakenSeconds(), 0.0);
     }
 
     @Transactional(readOnly = true)
@@ -927,6 +1006,67 @@ public class AttemptService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * In-progress attempts of an exam with no activity for at least {@code idleSeconds}. Recent
+     * heartbeats are taken from the heartbeat store, which is ahead of the database columns.
+     */
+    @Transactional(readOnly = true)
+    public List<AttemptSummary> getInactiveExamAttempts(UUID examId, long idleSeconds, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+
+        List<ExamAttempt> attempts = attemptRepository.findInProgressAttemptsByExam(examId);
+        Map<UUID, LocalDateTime> recentActivity = heartbeatTracker.findLastActivity(
+                attempts.stream().map(ExamAttempt::getId).toList());
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(idleSeconds);
+
+        List<AttemptSummary> inactive = new ArrayList<>();
+        for (ExamAttempt attempt : attempts) {
+            LocalDateTime lastActivity = recentActivity.getOrDefault(attempt.getId(),
+                    attempt.getLastActivityAt() != null ? attempt.getLastActivityAt() : attempt.getStartedAt());
+            if (lastActivity != null && lastActivity.isBefore(cutoff)) {
+                AttemptSummary summary = attemptMapper.toSummary(attempt);
+                summary.setLastActivityAt(lastActivity);
+                inactive.add(summary);
+            }
+        }
+        return inactive;
+    }
+
+    /**
+     * Opens the live monitoring stream of an exam. The first frame is a snapshot of its open
+     * attempts; later frames carry only what changed.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter openExamMonitor(UUID examId, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+
+        List<ExamAttempt> attempts = attemptRepository.findInProgressAttemptsByExam(examId);
+        Map<UUID, LocalDateTime> recentActivity = heartbeatTracker.findLastActivity(
+                attempts.stream().map(ExamAttempt::getId).toList());
+
+        List<AttemptMonitorDelta> snapshot = new ArrayList<>(attempts.size());
+        for (ExamAttempt attempt : attempts) {
+            // Answers buffered on this node are ahead of the stored counters
+            int[] answerCounts = answerWriteBuffer.bufferedCounts(attempt.getId())
+                    .orElseGet(() -> new int[]{attempt.getAnsweredQuestions(), attempt.getFlaggedQuestions()});
+            snapshot.add(AttemptMonitorDelta.builder()
+                    .attemptId(attempt.getId())
+                    .studentId(attempt.getStudentId())
+                    .studentName(attempt.getStudentName())
+                    .status(attempt.getStatus())
+                    .startedAt(attempt.getStartedAt())
+                    .answeredQuestions(answerCounts[0])
+                    .flaggedQuestions(answerCounts[1])
+                    .tabSwitches(attempt.getTabSwitches())
+                    .webcamViolations(attempt.getWebcamViolations())
+                    .copyPasteCount(attempt.getCopyPasteCount())
+                    .lastActivityAt(recentActivity.getOrDefault(attempt.getId(),
+                            attempt.getLastActivityAt() != null ? attempt.getLastActivityAt() : attempt.getStartedAt()))
+                    .build());
+        }
+        return examMonitorHub.subscribe(examId, snapshot);
+    }
+
     @Transactional
     public void flagAsSuspicious(UUID attemptId, FlagSuspiciousRequest request, Authentication auth) {
         verifyTeacherOrAdminRole(auth);
@@ -953,6 +1093,20 @@ public class AttemptService {
                 .map(attemptMapper::toSummary);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<AttemptSummary> scrollSearchAttempts(UUID examId, UUID studentId, String status,
+                                                           Boolean suspicious, LocalDateTime startDate,
+                                                           LocalDateTime endDate, String cursor, int size,
+                                                           boolean includeTotal, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+
+        AttemptStatus attemptStatus = status != null ? AttemptStatus.valueOf(status) : null;
+
+        return scrollAttempts(
+                AttemptSpecifications.search(examId, studentId, attemptStatus, suspicious, startDate, endDate),
+                cursor, size, includeTotal);
+    }
+
     @Transactional
     public BulkOperationResultDTO bulkSubmit(List<UUID> attemptIds, Authentication auth) {
         if (!JwtUtils.getRole(auth).equals("ROLE_ADMIN")) {
@@ -964,6 +1118,7 @@ public class AttemptService {
 
         for (UUID attemptId : attemptIds) {
             try {
+                answerWriteBuffer.sealAndFlush(attemptId);
                 ExamAttempt attempt = attemptRepository.findByIdWithLock(attemptId)
                         .orElseThrow(() -> new ResourceNotFoundException("Attempt not found: " + attemptId));
 
@@ -979,6 +1134,7 @@ public class AttemptService {
 
                 attemptRepository.save(attempt);
                 eventProducer.publishAttemptAutoSubmitted(attempt);
+                examMonitorHub.statusChanged(attempt);
 
                 successful.add(attemptId);
 
@@ -1049,22 +1205,52 @@ public class AttemptService {
                         .sum())
                 .startedAt(LocalDateTime.now())
                 .examDurationInMinutes(exam.getDuration())
+                .examEndTime(exam.getEndTime())
                 .ipAddress(ipAddress)
                 .userAgent(userAgent)
                 .build();
+        return attempt;
+    }
 
+    /**
+     * Builds the unanswered answer rows of a new attempt, in presentation order. They are
+     * inserted in bulk rather than cascaded from the attempt entity.
+     */
+    private List<AnswerRow> createPlaceholderAnswers(List<StudentQuestionDTO> questions) {
+        List<AnswerRow> answers = new ArrayList<>(questions.size());
         for (int i = 0; i < questions.size(); i++) {
             StudentQuestionDTO question = questions.get(i);
-            AttemptAnswer answer = AttemptAnswer.builder()
+            answers.add(AnswerRow.builder()
+                    .id(UUID.randomUUID())
                     .questionId(question.getId())
                     .questionOrder(i)
                     .marksAllocated(question.getMarks())
                     .flagged(false)
                     .selectedOptions(new HashSet<>())
-                    .build();
-            attempt.addAnswer(answer);
+                    .build());
         }
-        return attempt;
+        return answers;
+    }
+
+    /**
+     * An in-progress attempt counts as abandoned once its deadline is more than 30 minutes past.
+     */
+    private AttemptRepository.ExamAttemptAggregates aggregateAttempts(UUID examId) {
+        return attemptRepository.aggregateByExamId(examId, LocalDateTime.now().minusMinutes(30));
+    }
+
+    private CursorPage<AttemptSummary> scrollAttempts(Specification<ExamAttempt> spec, String cursor,
+                                                      int size, boolean includeTotal) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<ExamAttempt> window = attemptRepository.findBy(spec, query -> query
+                .sortBy(KeysetCursor.ORDER)
+                .limit(Math.min(size, MAX_SCROLL_SIZE))
+                .scroll(position));
+        Long total = includeTotal ? attemptRepository.count(spec) : null;
+        return KeysetCursor.toPage(window, attemptMapper::toSummary, total);
     }
 
     private ExamAttempt getAttemptEntity(UUID attemptId) {
@@ -1074,37 +1260,23 @@ public class AttemptService {
     }
 
     private ExamDTO getExamOrThrow(UUID examId) {
-        try {
-            log.debug("Fetching exam details from exam-service for examId: {}", examId);
-            ApiResponse<ExamDTO> response = examServiceClient.getExam(examId);
-            if (response == null || !response.isSuccess() || response.getData() == null) {
-                log.error("Invalid response from exam-service for examId: {}. Response: {}",
-                        examId, response);
-                throw new ResourceNotFoundException("Exam not found with id: " + examId);
-            }
-            return response.getData();
-        } catch (FeignException e) {
-            log.error("Feign error fetching exam details for examId: {}. Status: {}, Body: {}",
-                    examId, e.status(), e.contentUTF8(), e);
-            throw new ServiceException("Failed to fetch exam details. Please try again later.");
-        }
+        return examContentCache.getExam(examId);
     }
 
-    private List<StudentQuestionDTO> getExamQuestionsForStudentOrThrow(UUID examId, boolean shuffle) {
-        try {
-            log.debug("Fetching student questions from question-service for examId: {}", examId);
-            ApiResponse<List<StudentQuestionDTO>> response =
-                    studentQuestionServiceClient.getExamQuestionsForStudent(examId, shuffle);
-            if (response == null || !response.isSuccess() || response.getData() == null) {
-                log.warn("No student questions found or invalid response for examId: {}", examId);
-                return Collections.emptyList();
-            }
-            return response.getData();
-        } catch (FeignException e) {
-            log.error("Feign error fetching student questions for examId: {}. Status: {}, Body: {}",
-                    examId, e.status(), e.contentUTF8(), e);
-            throw new ServiceException("Failed to fetch exam questions. Please try again later.");
+    /**
+     * Returns the exam's questions in the order this attempt presents them. Shuffling uses a
+     * seed derived from the exam, student and attempt number, so every attempt gets its own
+     * order while the cached list stays shared and unshuffled.
+     */
+    private List<StudentQuestionDTO> getQuestionsForAttempt(ExamDTO exam, UUID studentId, long attemptCount) {
+        List<StudentQuestionDTO> questions = examContentCache.getQuestions(exam);
+        if (!Boolean.TRUE.equals(exam.getShuffleQuestions()) || questions.size() < 2) {
+            return questions;
         }
+        long seed = Objects.hash(exam.getId(), studentId, attemptCount + 1);
+        List<StudentQuestionDTO> shuffled = new ArrayList<>(questions);
+        Collections.shuffle(shuffled, new Random(seed));
+        return shuffled;
     }
 
     private void validateExamForAttempt(ExamDTO exam) {
@@ -1142,6 +1314,52 @@ public class AttemptService {
         }
     }
 
+    /**
+     * Saves an answer written outside delta sync. Its client sequence is raised to the
+     * attempt's sync high-water mark, so that a sequenced change the server has already seen
+     * cannot be replayed over this write.
+     */
+    private void savePlainAnswer(ExamAttempt attempt, AttemptAnswer answer) {
+        Long highWaterMark = attempt.getSyncSequence();
+        if (highWaterMark != null && (answer.getClientSequence() == null || answer.getClientSequence() < highWaterMark)) {
+            answer.setClientSequence(highWaterMark);
+        }
+        answerRepository.save(answer);
+    }
+
+    private void applyCounterDeltas(ExamAttempt attempt, int answeredDelta, int flaggedDelta) {
+        if (answeredDelta != 0 || flaggedDelta != 0) {
+            int[] totals = answerBatchRepository.applyCounterDelta(attempt.getId(), answeredDelta, flaggedDelta);
+            if (totals != null) {
+                examMonitorHub.answersChanged(attempt.getExamId(), attempt.getId(), totals[0], totals[1]);
+            }
+        }
+    }
+
+    /**
+     * Applies bulk saves through the write buffer, adding the acknowledged answers to
+     * {@code responses}, until the attempt turns out not to be buffered or gets sealed.
+     *
+     * @return number of requests consumed; the rest must take the synchronous path
+     */
+    private int saveBulkAnswersBuffered(UUID attemptId, UUID studentId, List<SaveAnswerRequest> requests,
+                                        List<AttemptAnswerResponse> responses) {
+        for (int i = 0; i < requests.size(); i++) {
+            SaveAnswerRequest request = requests.get(i);
+            try {
+                AttemptAnswerResponse response = answerWriteBuffer.save(attemptId, studentId, request);
+                if (response == null) {
+                    return i;
+                }
+                responses.add(response);
+            } catch (ResourceNotFoundException e) {
+                log.error("Failed to save answer for question {}: {}",
+                        request.getQuestionId(), e.getMessage());
+            }
+        }
+        return requests.size();
+    }
+
     private void updateAnswerFields(AttemptAnswer answer, SaveAnswerRequest request) {
         if (request.getSelectedOptions() != null) {
             answer.setSelectedOptions(request.getSelectedOptions());
@@ -1159,7 +1377,18 @@ public class AttemptService {
 
     public void recordCustomViolation(UUID attemptId, String violationType,
                                       Authentication authentication) {
-        // Implementation for custom violations if needed
-        log.info("Custom violation recorded: {} for attemptId: {}", violationType, attemptId);
+        if (violationType == null || violationType.isBlank() || violationType.length() > 50) {
+            throw new BadRequestException("Violation type must be between 1 and 50 characters");
+        }
+        recordProctoringEvent(attemptId, violationType.trim().toUpperCase(), authentication);
+    }
+
+    private void recordProctoringEvent(UUID attemptId, String eventType, Authentication authentication) {
+        UUID studentId = JwtUtils.getUserId(authentication);
+        if (proctoringEventLog.record(attemptId, studentId, eventType)) {
+            log.warn("{} recorded for attemptId: {}", eventType, attemptId);
+        } else {
+            log.debug("Ignoring {} for finalized attemptId: {}", eventType, attemptId);
+        }
     }
 }
@@ -0,0 +1,92 @@
+package com.oerms.attempt.service;
+
+import java.util.*;
+
+/**
+ * Hashed timer wheel of attempt deadlines with a fixed tick.
+ * <p>
+ * A deadline lands in the bucket of its tick modulo the wheel size, so scheduling and
+ * cancelling are O(1) and advancing one tick only looks at one bucket. Deadlines further
+ * away than one rotation stay in their bucket and are skipped until their tick comes round.
+ * Deadlines already in the past fire on the next advance. All methods are synchronized;
+ * the wheel is touched once per tick and once per scheduled attempt.
+ */
+public final class DeadlineTimerWheel {
+
+    private final long tickMillis;
+    private final List<Set<UUID>> buckets;
+    private final Map<UUID, Long> deadlineTicks = new HashMap<>();
+    private long nextTick;
+
+    public DeadlineTimerWheel(int wheelSize, long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules or moves the attempt's deadline.
+     */
+    public synchronized void schedule(UUID attemptId, long deadlineMillis) {
+        long tick = Math.max(ceilTick(deadlineMillis), nextTick);
+        Long previous = deadlineTicks.put(attemptId, tick);
+        if (previous != null) {
+            bucket(previous).remove(attemptId);
+        }
+        bucket(tick).add(attemptId);
+    }
+
+    public synchronized void cancel(UUID attemptId) {
+        Long previous = deadlineTicks.remove(attemptId);
+        if (previous != null) {
+            bucket(previous).remove(attemptId);
+        }
+    }
+
+    public synchronized boolean contains(UUID attemptId) {
+        return deadlineTicks.containsKey(attemptId);
+    }
+
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and removes every deadline that has passed.
+     *
+     * @return the attempts whose deadline has passed, in tick order
+     */
+    public synchronized List<UUID> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        if (nowTick < nextTick) {
+            return List.of();
+        }
+        // After a long stall one rotation visits every bucket
+        long from = Math.max(nextTick, nowTick - buckets.size() + 1);
+        List<UUID> due = new ArrayList<>();
+        for (long tick = from; tick <= nowTick; tick++) {
+            Iterator<UUID> iterator = bucket(tick).iterator();
+            while (iterator.hasNext()) {
+                UUID attemptId = iterator.next();
+                if (deadlineTicks.get(attemptId) <= nowTick) {
+                    iterator.remove();
+                    deadlineTicks.remove(attemptId);
+                    due.add(attemptId);
+                }
+            }
+        }
+        nextTick = nowTick + 1;
+        return due;
+    }
+
+    private long ceilTick(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private Set<UUID> bucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+}
@@ -0,0 +1,165 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.client.InternalExamServiceClient;
+import com.oerms.attempt.client.InternalQuestionServiceClient;
+import com.oerms.common.dto.ApiResponse;
+import com.oerms.common.dto.ExamDTO;
+import com.oerms.common.dto.StudentQuestionDTO;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.ServiceException;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache of the exam details and unshuffled question list that every attempt start needs.
+ * <p>
+ * Exam details are kept for a short TTL and evicted on exam events, since their status and
+ * schedule decide whether an attempt may start. Question lists are keyed by exam id and
+ * version ({@code updatedAt}), so an updated exam never serves questions cached for its
+ * previous version; a longer TTL covers question edits, which question-service does not
+ * announce. Concurrent misses for the same key share a single load, so a crowd starting the
+ * same exam costs one call to each service.
+ */
+@Component
+@Slf4j
+public class ExamContentCache {
+
+    private final InternalExamServiceClient examServiceClient;
+    private final InternalQuestionServiceClient questionServiceClient;
+    private final long examTtlMillis;
+    private final long questionsTtlMillis;
+
+    private final Map<UUID, Entry<ExamDTO>> exams = new ConcurrentHashMap<>();
+    private final Map<VersionKey, Entry<List<StudentQuestionDTO>>> questions = new ConcurrentHashMap<>();
+    private final Map<Object, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    public ExamContentCache(InternalExamServiceClient examServiceClient,
+                            InternalQuestionServiceClient questionServiceClient,
+                            @Value("${attempt.exam-cache.exam-ttl-seconds:60}") long examTtlSeconds,
+                            @Value("${attempt.exam-cache.questions-ttl-minutes:10}") long questionsTtlMinutes) {
+        this.examServiceClient = examServiceClient;
+        this.questionServiceClient = questionServiceClient;
+        this.examTtlMillis = Duration.ofSeconds(examTtlSeconds).toMillis();
+        this.questionsTtlMillis = Duration.ofMinutes(questionsTtlMinutes).toMillis();
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    private record VersionKey(UUID examId, LocalDateTime version) {
+    }
+
+    public ExamDTO getExam(UUID examId) {
+        Entry<ExamDTO> entry = exams.get(examId);
+        if (entry != null && !isExpired(entry, examTtlMillis)) {
+            return entry.value();
+        }
+        ExamDTO exam = loadOnce(examId, () -> fetchExam(examId));
+        exams.put(examId, new Entry<>(exam, System.currentTimeMillis()));
+        return exam;
+    }
+
+    /**
+     * @return the exam's questions in exam order; callers must not modify the list
+     */
+    public List<StudentQuestionDTO> getQuestions(ExamDTO exam) {
+        VersionKey key = new VersionKey(exam.getId(), exam.getUpdatedAt());
+        Entry<List<StudentQuestionDTO>> entry = questions.get(key);
+        if (entry != null && !isExpired(entry, questionsTtlMillis)) {
+            return entry.value();
+        }
+        List<StudentQuestionDTO> loaded = loadOnce(key, () -> fetchQuestions(exam.getId()));
+        if (!loaded.isEmpty()) {
+            // Drop lists cached for earlier versions of the exam
+            questions.keySet().removeIf(k -> k.examId().equals(exam.getId()) && !k.equals(key));
+            questions.put(key, new Entry<>(loaded, System.currentTimeMillis()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads the exam and its questions ahead of the first attempt start, unless cached.
+     */
+    public void warm(UUID examId) {
+        ExamDTO exam = getExam(examId);
+        List<StudentQuestionDTO> warmed = getQuestions(exam);
+        log.debug("Warmed exam cache for examId: {} with {} questions", examId, warmed.size());
+    }
+
+    public void evict(UUID examId) {
+        exams.remove(examId);
+        questions.keySet().removeIf(k -> k.examId().equals(examId));
+        log.debug("Evicted cached exam content for examId: {}", examId);
+    }
+
+    // ==================== Internals ====================
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadOnce(Object key, Supplier<T> loader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            T value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private ExamDTO fetchExam(UUID examId) {
+        try {
+            log.debug("Fetching exam details from exam-service for examId: {}", examId);
+            ApiResponse<ExamDTO> response = examServiceClient.getExam(examId);
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                log.error("Invalid response from exam-service for examId: {}. Response: {}", examId, response);
+                throw new ResourceNotFoundException("Exam not found with id: " + examId);
+            }
+            return response.getData();
+        } catch (FeignException e) {
+            log.error("Feign error fetching exam details for examId: {}. Status: {}, Body: {}",
+                    examId, e.status(), e.contentUTF8(), e);
+            throw new ServiceException("Failed to fetch exam details. Please try again later.");
+        }
+    }
+
+    private List<StudentQuestionDTO> fetchQuestions(UUID examId) {
+        try {
+            log.debug("Fetching student questions from question-service for examId: {}", examId);
+            ApiResponse<List<StudentQuestionDTO>> response = questionServiceClient.getExamQuestionsForAttempts(examId);
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                log.warn("No student questions found or invalid response for examId: {}", examId);
+                return Collections.emptyList();
+            }
+            return List.copyOf(response.getData());
+        } catch (FeignException e) {
+            log.error("Feign error fetching student questions for examId: {}. Status: {}, Body: {}",
+                    examId, e.status(), e.contentUTF8(), e);
+            throw new ServiceException("Failed to fetch exam questions. Please try again later.");
+        }
+    }
+
+    private static boolean isExpired(Entry<?> entry, long ttlMillis) {
+        return System.currentTimeMillis() - entry.loadedAt() > ttlMillis;
+    }
+}
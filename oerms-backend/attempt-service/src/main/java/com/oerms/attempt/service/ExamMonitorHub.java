@@ -0,0 +1,300 @@
+package com.oerms.attempt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oerms.attempt.dto.AttemptMonitorDelta;
+import com.oerms.attempt.dto.ExamMonitorFrame;
+import com.oerms.attempt.entity.ExamAttempt;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AttemptHeader;
+import com.oerms.common.enums.AttemptStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Live monitoring channel per exam for invigilators.
+ * <p>
+ * The attempt write paths report changes here as they happen, or once their transaction
+ * commits, with counters as current totals. Changes are coalesced per attempt and, once a
+ * second, published through the {@link MonitorFrameRelay} as one delta frame per exam. Each
+ * instance forwards the frames of the exams it has subscribers for to their server-sent event
+ * streams, serializing every frame once for all of them. Heartbeat staleness is derived on the
+ * subscriber side from the activity seen in the frames, so it covers attempts served by any
+ * instance.
+ */
+@Component
+@Slf4j
+public class ExamMonitorHub {
+
+    private final MonitorFrameRelay relay;
+    private final AttemptAnswerBatchRepository attemptBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final long staleAfterSeconds;
+
+    // examId -> attemptId -> coalesced change; inner maps are only touched inside compute()
+    private final Map<UUID, Map<UUID, AttemptMonitorDelta>> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, ExamChannel> channels = new ConcurrentHashMap<>();
+    // Exam of recently seen attempts, for write paths that only know the attempt
+    private final Map<UUID, UUID> attemptExams;
+
+    public ExamMonitorHub(MonitorFrameRelay relay,
+                          AttemptAnswerBatchRepository attemptBatchRepository,
+                          ObjectMapper objectMapper,
+                          @Value("${attempt.monitor.emitter-timeout-minutes:240}") long emitterTimeoutMinutes,
+                          @Value("${attempt.monitor.stale-after-seconds:120}") long staleAfterSeconds,
+                          @Value("${attempt.monitor.attempt-index-size:100000}") int attemptIndexSize) {
+        this.relay = relay;
+        this.attemptBatchRepository = attemptBatchRepository;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = Duration.ofMinutes(emitterTimeoutMinutes).toMillis();
+        this.staleAfterSeconds = staleAfterSeconds;
+        this.attemptExams = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UUID> eldest) {
+                return size() > attemptIndexSize;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        relay.subscribe(this::deliver);
+    }
+
+    /**
+     * Opens a stream for the exam, starting with a snapshot of its open attempts.
+     */
+    public SseEmitter subscribe(UUID examId, List<AttemptMonitorDelta> snapshot) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        ExamChannel channel = channels.computeIfAbsent(examId, ExamChannel::new);
+        channel.track(snapshot);
+
+        ExamMonitorFrame frame = ExamMonitorFrame.builder()
+                .examId(examId)
+                .type(ExamMonitorFrame.Type.SNAPSHOT)
+                .sentAt(LocalDateTime.now())
+                .attempts(snapshot)
+                .build();
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(serialize(frame), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        channel.emitters.add(emitter);
+        Runnable remove = () -> removeEmitter(channel, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        log.info("Monitor stream opened for exam {}, {} subscribers on this instance",
+                examId, channel.emitters.size());
+        return emitter;
+    }
+
+    public void attemptStarted(ExamAttempt attempt) {
+        record(attempt.getExamId(), AttemptMonitorDelta.builder()
+                .attemptId(attempt.getId())
+                .studentId(attempt.getStudentId())
+                .studentName(attempt.getStudentName())
+                .status(attempt.getStatus())
+                .startedAt(attempt.getStartedAt())
+                .lastActivityAt(attempt.getStartedAt())
+                .build());
+    }
+
+    public void statusChanged(ExamAttempt attempt) {
+        record(attempt.getExamId(), AttemptMonitorDelta.builder()
+                .attemptId(attempt.getId())
+                .status(attempt.getStatus())
+                .lastActivityAt(attempt.getStatus() == AttemptStatus.IN_PROGRESS ? LocalDateTime.now() : null)
+                .build());
+    }
+
+    public void answersChanged(UUID examId, UUID attemptId, int answeredQuestions, int flaggedQuestions) {
+        record(examId, AttemptMonitorDelta.builder()
+                .attemptId(attemptId)
+                .answeredQuestions(answeredQuestions)
+                .flaggedQuestions(flaggedQuestions)
+                .lastActivityAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * @param counts total tab switches, webcam violations and copy/paste events, in that order
+     */
+    public void violationsRecorded(UUID examId, UUID attemptId, int[] counts) {
+        record(examId, AttemptMonitorDelta.builder()
+                .attemptId(attemptId)
+                .tabSwitches(counts[0])
+                .webcamViolations(counts[1])
+                .copyPasteCount(counts[2])
+                .build());
+    }
+
+    public void activityRecorded(UUID attemptId, LocalDateTime at) {
+        UUID examId = attemptExams.get(attemptId);
+        if (examId == null) {
+            examId = attemptBatchRepository.findAttemptHeader(attemptId).map(AttemptHeader::getExamId).orElse(null);
+            if (examId == null) {
+                return;
+            }
+        }
+        record(examId, AttemptMonitorDelta.builder()
+                .attemptId(attemptId)
+                .lastActivityAt(at)
+                .build());
+    }
+
+    /**
+     * Publishes one frame per exam with changes, then tells local subscribers about attempts
+     * that went quiet since the last run.
+     */
+    public void publishFrames() {
+        LocalDateTime now = LocalDateTime.now();
+        for (UUID examId : new ArrayList<>(pending.keySet())) {
+            Map<UUID, AttemptMonitorDelta> changes = pending.remove(examId);
+            if (changes == null || changes.isEmpty()) {
+                continue;
+            }
+            relay.publish(ExamMonitorFrame.builder()
+                    .examId(examId)
+                    .type(ExamMonitorFrame.Type.DELTA)
+                    .sentAt(now)
+                    .attempts(new ArrayList<>(changes.values()))
+                    .build());
+        }
+
+        LocalDateTime staleBefore = now.minusSeconds(staleAfterSeconds);
+        channels.values().forEach(channel -> {
+            List<AttemptMonitorDelta> stale = channel.markStale(staleBefore);
+            if (!stale.isEmpty()) {
+                send(channel, ExamMonitorFrame.builder()
+                        .examId(channel.examId)
+                        .type(ExamMonitorFrame.Type.DELTA)
+                        .sentAt(now)
+                        .attempts(stale)
+                        .build());
+            }
+        });
+    }
+
+    // ==================== Internals ====================
+
+    private void record(UUID examId, AttemptMonitorDelta delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    coalesce(examId, delta);
+                }
+            });
+        } else {
+            coalesce(examId, delta);
+        }
+    }
+
+    private void coalesce(UUID examId, AttemptMonitorDelta delta) {
+        attemptExams.put(delta.getAttemptId(), examId);
+        pending.compute(examId, (id, changes) -> {
+            Map<UUID, AttemptMonitorDelta> coalesced = changes != null ? changes : new HashMap<>();
+            coalesced.merge(delta.getAttemptId(), delta, AttemptMonitorDelta::merge);
+            return coalesced;
+        });
+    }
+
+    private void deliver(ExamMonitorFrame frame) {
+        ExamChannel channel = channels.get(frame.getExamId());
+        if (channel == null) {
+            return;
+        }
+        channel.track(frame.getAttempts());
+        send(channel, frame);
+    }
+
+    private void send(ExamChannel channel, ExamMonitorFrame frame) {
+        String data;
+        try {
+            data = serialize(frame);
+        } catch (IOException e) {
+            log.error("Failed to serialize monitor frame of exam {}: {}", frame.getExamId(), e.getMessage());
+            return;
+        }
+        for (SseEmitter emitter : channel.emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("delta").data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping monitor subscriber of exam {}: {}", channel.examId, e.getMessage());
+                removeEmitter(channel, emitter);
+            }
+        }
+    }
+
+    private void removeEmitter(ExamChannel channel, SseEmitter emitter) {
+        channel.emitters.remove(emitter);
+        if (channel.emitters.isEmpty()) {
+            channels.remove(channel.examId, channel);
+        }
+    }
+
+    private String serialize(ExamMonitorFrame frame) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(frame);
+    }
+
+    private static final class ExamChannel {
+        private final UUID examId;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        // Last activity of the open attempts seen by this channel, and those reported stale
+        private final Map<UUID, LocalDateTime> lastActivity = new ConcurrentHashMap<>();
+        private final Set<UUID> stale = ConcurrentHashMap.newKeySet();
+
+        private ExamChannel(UUID examId) {
+            this.examId = examId;
+        }
+
+        private void track(List<AttemptMonitorDelta> deltas) {
+            for (AttemptMonitorDelta delta : deltas) {
+                UUID attemptId = delta.getAttemptId();
+                // Only in-progress attempts are expected to send heartbeats
+                if (delta.getStatus() != null && delta.getStatus() != AttemptStatus.IN_PROGRESS) {
+                    lastActivity.remove(attemptId);
+                    stale.remove(attemptId);
+                } else if (delta.getLastActivityAt() != null) {
+                    lastActivity.merge(attemptId, delta.getLastActivityAt(),
+                            (a, b) -> a.isAfter(b) ? a : b);
+                    if (!Boolean.TRUE.equals(delta.getStale())) {
+                        stale.remove(attemptId);
+                    }
+                }
+            }
+        }
+
+        private List<AttemptMonitorDelta> markStale(LocalDateTime staleBefore) {
+            List<AttemptMonitorDelta> newlyStale = new ArrayList<>();
+            lastActivity.forEach((attemptId, at) -> {
+                if (at.isBefore(staleBefore) && stale.add(attemptId)) {
+                    newlyStale.add(AttemptMonitorDelta.builder()
+                            .attemptId(attemptId)
+                            .lastActivityAt(at)
+                            .stale(true)
+                            .build());
+                }
+            });
+            return newlyStale;
+        }
+    }
+}
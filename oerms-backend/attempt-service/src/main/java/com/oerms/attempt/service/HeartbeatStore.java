@@ -0,0 +1,40 @@
+package com.oerms.attempt.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fast store for attempt heartbeats. It holds the latest activity of each attempt and tracks
+ * which attempts have activity that has not been written to {@code exam_attempts} yet.
+ */
+public interface HeartbeatStore {
+
+    /**
+     * Latest known activity of an attempt. A null {@code currentQuestionId} in a recorded
+     * activity keeps the previously recorded question.
+     */
+    record Activity(UUID attemptId, UUID studentId, LocalDateTime lastActivityAt, UUID currentQuestionId) {
+    }
+
+    /**
+     * @return the attempt's latest activity, or {@code null} when the store holds none
+     */
+    Activity find(UUID attemptId);
+
+    Map<UUID, LocalDateTime> findLastActivity(Collection<UUID> attemptIds);
+
+    void record(Activity activity);
+
+    /**
+     * Removes up to {@code max} attempts from the pending set and returns their latest activity.
+     */
+    List<Activity> drainPending(int max);
+
+    /**
+     * Puts attempts back into the pending set, for example after a failed flush.
+     */
+    void markPending(Collection<UUID> attemptIds);
+}
@@ -0,0 +1,125 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.repository.AttemptActivityBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.service.HeartbeatStore.Activity;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.UnauthorizedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Records attempt heartbeats in the {@link HeartbeatStore} and periodically writes the latest
+ * activity of each attempt to the database in batches.
+ * <p>
+ * The attempt owner is remembered with the activity, so only the first heartbeat of an
+ * attempt reads its row. When the store is unavailable, heartbeats are written straight to
+ * the database and reads fall back to the stored columns.
+ */
+@Component
+@Slf4j
+public class HeartbeatTracker {
+
+    private final HeartbeatStore store;
+    private final AttemptActivityBatchRepository activityRepository;
+    private final AttemptAnswerBatchRepository answerBatchRepository;
+    private final ExamMonitorHub examMonitorHub;
+    private final int flushBatchSize;
+
+    public HeartbeatTracker(HeartbeatStore store,
+                            AttemptActivityBatchRepository activityRepository,
+                            AttemptAnswerBatchRepository answerBatchRepository,
+                            ExamMonitorHub examMonitorHub,
+                            @Value("${attempt.heartbeat.flush-batch-size:500}") int flushBatchSize) {
+        this.store = store;
+        this.activityRepository = activityRepository;
+        this.answerBatchRepository = answerBatchRepository;
+        this.examMonitorHub = examMonitorHub;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * Records activity on an attempt after checking that it belongs to the student.
+     */
+    public void record(UUID attemptId, UUID studentId, UUID currentQuestionId) {
+        verifyOwnership(attemptId, studentId);
+        Activity activity = new Activity(attemptId, studentId, LocalDateTime.now(), currentQuestionId);
+        try {
+            store.record(activity);
+        } catch (DataAccessException e) {
+            log.warn("Heartbeat store unavailable, writing activity of attempt {} directly: {}",
+                    attemptId, e.getMessage());
+            activityRepository.updateActivity(List.of(activity));
+        }
+        examMonitorHub.activityRecorded(attemptId, activity.lastActivityAt());
+    }
+
+    /**
+     * @return the latest activity the store holds for each attempt; attempts it does not know
+     * are missing from the map and should fall back to {@code lastActivityAt}
+     */
+    public Map<UUID, LocalDateTime> findLastActivity(Collection<UUID> attemptIds) {
+        try {
+            return store.findLastActivity(attemptIds);
+        } catch (DataAccessException e) {
+            log.warn("Heartbeat store unavailable, using stored activity: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Writes all pending activity to the database.
+     *
+     * @return the number of attempts written
+     */
+    public int flush() {
+        int flushed = 0;
+        while (true) {
+            List<Activity> batch = store.drainPending(flushBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                activityRepository.updateActivity(batch);
+            } catch (RuntimeException e) {
+                store.markPending(batch.stream().map(Activity::attemptId).toList());
+                throw e;
+            }
+            flushed += batch.size();
+            if (batch.size() < flushBatchSize) {
+                break;
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Flushed heartbeat activity of {} attempts", flushed);
+        }
+        return flushed;
+    }
+
+    // ==================== Internals ====================
+
+    private void verifyOwnership(UUID attemptId, UUID studentId) {
+        UUID owner = null;
+        try {
+            Activity known = store.find(attemptId);
+            owner = known != null ? known.studentId() : null;
+        } catch (DataAccessException e) {
+            log.debug("Heartbeat store unavailable, checking attempt owner in database: {}", e.getMessage());
+        }
+        if (owner == null) {
+            owner = answerBatchRepository.findAttemptHeader(attemptId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Attempt not found with id: " + attemptId))
+                    .getStudentId();
+        }
+        if (!owner.equals(studentId)) {
+            log.warn("Ownership verification failed. Attempt {} belongs to student {}, but was accessed by student {}",
+                    attemptId, owner, studentId);
+            throw new UnauthorizedException("Not authorized to access this attempt");
+        }
+    }
+}
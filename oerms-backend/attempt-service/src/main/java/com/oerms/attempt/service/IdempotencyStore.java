@@ -0,0 +1,14 @@
+package com.oerms.attempt.service;
+
+/**
+ * Short-lived store of response snapshots keyed by client idempotency key.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * @return the snapshot stored under the key, or {@code null} when there is none or it expired
+     */
+    String find(String key);
+
+    void put(String key, String snapshot);
+}
@@ -0,0 +1,177 @@
+package com.oerms.attempt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.oerms.common.exception.BadRequestException;
+import com.oerms.common.exception.ResourceAlreadyExistsException;
+import com.oerms.common.util.JwtUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays responses of retried requests that carry an {@code Idempotency-Key} header.
+ * <p>
+ * The first successful response for a key is kept as a JSON snapshot in the
+ * {@link IdempotencyStore}; a retry with the same key, by the same student and for the same
+ * operation, gets that snapshot back without running the operation again, so it neither reads
+ * the attempt nor takes its row lock. A retry that arrives while the original is still running
+ * on this instance waits for it. Failures are not stored, so a failed request can be retried.
+ * When the store is unavailable, requests simply run.
+ * <p>
+ * The snapshot carries a fingerprint of the request body; reusing a key with a different body
+ * is rejected instead of replaying a response that does not match it.
+ */
+@Component
+@Slf4j
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentRequests(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs the operation, or replays its stored response when the key was seen before.
+     *
+     * @param idempotencyKey the client key; without one the operation always runs
+     * @param operation      what the key applies to, e.g. {@code "answer:<attemptId>:<questionId>"}
+     * @param request        the request body, which a retry must repeat
+     */
+    public <T> T execute(String idempotencyKey, String operation, Object request, Authentication authentication,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        UUID studentId = JwtUtils.getUserId(authentication);
+        String key = studentId + ":" + operation + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        T replayed = replay(key, fingerprint, responseType);
+        if (replayed != null) {
+            log.debug("Replaying stored response for idempotency key {} of {}", idempotencyKey, operation);
+            return replayed;
+        }
+
+        InFlight running = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight existing = inFlight.putIfAbsent(key, running);
+        if (existing != null) {
+            checkFingerprint(existing.fingerprint(), fingerprint);
+            try {
+                return responseType.cast(existing.future().join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            T response = action.get();
+            remember(key, fingerprint, response);
+            running.future().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            running.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, running);
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private record InFlight(String fingerprint, CompletableFuture<Object> future) {
+    }
+
+    private record Snapshot(String fingerprint, JsonNode response) {
+    }
+
+    private <T> T replay(String key, String fingerprint, Class<T> responseType) {
+        Snapshot snapshot;
+        try {
+            String stored = store.find(key);
+            snapshot = stored != null ? objectMapper.readValue(stored, Snapshot.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Idempotency store unavailable or snapshot unreadable, running request: {}", e.getMessage());
+            return null;
+        }
+        if (snapshot == null || snapshot.response() == null) {
+            return null;
+        }
+        checkFingerprint(snapshot.fingerprint(), fingerprint);
+        try {
+            return objectMapper.treeToValue(snapshot.response(), responseType);
+        } catch (JsonProcessingException e) {
+            log.warn("Stored idempotent response unreadable, running request: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void remember(String key, String fingerprint, Object response) {
+        try {
+            store.put(key, objectMapper.writeValueAsString(
+                    new Snapshot(fingerprint, objectMapper.valueToTree(response))));
+        } catch (DataAccessException | JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Failed to store idempotent response: {}", e.getMessage());
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!fingerprint.equals(stored)) {
+            throw new ResourceAlreadyExistsException(
+                    "Idempotency-Key was already used for a different request");
+        }
+    }
+
+    /**
+     * SHA-256 of the request body with object keys and array elements sorted, as the bodies
+     * carry sets whose serialized order is not stable.
+     */
+    private String fingerprint(Object request) {
+        try {
+            byte[] canonical = objectMapper.writeValueAsBytes(canonical(objectMapper.valueToTree(request)));
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private JsonNode canonical(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            ObjectNode sorted = objectMapper.createObjectNode();
+            List<String> names = new ArrayList<>();
+            object.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            names.forEach(name -> sorted.set(name, canonical(object.get(name))));
+            return sorted;
+        }
+        if (node instanceof ArrayNode array) {
+            List<JsonNode> elements = new ArrayList<>();
+            array.forEach(element -> elements.add(canonical(element)));
+            elements.sort(Comparator.comparing(JsonNode::toString));
+            return objectMapper.createArrayNode().addAll(elements);
+        }
+        return node;
+    }
+}
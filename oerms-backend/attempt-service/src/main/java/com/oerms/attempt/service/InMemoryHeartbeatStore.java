@@ -0,0 +1,78 @@
+package com.oerms.attempt.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heartbeat store for single-node deployments. Activity lives in a concurrent map, whose
+ * per-bin locking keeps heartbeats of different attempts from contending with each other.
+ * Entries that have been flushed and stayed quiet for the retention period are pruned
+ * while draining.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.heartbeat.store", havingValue = "memory")
+public class InMemoryHeartbeatStore implements HeartbeatStore {
+
+    private final Map<UUID, Activity> activities = new ConcurrentHashMap<>();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final long retentionMinutes;
+
+    public InMemoryHeartbeatStore(@Value("${attempt.heartbeat.retention-minutes:180}") long retentionMinutes) {
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    @Override
+    public Activity find(UUID attemptId) {
+        return activities.get(attemptId);
+    }
+
+    @Override
+    public Map<UUID, LocalDateTime> findLastActivity(Collection<UUID> attemptIds) {
+        Map<UUID, LocalDateTime> lastActivity = new HashMap<>();
+        for (UUID id : attemptIds) {
+            Activity activity = activities.get(id);
+            if (activity != null) {
+                lastActivity.put(id, activity.lastActivityAt());
+            }
+        }
+        return lastActivity;
+    }
+
+    @Override
+    public void record(Activity activity) {
+        activities.merge(activity.attemptId(), activity, (previous, current) ->
+                current.currentQuestionId() != null ? current : new Activity(
+                        current.attemptId(), current.studentId(), current.lastActivityAt(),
+                        previous.currentQuestionId()));
+        pending.add(activity.attemptId());
+    }
+
+    @Override
+    public List<Activity> drainPending(int max) {
+        List<Activity> drained = new ArrayList<>(Math.min(max, pending.size()));
+        Iterator<UUID> iterator = pending.iterator();
+        while (iterator.hasNext() && drained.size() < max) {
+            UUID attemptId = iterator.next();
+            iterator.remove();
+            Activity activity = activities.get(attemptId);
+            if (activity != null) {
+                drained.add(activity);
+            }
+        }
+        if (drained.size() < max) {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+            activities.values().removeIf(a -> a.lastActivityAt().isBefore(cutoff) && !pending.contains(a.attemptId()));
+        }
+        return drained;
+    }
+
+    @Override
+    public void markPending(Collection<UUID> attemptIds) {
+        pending.addAll(attemptIds);
+    }
+}
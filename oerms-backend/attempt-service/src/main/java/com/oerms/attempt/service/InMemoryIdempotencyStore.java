@@ -0,0 +1,53 @@
+package com.oerms.attempt.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Idempotency store for single-node deployments: a bounded LRU map whose entries also expire
+ * after the TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.idempotency.store", havingValue = "memory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Entry(String snapshot, long expiresAt) {
+    }
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${attempt.idempotency.ttl-seconds:600}") long ttlSeconds,
+                                    @Value("${attempt.idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized String find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.snapshot();
+    }
+
+    @Override
+    public synchronized void put(String key, String snapshot) {
+        entries.put(key, new Entry(snapshot, System.currentTimeMillis() + ttlMillis));
+    }
+}
@@ -0,0 +1,29 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.dto.ExamMonitorFrame;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Frame relay for single-node deployments, handing frames straight to the local listeners.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.monitor.relay", havingValue = "local")
+public class LocalMonitorFrameRelay implements MonitorFrameRelay {
+
+    private final List<Consumer<ExamMonitorFrame>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ExamMonitorFrame frame) {
+        listeners.forEach(listener -> listener.accept(frame));
+    }
+
+    @Override
+    public void subscribe(Consumer<ExamMonitorFrame> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,58 @@
+package com.oerms.attempt.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores proctoring media under a local directory, for development and tests. Objects are
+ * written to a temporary file first and moved into place, so readers never see partial files.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.storage.minio.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalProctoringMediaStore implements ProctoringMediaStore {
+
+    private final Path rootDir;
+
+    public LocalProctoringMediaStore(@Value("${attempt.storage.local-dir:./uploads/proctoring}") String rootDir) {
+        this.rootDir = Paths.get(rootDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String objectKey, InputStream content, long size, String contentType) throws IOException {
+        Path target = resolve(objectKey);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String objectKey) throws IOException {
+        return Files.newInputStream(resolve(objectKey));
+    }
+
+    @Override
+    public void delete(String objectKey) throws IOException {
+        Files.deleteIfExists(resolve(objectKey));
+    }
+
+    private Path resolve(String objectKey) throws IOException {
+        Path path = rootDir.resolve(objectKey).normalize();
+        if (!path.startsWith(rootDir)) {
+            throw new IOException("Invalid object key: " + objectKey);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,70 @@
+package com.oerms.attempt.service;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Component
+@ConditionalOnProperty(name = "attempt.storage.minio.enabled", havingValue = "true")
+public class MinioProctoringMediaStore implements ProctoringMediaStore {
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+
+    public MinioProctoringMediaStore(MinioClient minioClient,
+                                     @Value("${attempt.storage.minio.bucket-name}") String bucketName) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public void put(String objectKey, InputStream content, long size, String contentType) throws IOException {
+        try {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectKey)
+                            .stream(content, size, -1)
+                            .contentType(contentType)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new IOException("Failed to store object in MinIO: " + objectKey, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String objectKey) throws IOException {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectKey)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new IOException("Failed to read object from MinIO: " + objectKey, e);
+        }
+    }
+
+    @Override
+    public void delete(String objectKey) throws IOException {
+        try {
+            minioClient.removeObject(
+                    RemoveObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectKey)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new IOException("Failed to delete object from MinIO: " + objectKey, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.dto.ExamMonitorFrame;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries live monitoring frames from the instance that coalesced them to every instance that
+ * may hold subscribers of the exam.
+ */
+public interface MonitorFrameRelay {
+
+    void publish(ExamMonitorFrame frame);
+
+    /**
+     * Registers the receiver of frames published by any instance, including this one.
+     */
+    void subscribe(Consumer<ExamMonitorFrame> listener);
+}
@@ -0,0 +1,209 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AttemptHeader;
+import com.oerms.attempt.repository.ProctoringEventRepository;
+import com.oerms.attempt.repository.ProctoringEventRepository.EventRow;
+import com.oerms.common.enums.AttemptStatus;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.UnauthorizedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ingests proctoring events into the append-only {@code proctoring_events} log.
+ * <p>
+ * Events are acknowledged once queued in memory; the flusher appends them with multi-row
+ * inserts and, in the same transaction, adds the per-attempt counter deltas to
+ * {@code exam_attempts}. A burst of violations therefore costs one counter update per attempt
+ * per flush instead of one row rewrite per event. When the queue is full, events are written
+ * synchronously by the caller.
+ */
+@Component
+@Slf4j
+public class ProctoringEventLog {
+
+    public static final String TAB_SWITCH = "TAB_SWITCH";
+    public static final String WEBCAM_VIOLATION = "WEBCAM_VIOLATION";
+    public static final String COPY_PASTE = "COPY_PASTE";
+
+    private static final Set<String> FINAL_STATUSES = Set.of(
+            AttemptStatus.SUBMITTED.name(), AttemptStatus.AUTO_SUBMITTED.name(), AttemptStatus.COMPLETED.name());
+
+    private static final Map<String, String> SEVERITIES = Map.of(
+            TAB_SWITCH, "MEDIUM",
+            WEBCAM_VIOLATION, "HIGH",
+            COPY_PASTE, "MEDIUM");
+
+    private static final Map<String, String> DESCRIPTIONS = Map.of(
+            TAB_SWITCH, "Student switched browser tab",
+            WEBCAM_VIOLATION, "Face not detected or multiple faces",
+            COPY_PASTE, "Copy or paste detected");
+
+    private final ProctoringEventRepository eventRepository;
+    private final AttemptAnswerBatchRepository attemptBatchRepository;
+    private final ExamMonitorHub examMonitorHub;
+    private final TransactionTemplate newTransaction;
+    private final BlockingQueue<EventRow> queue;
+    private final int batchSize;
+    private final int partitionsAhead;
+
+    // Serializes flushes so that drained events are written in order
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ProctoringEventLog(ProctoringEventRepository eventRepository,
+                              AttemptAnswerBatchRepository attemptBatchRepository,
+                              ExamMonitorHub examMonitorHub,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${attempt.proctoring.queue-capacity:50000}") int queueCapacity,
+                              @Value("${attempt.proctoring.batch-size:1000}") int batchSize,
+                              @Value("${attempt.proctoring.partitions-ahead:2}") int partitionsAhead) {
+        this.eventRepository = eventRepository;
+        this.attemptBatchRepository = attemptBatchRepository;
+        this.examMonitorHub = examMonitorHub;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @PostConstruct
+    public void initSchema() {
+        eventRepository.createSchemaIfMissing();
+        ensurePartitions();
+    }
+
+    /**
+     * Creates the monthly partitions for the current month and the configured months ahead.
+     */
+    public void ensurePartitions() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            eventRepository.createPartitionIfMissing(month.plusMonths(i));
+        }
+    }
+
+    /**
+     * Records a proctoring event for an attempt owned by the student that is not yet finalized;
+     * paused attempts still record events.
+     *
+     * @return {@code false} if the attempt is finalized and the event was ignored
+     */
+    public boolean record(UUID attemptId, UUID studentId, String eventType) {
+        AttemptHeader header = attemptBatchRepository.findAttemptHeader(attemptId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attempt not found with id: " + attemptId));
+        if (!header.getStudentId().equals(studentId)) {
+            log.warn("Ownership verification failed. Attempt {} belongs to student {}, but was accessed by student {}",
+                    attemptId, header.getStudentId(), studentId);
+            throw new UnauthorizedException("Not authorized to access this attempt");
+        }
+        if (FINAL_STATUSES.contains(header.getStatus())) {
+            return false;
+        }
+
+        EventRow event = EventRow.builder()
+                .id(UUID.randomUUID())
+                .attemptId(attemptId)
+                .examId(header.getExamId())
+                .studentId(studentId)
+                .eventType(eventType)
+                .severity(severityOf(eventType))
+                .description(descriptionOf(eventType))
+                .occurredAt(LocalDateTime.now())
+                .build();
+        if (!queue.offer(event)) {
+            log.warn("Proctoring event queue is full, writing event for attempt {} synchronously", attemptId);
+            write(List.of(event));
+        }
+        return true;
+    }
+
+    public List<EventRow> findEvents(UUID attemptId, LocalDateTime from) {
+        flush();
+        return eventRepository.findByAttempt(attemptId, from);
+    }
+
+    /**
+     * Writes every queued event.
+     */
+    public void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<EventRow> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    // Keep the events for the next run; whatever no longer fits is lost
+                    int requeued = (int) batch.stream().filter(queue::offer).count();
+                    log.error("Failed to append {} proctoring events, requeued {}", batch.size(), requeued);
+                    throw e;
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!queue.isEmpty()) {
+            log.info("Flushing {} queued proctoring events before shutdown", queue.size());
+            flush();
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private void write(List<EventRow> events) {
+        Map<UUID, int[]> deltas = new HashMap<>();
+        Map<UUID, UUID> examIds = new HashMap<>();
+        for (EventRow event : events) {
+            int counter = switch (event.getEventType()) {
+                case TAB_SWITCH -> 0;
+                case WEBCAM_VIOLATION -> 1;
+                case COPY_PASTE -> 2;
+                default -> -1;
+            };
+            if (counter >= 0) {
+                deltas.computeIfAbsent(event.getAttemptId(), id -> new int[3])[counter]++;
+                examIds.put(event.getAttemptId(), event.getExamId());
+            }
+        }
+        Map<UUID, int[]> totals = newTransaction.execute(status -> {
+            eventRepository.insertAll(events);
+            return eventRepository.applyCounterDeltas(deltas);
+        });
+        if (totals != null) {
+            totals.forEach((attemptId, counts) -> examMonitorHub.violationsRecorded(examIds.get(attemptId), attemptId, counts));
+        }
+        log.debug("Appended {} proctoring events across {} attempts", events.size(), deltas.size());
+    }
+
+    private static String severityOf(String eventType) {
+        return SEVERITIES.getOrDefault(eventType, "LOW");
+    }
+
+    private static String descriptionOf(String eventType) {
+        String description = DESCRIPTIONS.get(eventType);
+        return description != null ? description : "Custom violation: " + eventType;
+    }
+}
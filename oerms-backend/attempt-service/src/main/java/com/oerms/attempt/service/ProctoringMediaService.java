@@ -0,0 +1,260 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.entity.ProctoringMedia;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AttemptHeader;
+import com.oerms.attempt.repository.ProctoringMediaRepository;
+import com.oerms.common.enums.AttemptStatus;
+import com.oerms.common.exception.BadRequestException;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.ServiceException;
+import com.oerms.common.exception.UnauthorizedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Stores proctoring screenshots and webcam frames and keeps the per-attempt manifest.
+ * <p>
+ * Uploads are streamed from the multipart part, which the servlet container has already
+ * spooled to disk, once to compute the SHA-256 content hash and once into the store, so no
+ * upload is held in heap. A capture whose content the attempt has already stored only adds a
+ * manifest entry. At most a fixed number of uploads are stored concurrently; further uploads
+ * wait briefly for a slot and are then rejected so that clients back off and retry.
+ */
+@Service
+@Slf4j
+public class ProctoringMediaService {
+
+    private static final int HASH_BUFFER_SIZE = 8192;
+    private static final int SIGNATURE_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    private final ProctoringMediaStore mediaStore;
+    private final ProctoringMediaRepository mediaRepository;
+    private final AttemptAnswerBatchRepository attemptBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore uploadSlots;
+    private final long acquireTimeoutMillis;
+    private final long maxSizeBytes;
+    private final int retentionDays;
+    private final int retentionBatchSize;
+
+    public ProctoringMediaService(ProctoringMediaStore mediaStore,
+                                  ProctoringMediaRepository mediaRepository,
+                                  AttemptAnswerBatchRepository attemptBatchRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${attempt.storage.max-concurrent-uploads:32}") int maxConcurrentUploads,
+                                  @Value("${attempt.storage.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+                                  @Value("${attempt.storage.max-size-bytes:5242880}") long maxSizeBytes,
+                                  @Value("${attempt.storage.retention-days:90}") int retentionDays,
+                                  @Value("${attempt.storage.retention-batch-size:500}") int retentionBatchSize) {
+        this.mediaStore = mediaStore;
+        this.mediaRepository = mediaRepository;
+        this.attemptBatchRepository = attemptBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadSlots = new Semaphore(maxConcurrentUploads, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.maxSizeBytes = maxSizeBytes;
+        this.retentionDays = retentionDays;
+        this.retentionBatchSize = retentionBatchSize;
+    }
+
+    public ProctoringMedia store(UUID attemptId, UUID studentId, ProctoringMedia.Kind kind, MultipartFile file) {
+        String contentType = validateFile(file);
+        AttemptHeader header = attemptBatchRepository.findAttemptHeader(attemptId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attempt not found with id: " + attemptId));
+        if (!header.getStudentId().equals(studentId)) {
+            log.warn("Ownership verification failed. Attempt {} belongs to student {}, but was accessed by student {}",
+                    attemptId, header.getStudentId(), studentId);
+            throw new UnauthorizedException("Not authorized to access this attempt");
+        }
+        if (!AttemptStatus.IN_PROGRESS.name().equals(header.getStatus())) {
+            throw new BadRequestException("Attempt is not in progress. Current status: " + header.getStatus());
+        }
+
+        acquireUploadSlot();
+        try {
+            String contentHash = hash(file);
+            String objectKey = "attempts/" + attemptId + "/" + contentHash;
+            boolean duplicate = mediaRepository.existsByAttemptIdAndContentHash(attemptId, contentHash);
+            if (!duplicate) {
+                try (InputStream content = file.getInputStream()) {
+                    mediaStore.put(objectKey, content, file.getSize(), contentType);
+                }
+            }
+
+            ProctoringMedia media = mediaRepository.save(ProctoringMedia.builder()
+                    .attemptId(attemptId)
+                    .examId(header.getExamId())
+                    .kind(kind)
+                    .contentHash(contentHash)
+                    .objectKey(objectKey)
+                    .contentType(contentType)
+                    .sizeBytes(file.getSize())
+                    .deduplicated(duplicate)
+                    .capturedAt(LocalDateTime.now())
+                    .build());
+            log.debug("{} stored for attempt {}: {} bytes, duplicate: {}", kind, attemptId, file.getSize(), duplicate);
+            return media;
+        } catch (IOException e) {
+            log.error("Failed to store {} for attempt {}: {}", kind, attemptId, e.getMessage(), e);
+            throw new ServiceException("Failed to store proctoring media. Please try again later.", e);
+        } finally {
+            uploadSlots.release();
+        }
+    }
+
+    public List<ProctoringMedia> getManifest(UUID attemptId) {
+        return mediaRepository.findByAttemptIdOrderByCapturedAtAsc(attemptId);
+    }
+
+    public ProctoringMedia getMedia(UUID attemptId, UUID mediaId) {
+        return mediaRepository.findById(mediaId)
+                .filter(media -> media.getAttemptId().equals(attemptId))
+                .orElseThrow(() -> new ResourceNotFoundException("Proctoring media not found with id: " + mediaId));
+    }
+
+    public InputStream openContent(ProctoringMedia media) {
+        try {
+            return mediaStore.open(media.getObjectKey());
+        } catch (IOException e) {
+            log.error("Failed to read proctoring media {}: {}", media.getId(), e.getMessage(), e);
+            throw new ServiceException("Failed to read proctoring media. Please try again later.", e);
+        }
+    }
+
+    /**
+     * Removes manifest entries older than the retention period in batches, deleting each
+     * stored object once no remaining entry of its attempt refers to it.
+     *
+     * @return the number of manifest entries removed
+     */
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int purged = 0;
+        while (true) {
+            List<ProctoringMedia> expired = mediaRepository.findExpired(cutoff, PageRequest.of(0, retentionBatchSize));
+            if (expired.isEmpty()) {
+                break;
+            }
+            Set<String> candidateKeys = expired.stream()
+                    .map(ProctoringMedia::getObjectKey)
+                    .collect(Collectors.toSet());
+            Set<String> orphanedKeys = transactionTemplate.execute(status -> {
+                mediaRepository.deleteByIds(expired.stream().map(ProctoringMedia::getId).toList());
+                Set<String> orphaned = new HashSet<>(candidateKeys);
+                mediaRepository.findReferencedObjectKeys(candidateKeys).forEach(orphaned::remove);
+                return orphaned;
+            });
+            for (String objectKey : orphanedKeys) {
+                try {
+                    mediaStore.delete(objectKey);
+                } catch (IOException e) {
+                    log.warn("Failed to delete expired proctoring object {}: {}", objectKey, e.getMessage());
+                }
+            }
+            purged += expired.size();
+            if (expired.size() < retentionBatchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} proctoring media entries captured before {}", purged, cutoff);
+        }
+        return purged;
+    }
+
+    // ==================== Internals ====================
+
+    /**
+     * @return the content type detected from the file's leading bytes; the type declared by
+     * the client is not trusted
+     */
+    private String validateFile(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("File is empty");
+        }
+        if (file.getSize() > maxSizeBytes) {
+            throw new BadRequestException("File exceeds max size: " + maxSizeBytes);
+        }
+        byte[] head;
+        try (InputStream in = file.getInputStream()) {
+            head = in.readNBytes(SIGNATURE_LENGTH);
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read uploaded file");
+        }
+        String contentType = detectImageType(head);
+        if (contentType == null) {
+            throw new BadRequestException("Only PNG, JPEG and WebP images are accepted");
+        }
+        return contentType;
+    }
+
+    private static String detectImageType(byte[] head) {
+        if (startsWith(head, 0, PNG_SIGNATURE)) {
+            return "image/png";
+        }
+        if (startsWith(head, 0, JPEG_SIGNATURE)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 0, RIFF_SIGNATURE) && startsWith(head, 8, WEBP_SIGNATURE)) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int offset, byte[] signature) {
+        if (head.length < offset + signature.length) {
+            return false;
+        }
+        return Arrays.equals(head, offset, offset + signature.length, signature, 0, signature.length);
+    }
+
+    private void acquireUploadSlot() {
+        try {
+            if (!uploadSlots.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Proctoring media upload rejected, no upload slot freed within {} ms", acquireTimeoutMillis);
+                throw new ServiceException("Too many uploads in progress. Please retry shortly.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Upload interrupted");
+        }
+    }
+
+    private static String hash(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            while (in.read(buffer) != -1) {
+                // Reading drives the digest
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,17 @@
+package com.oerms.attempt.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Object storage for proctoring screenshots and webcam frames. Implementations stream the
+ * content through without holding it in memory.
+ */
+public interface ProctoringMediaStore {
+
+    void put(String objectKey, InputStream content, long size, String contentType) throws IOException;
+
+    InputStream open(String objectKey) throws IOException;
+
+    void delete(String objectKey) throws IOException;
+}
@@ -0,0 +1,137 @@
+package com.oerms.attempt.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Heartbeat store shared by all instances: one hash per attempt plus a set of attempt ids
+ * waiting to be flushed. Draining pops ids from the set atomically, so each pending attempt
+ * is flushed by exactly one instance.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.heartbeat.store", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisHeartbeatStore implements HeartbeatStore {
+
+    private static final String KEY_PREFIX = "attempt:heartbeat:";
+    private static final String PENDING_KEY = "attempt:heartbeat-pending";
+    private static final String STUDENT = "student";
+    private static final String LAST_ACTIVITY = "at";
+    private static final String CURRENT_QUESTION = "question";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long ttlSeconds;
+
+    public RedisHeartbeatStore(StringRedisTemplate redisTemplate,
+                               @Value("${attempt.heartbeat.retention-minutes:180}") long retentionMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.ttlSeconds = Duration.ofMinutes(retentionMinutes).toSeconds();
+    }
+
+    @Override
+    public Activity find(UUID attemptId) {
+        List<Object> fields = redisTemplate.opsForHash()
+                .multiGet(key(attemptId), List.of(STUDENT, LAST_ACTIVITY, CURRENT_QUESTION));
+        return toActivity(attemptId, fields);
+    }
+
+    @Override
+    public Map<UUID, LocalDateTime> findLastActivity(Collection<UUID> attemptIds) {
+        if (attemptIds.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> ids = new ArrayList<>(attemptIds);
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (UUID id : ids) {
+                redis.hGet(key(id), LAST_ACTIVITY);
+            }
+            return null;
+        });
+        Map<UUID, LocalDateTime> lastActivity = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) instanceof String value) {
+                lastActivity.put(ids.get(i), LocalDateTime.parse(value));
+            }
+        }
+        return lastActivity;
+    }
+
+    @Override
+    public void record(Activity activity) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(STUDENT, activity.studentId().toString());
+        fields.put(LAST_ACTIVITY, activity.lastActivityAt().toString());
+        if (activity.currentQuestionId() != null) {
+            fields.put(CURRENT_QUESTION, activity.currentQuestionId().toString());
+        }
+        String key = key(activity.attemptId());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.hMSet(key, fields);
+            redis.expire(key, ttlSeconds);
+            redis.sAdd(PENDING_KEY, activity.attemptId().toString());
+            return null;
+        });
+    }
+
+    @Override
+    public List<Activity> drainPending(int max) {
+        List<String> popped = redisTemplate.opsForSet().pop(PENDING_KEY, max);
+        if (popped == null || popped.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = popped.stream().map(UUID::fromString).toList();
+        List<Object> rows = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (UUID id : ids) {
+                redis.hMGet(key(id), STUDENT, LAST_ACTIVITY, CURRENT_QUESTION);
+            }
+            return null;
+        });
+        List<Activity> activities = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (rows.get(i) instanceof List<?> fields) {
+                Activity activity = toActivity(ids.get(i), fields);
+                if (activity != null) {
+                    activities.add(activity);
+                }
+            }
+        }
+        return activities;
+    }
+
+    @Override
+    public void markPending(Collection<UUID> attemptIds) {
+        if (!attemptIds.isEmpty()) {
+            redisTemplate.opsForSet().add(PENDING_KEY,
+                    attemptIds.stream().map(UUID::toString).toArray(String[]::new));
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private static String key(UUID attemptId) {
+        return KEY_PREFIX + attemptId;
+    }
+
+    private static Activity toActivity(UUID attemptId, List<?> fields) {
+        if (fields == null || fields.size() < 3 || fields.get(0) == null || fields.get(1) == null) {
+            return null;
+        }
+        return new Activity(
+                attemptId,
+                UUID.fromString(fields.get(0).toString()),
+                LocalDateTime.parse(fields.get(1).toString()),
+                fields.get(2) != null ? UUID.fromString(fields.get(2).toString()) : null);
+    }
+}
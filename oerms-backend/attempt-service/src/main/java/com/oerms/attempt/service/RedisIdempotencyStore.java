@@ -0,0 +1,38 @@
+package com.oerms.attempt.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Idempotency store shared by all instances, so a retry that lands on another node is still
+ * answered from the snapshot.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.idempotency.store", havingValue = "redis", matchIfMissing = true)
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "attempt:idempotency:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate,
+                                 @Value("${attempt.idempotency.ttl-seconds:600}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    @Override
+    public String find(String key) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + key);
+    }
+
+    @Override
+    public void put(String key, String snapshot) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + key, snapshot, ttl);
+    }
+}
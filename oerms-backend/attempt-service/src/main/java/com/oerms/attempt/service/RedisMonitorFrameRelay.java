@@ -0,0 +1,70 @@
+package com.oerms.attempt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oerms.attempt.dto.ExamMonitorFrame;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Frame relay shared by all instances through a Redis pub/sub channel. Every instance receives
+ * the frames of every exam and drops those of exams it has no subscribers for.
+ */
+@Component
+@ConditionalOnProperty(name = "attempt.monitor.relay", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisMonitorFrameRelay implements MonitorFrameRelay {
+
+    private static final ChannelTopic TOPIC = new ChannelTopic("attempt:monitor");
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer container;
+
+    public RedisMonitorFrameRelay(StringRedisTemplate redisTemplate,
+                                  RedisConnectionFactory connectionFactory,
+                                  ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+    }
+
+    @Override
+    public void publish(ExamMonitorFrame frame) {
+        try {
+            redisTemplate.convertAndSend(TOPIC.getTopic(), objectMapper.writeValueAsString(frame));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize monitor frame of exam {}: {}", frame.getExamId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ExamMonitorFrame> listener) {
+        container.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(objectMapper.readValue(message.getBody(), ExamMonitorFrame.class));
+            } catch (IOException e) {
+                log.warn("Dropping unreadable monitor frame: {}", e.getMessage());
+            }
+        }, TOPIC);
+        if (!container.isRunning()) {
+            container.afterPropertiesSet();
+            container.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        container.destroy();
+    }
+}
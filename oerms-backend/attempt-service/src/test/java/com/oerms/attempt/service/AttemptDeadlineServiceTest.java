@@ -0,0 +1,184 @@
+package com.oerms.attempt.service;
+
+import com.oerms.attempt.dto.SaveAnswerRequest;
+import com.oerms.attempt.entity.ExamAttempt;
+import com.oerms.attempt.kafka.AttemptEventProducer;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AnswerRow;
+import com.oerms.attempt.repository.AttemptAnswerBatchRepository.AttemptHeader;
+import com.oerms.attempt.repository.AttemptRepository;
+import com.oerms.common.enums.AttemptStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class AttemptDeadlineServiceTest {
+
+    private final AttemptRepository attemptRepository = mock(AttemptRepository.class);
+    private final AttemptAnswerBatchRepository batchRepository = mock(AttemptAnswerBatchRepository.class);
+    private final AttemptEventProducer eventProducer = mock(AttemptEventProducer.class);
+    private final ExamMonitorHub examMonitorHub = mock(ExamMonitorHub.class);
+    private final ProctoringEventLog proctoringEventLog = mock(ProctoringEventLog.class);
+    private final InMemoryTransactionManager transactionManager = new InMemoryTransactionManager();
+
+    // Questions whose buffered answers were written by a transaction that committed
+    private final Set<UUID> committedQuestions = new HashSet<>();
+
+    private AnswerWriteBuffer answerWriteBuffer;
+    private AttemptDeadlineService deadlineService;
+
+    @BeforeEach
+    void setUp() {
+        answerWriteBuffer = new AnswerWriteBuffer(batchRepository, examMonitorHub, transactionManager);
+        ReflectionTestUtils.setField(answerWriteBuffer, "enabled", true);
+        deadlineService = new AttemptDeadlineService(attemptRepository, answerWriteBuffer, proctoringEventLog,
+                eventProducer, examMonitorHub, transactionManager, 0, 3600, 1, 30, 50);
+
+        when(batchRepository.updateAnswers(anyList())).thenAnswer(invocation -> {
+            List<AnswerRow> rows = invocation.getArgument(0);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rows.forEach(row -> committedQuestions.add(row.getQuestionId()));
+                }
+            });
+            return rows.size();
+        });
+    }
+
+    @Test
+    void failedAttemptInBatchKeepsOtherAttemptsBufferedAnswers() {
+        UUID firstQuestion = UUID.randomUUID();
+        UUID secondQuestion = UUID.randomUUID();
+        overdueAttempt(firstQuestion);
+        overdueAttempt(secondQuestion);
+
+        // The attempt submitted second in the batch always fails, after the first one's
+        // answers were flushed into the batch transaction
+        List<UUID> saved = new ArrayList<>();
+        when(attemptRepository.saveAndFlush(any(ExamAttempt.class))).thenAnswer(invocation -> {
+            ExamAttempt attempt = invocation.getArgument(0);
+            saved.add(attempt.getId());
+            if (saved.size() >= 2 && attempt.getId().equals(saved.get(1))) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return attempt;
+        });
+
+        int submitted = deadlineService.fireDue();
+
+        UUID healthy = saved.get(0);
+        UUID failing = saved.get(1);
+        assertThat(submitted).isEqualTo(1);
+        assertThat(transactionManager.rollbacks).isEqualTo(2);
+        assertThat(committedQuestions).containsExactlyInAnyOrder(firstQuestion, secondQuestion);
+        verify(eventProducer).publishAttemptAutoSubmitted(argThat(attempt -> attempt.getId().equals(healthy)));
+        verify(eventProducer, never()).publishAttemptAutoSubmitted(argThat(attempt -> attempt.getId().equals(failing)));
+    }
+
+    // ==================== Internals ====================
+
+    /**
+     * Registers an in-progress attempt past its deadline with one answer saved into the
+     * buffer. Each lock returns a fresh copy, as a rolled-back persistence context would.
+     */
+    private void overdueAttempt(UUID questionId) {
+        UUID attemptId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+        UUID examId = UUID.randomUUID();
+        LocalDateTime deadline = LocalDateTime.now().minusMinutes(5);
+
+        when(attemptRepository.findByIdWithLock(attemptId)).thenAnswer(invocation -> {
+            ExamAttempt attempt = ExamAttempt.builder()
+                    .studentId(studentId)
+                    .examId(examId)
+                    .status(AttemptStatus.IN_PROGRESS)
+                    .startedAt(deadline.minusHours(1))
+                    .deadlineAt(deadline)
+                    .build();
+            attempt.setId(attemptId);
+            return Optional.of(attempt);
+        });
+        when(batchRepository.findAttemptHeader(attemptId))
+                .thenReturn(Optional.of(new AttemptHeader(studentId, AttemptStatus.IN_PROGRESS.name(), examId)));
+        when(batchRepository.findAnswers(attemptId)).thenReturn(List.of(AnswerRow.builder()
+                .id(UUID.randomUUID())
+                .questionId(questionId)
+                .selectedOptions(new HashSet<>())
+                .build()));
+
+        SaveAnswerRequest request = new SaveAnswerRequest();
+        request.setQuestionId(questionId);
+        request.setAnswerText("answer");
+        answerWriteBuffer.save(attemptId, studentId, request);
+        deadlineService.register(attemptId, deadline);
+    }
+
+    /**
+     * Transaction manager without resources that honours propagation and synchronization.
+     */
+    private static final class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> false);
+        private int rollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new boolean[]{active.get()};
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((boolean[]) transaction)[0];
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            active.set(true);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            active.set(false);
+            return Boolean.TRUE;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            active.set(true);
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+            // The failure propagates to the outer transaction, which rolls back
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            active.set(false);
+        }
+    }
+}
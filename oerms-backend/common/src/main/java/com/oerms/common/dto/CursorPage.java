@@ -0,0 +1,21 @@
+package com.oerms.common.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated listing. {@code nextCursor} is an opaque token for the
+ * following page; {@code totalElements} is only filled in when the caller asked for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private Integer size;
+    private String nextCursor;
+    private Boolean hasNext;
+    private Long totalElements;
+}
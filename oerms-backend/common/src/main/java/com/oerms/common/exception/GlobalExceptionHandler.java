@@ -15,4 +15,9 @@ public class GlobalExceptionHandler {
         String error = String.format("The parameter '%s' with value '%s' is invalid. A valid UUID is required.", ex.getName(), ex.getValue());
         return new ResponseEntity<>(ApiResponse.error(error, null), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(ResourceAlreadyExistsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleResourceAlreadyExists(ResourceAlreadyExistsException ex) {
+        return new ResponseEntity<>(ApiResponse.error(ex.getMessage(), null), HttpStatus.CONFLICT);
+    }
 }
\ No newline at end of file
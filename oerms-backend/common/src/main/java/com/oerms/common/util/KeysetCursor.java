@@ -0,0 +1,71 @@
+package com.oerms.common.util;
+
+import com.oerms.common.dto.CursorPage;
+import com.oerms.common.entity.BaseEntity;
+import com.oerms.common.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation tokens for keyset pagination over {@link BaseEntity} rows, newest first.
+ * A token holds the {@code (createdAt, id)} of the last row of a page; the next page starts
+ * strictly after it, so page latency does not grow with depth and rows inserted meanwhile
+ * neither shift nor repeat entries.
+ */
+public class KeysetCursor {
+
+    public static final Sort ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @return the position after the token, or the start of the listing when there is none
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            LocalDateTime createdAt = LocalDateTime.parse(decoded.substring(0, separator));
+            UUID id = UUID.fromString(decoded.substring(separator + 1));
+            return ScrollPosition.forward(Map.of("createdAt", createdAt, "id", id));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static String encode(BaseEntity last) {
+        String raw = last.getCreatedAt() + SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param total the total number of matching rows, or {@code null} when it was not counted
+     */
+    public static <E extends BaseEntity, T> CursorPage<T> toPage(Window<E> window, Function<E, T> mapper, Long total) {
+        List<E> rows = window.getContent();
+        String next = window.hasNext() && !rows.isEmpty() ? encode(rows.get(rows.size() - 1)) : null;
+        return CursorPage.<T>builder()
+                .content(rows.stream().map(mapper).toList())
+                .size(rows.size())
+                .nextCursor(next)
+                .hasNext(next != null)
+                .totalElements(total)
+                .build();
+    }
+}
@@ -80,6 +80,15 @@ public class QuestionController {
         return ResponseEntity.ok(ApiResponse.success("Questions retrieved successfully for grading", questions));
     }
 
+    @PostMapping("/internal/exam/{examId}/student")
+    @PreAuthorize("hasAuthority('SCOPE_internal')")
+    @Operation(summary = "Get exam questions for attempts", description = "Retrieves an exam's questions without answers, in exam order, for internal use by attempt-service")
+    public ResponseEntity<ApiResponse<List<StudentQuestionDTO>>> getExamQuestionsForAttempts(@PathVariable UUID examId) {
+        log.info("Received internal request to get student questions for examId: {}", examId);
+        List<StudentQuestionDTO> questions = questionService.getExamQuestionsForStudent(examId, false);
+        return ResponseEntity.ok(ApiResponse.success("Questions retrieved successfully", questions));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Update a question", description = "Updates an existing question")
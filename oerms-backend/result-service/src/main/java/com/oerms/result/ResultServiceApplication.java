@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.oerms.result.client") // Specify basePackages to scan for Feign clients
 @EnableJpaAuditing
+@EnableScheduling
 public class ResultServiceApplication {
 
     public static void main(String[] args) {
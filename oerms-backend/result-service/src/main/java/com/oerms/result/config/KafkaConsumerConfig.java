@@ -2,8 +2,10 @@ package com.oerms.result.config;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import com.oerms.common.event.AttemptEvent;
+import com.oerms.result.kafka.ExamEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,8 +27,22 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${result.grading.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
     @Bean
     public ConsumerFactory<String, AttemptEvent> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps(), new StringDeserializer(), new JsonDeserializer<>(AttemptEvent.class));
+    }
+
+    @Bean
+    public ConsumerFactory<String, AttemptEvent> batchConsumerFactory() {
+        Map<String, Object> props = consumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new JsonDeserializer<>(AttemptEvent.class));
+    }
+
+    private Map<String, Object> consumerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
@@ -34,8 +50,7 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*"); // Trust all packages for deserialization
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, AttemptEvent.class.getName()); // Set default type
-
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new JsonDeserializer<>(AttemptEvent.class));
+        return props;
     }
 
     @Bean
@@ -44,4 +59,41 @@ public class KafkaConsumerConfig {
         factory.setConsumerFactory(consumerFactory());
         return factory;
     }
+
+    /**
+     * Delivers up to {@code result.grading.batch.max-poll-records} events per poll as one list,
+     * so that attempts of the same exam can be graded together.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AttemptEvent> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, AttemptEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Exam events drive invalidation of per-instance caches, so every instance consumes them
+     * in its own group and only from the moment it starts.
+     */
+    @Bean
+    public ConsumerFactory<String, ExamEvent> examEventConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-exam-events-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+
+        JsonDeserializer<ExamEvent> deserializer = new JsonDeserializer<>(ExamEvent.class);
+        deserializer.setUseTypeHeaders(false);
+        deserializer.addTrustedPackages("*");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ExamEvent> examEventKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ExamEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(examEventConsumerFactory());
+        return factory;
+    }
 }
@@ -1,9 +1,17 @@
 package com.oerms.result.controller;
 
 import com.oerms.common.dto.ApiResponse;
+import com.oerms.common.dto.CursorPage;
 import com.oerms.result.dto.*;
+import com.oerms.result.enums.RankingMethod;
 import com.oerms.result.enums.ResultStatus;
+import com.oerms.result.enums.ExportFormat;
+import com.oerms.result.service.ItemScoreBackfillService;
+import com.oerms.result.service.ResultExportService;
+import com.oerms.result.service.ResultExportService.ExportArtifact;
+import com.oerms.result.service.ResultExportService.ResultExport;
 import com.oerms.result.service.ResultService;
+import com.oerms.result.service.SystemAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,12 +20,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +45,9 @@ import java.util.UUID;
 public class ResultController {
 
     private final ResultService resultService;
+    private final ResultExportService resultExportService;
+    private final SystemAnalyticsService systemAnalyticsService;
+    private final ItemScoreBackfillService itemScoreBackfillService;
 
     // ==================== Student Operations ====================
 
@@ -125,6 +143,18 @@ public class ResultController {
         return ResponseEntity.ok(ApiResponse.success("Results retrieved successfully", results));
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Scroll all results", description = "Keyset-paginated listing of all results, newest first")
+    public ResponseEntity<ApiResponse<CursorPage<ResultSummaryDTO>>> scrollAllResults(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication auth) {
+        CursorPage<ResultSummaryDTO> results = resultService.scrollAllResults(cursor, size, includeTotal, auth);
+        return ResponseEntity.ok(ApiResponse.success("Results retrieved successfully", results));
+    }
+
     @GetMapping("/bulk")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Get multiple results by IDs", description = "Retrieves multiple results by their IDs")
@@ -189,6 +219,35 @@ public class ResultController {
         return ResponseEntity.ok(ApiResponse.success("Results retrieved successfully", results));
     }
 
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Scroll result search", description = "Keyset-paginated result search, newest first")
+    public ResponseEntity<ApiResponse<CursorPage<ResultSummaryDTO>>> scrollSearchResults(
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) UUID examId,
+            @RequestParam(required = false) ResultStatus status,
+            @RequestParam(required = false) Boolean passed,
+            @RequestParam(required = false) Double minPercentage,
+            @RequestParam(required = false) Double maxPercentage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication auth) {
+
+        ResultSearchCriteria criteria = ResultSearchCriteria.builder()
+                .studentName(studentName)
+                .examId(examId)
+                .status(status)
+                .passed(passed)
+                .minPercentage(minPercentage)
+                .maxPercentage(maxPercentage)
+                .build();
+
+        CursorPage<ResultSummaryDTO> results = resultService.scrollSearchResults(
+                criteria, cursor, size, includeTotal, auth);
+        return ResponseEntity.ok(ApiResponse.success("Results retrieved successfully", results));
+    }
+
     @GetMapping("/date-range")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Get results within date range", description = "Retrieves results submitted within a date range")
@@ -253,6 +312,16 @@ public class ResultController {
         return ResponseEntity.ok(ApiResponse.success("Result graded successfully", result));
     }
 
+    @PostMapping("/bulk-grade")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Grade results in bulk", description = "Manually grades many results in one request")
+    public ResponseEntity<ApiResponse<BulkGradingResultDTO>> bulkGradeResults(
+            @RequestBody BulkGradingRequest request,
+            Authentication auth) {
+        BulkGradingResultDTO result = resultService.bulkGradeResults(request, auth);
+        return ResponseEntity.ok(ApiResponse.success("Bulk grading completed", result));
+    }
+
     // ==================== Exam Results ====================
 
     @GetMapping("/exam/{examId}")
@@ -296,6 +365,24 @@ public class ResultController {
         return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", statistics));
     }
 
+    @PostMapping("/exam/{examId}/statistics/rebuild")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Rebuild exam statistics", description = "Recomputes the exam's statistics from its results")
+    public ResponseEntity<ApiResponse<Void>> rebuildExamStatistics(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            Authentication auth) {
+        resultService.rebuildExamStatistics(examId, auth);
+        return ResponseEntity.ok(ApiResponse.success("Statistics rebuilt successfully", null));
+    }
+
+    @PostMapping("/statistics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild all exam statistics", description = "Recomputes the statistics of every exam from the results table")
+    public ResponseEntity<ApiResponse<Integer>> rebuildAllStatistics() {
+        int exams = resultService.rebuildAllStatistics();
+        return ResponseEntity.ok(ApiResponse.success("Statistics rebuilt successfully", exams));
+    }
+
     @GetMapping("/exam/{examId}/grade-distribution")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Get detailed grade distribution", description = "Retrieves grade distribution for an exam")
@@ -341,10 +428,11 @@ public class ResultController {
     @PostMapping("/exam/{examId}/calculate-rankings")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Calculate rankings", description = "Calculates rankings for all published results in an exam")
-    public ResponseEntity<ApiResponse<Void>> calculateRankings(
-            @Parameter(description = "Exam ID") @PathVariable UUID examId) {
-        resultService.calculateRankings(examId);
-        return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", null));
+    public ResponseEntity<ApiResponse<Integer>> calculateRankings(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @Parameter(description = "Ranking method") @RequestParam(defaultValue = "COMPETITION") RankingMethod method) {
+        int changed = resultService.calculateRankings(examId, method);
+        return ResponseEntity.ok(ApiResponse.success("Rankings calculated successfully", changed));
     }
 
     // ==================== Grading Operations ====================
@@ -528,6 +616,141 @@ public class ResultController {
         return ResponseEntity.ok(ApiResponse.success("Improvement areas retrieved successfully", areas));
     }
 
+    // ==================== Exam Item Analysis ====================
+
+    @GetMapping("/exam/{examId}/item-analysis")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get item analysis", description = "Difficulty, discrimination and point-biserial correlation of each question")
+    public ResponseEntity<ApiResponse<ItemAnalysisDTO>> getItemAnalysis(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @Parameter(description = "Recompute instead of returning the cached analysis") @RequestParam(defaultValue = "false") boolean refresh,
+            Authentication auth) {
+        ItemAnalysisDTO analysis = resultService.getItemAnalysis(examId, refresh, auth);
+        return ResponseEntity.ok(ApiResponse.success("Item analysis retrieved successfully", analysis));
+    }
+
+    @GetMapping("/exam/{examId}/discrimination-index")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get discrimination index", description = "Upper/lower 27% discrimination index of each question")
+    public ResponseEntity<ApiResponse<List<DiscriminationIndexDTO>>> getDiscriminationIndex(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            Authentication auth) {
+        List<DiscriminationIndexDTO> indexes = resultService.getDiscriminationIndex(examId, auth);
+        return ResponseEntity.ok(ApiResponse.success("Discrimination index retrieved successfully", indexes));
+    }
+
+    @PostMapping("/item-analysis/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Backfill item scores",
+            description = "Regrades the stored answers of results graded before item scores were kept, in the background")
+    public ResponseEntity<ApiResponse<Void>> backfillItemScores() {
+        itemScoreBackfillService.startBackfill();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Item score backfill started", null));
+    }
+
+    @GetMapping("/exam/{examId}/performance-matrix")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get performance matrix", description = "Average question accuracy of the exam's cohort by topic and by difficulty")
+    public ResponseEntity<ApiResponse<PerformanceMatrixDTO>> getPerformanceMatrix(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @Parameter(description = "Recompute instead of returning the cached matrix") @RequestParam(defaultValue = "false") boolean refresh,
+            Authentication auth) {
+        PerformanceMatrixDTO matrix = resultService.getPerformanceMatrix(examId, refresh, auth);
+        return ResponseEntity.ok(ApiResponse.success("Performance matrix retrieved successfully", matrix));
+    }
+
+    @GetMapping("/exam/{examId}/report")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get detailed exam report",
+            description = "Statistics, score distribution, question performance, top scorers and results needing attention")
+    public ResponseEntity<ApiResponse<DetailedExamReportDTO>> getDetailedExamReport(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @Parameter(description = "Stored report version, latest when omitted") @RequestParam(required = false) Long version,
+            @Parameter(description = "Regenerate instead of returning the stored report") @RequestParam(defaultValue = "false") boolean refresh,
+            Authentication auth) {
+        DetailedExamReportDTO report = resultService.getDetailedExamReport(examId, version, refresh, auth);
+        return ResponseEntity.ok(ApiResponse.success("Exam report retrieved successfully", report));
+    }
+
+    // ==================== System Analytics ====================
+
+    @GetMapping("/analytics/system")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get system analytics",
+            description = "Results, pass rate and average score across all exams, by subject and by day")
+    public ResponseEntity<ApiResponse<SystemAnalyticsDTO>> getSystemAnalytics(
+            @Parameter(description = "First day, defaults to the 30 days ending on the end date") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day, defaults to today") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        SystemAnalyticsDTO analytics = systemAnalyticsService.getSystemAnalytics(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success("System analytics retrieved successfully", analytics));
+    }
+
+    @PostMapping("/analytics/system/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild system analytics",
+            description = "Recomputes the daily rollups behind system analytics from all results in the background")
+    public ResponseEntity<ApiResponse<Integer>> rebuildSystemAnalytics() {
+        int chunks = systemAnalyticsService.startBackfill();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Rollup backfill started", chunks));
+    }
+
+    // ==================== Exports ====================
+
+    @GetMapping("/exam/{examId}/export")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Export exam results",
+            description = "Streams an exam's results as CSV, Excel or PDF; large exams must use an export job")
+    public ResponseEntity<StreamingResponseBody> exportExamResults(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) ResultStatus status,
+            Authentication auth) {
+        ResultExport export = resultExportService.prepareDownload(examId, format, status, auth);
+        StreamingResponseBody body = out -> resultExportService.write(export, out, null);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(export.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(export.fileName()))
+                .body(body);
+    }
+
+    @PostMapping("/exam/{examId}/export-jobs")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Start export job", description = "Exports an exam's results in the background")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> startExportJob(
+            @Parameter(description = "Exam ID") @PathVariable UUID examId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) ResultStatus status,
+            Authentication auth) {
+        ExportJobDTO job = resultExportService.startJob(examId, format, status, auth);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Export job started", job));
+    }
+
+    @GetMapping("/export-jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get export job", description = "Returns the status and progress of an export job")
+    public ResponseEntity<ApiResponse<ExportJobDTO>> getExportJob(
+            @Parameter(description = "Export job ID") @PathVariable UUID jobId,
+            Authentication auth) {
+        ExportJobDTO job = resultExportService.getJob(jobId, auth);
+        return ResponseEntity.ok(ApiResponse.success("Export job retrieved successfully", job));
+    }
+
+    @GetMapping("/export-jobs/{jobId}/download")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Download export", description = "Downloads the file of a completed export job")
+    public ResponseEntity<FileSystemResource> downloadExport(
+            @Parameter(description = "Export job ID") @PathVariable UUID jobId,
+            Authentication auth) {
+        ExportArtifact artifact = resultExportService.getArtifact(jobId, auth);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(artifact.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(artifact.fileName()))
+                .body(new FileSystemResource(artifact.path()));
+    }
+
     // ==================== Notifications ====================
 
     @PostMapping("/{id}/notify-student")
@@ -558,4 +781,8 @@ public class ResultController {
     public ResponseEntity<ApiResponse<String>> health() {
         return ResponseEntity.ok(ApiResponse.success("Result service is running", "OK"));
     }
+
+    private static String attachment(String fileName) {
+        return ContentDisposition.attachment().filename(fileName).build().toString();
+    }
 }
@@ -22,4 +22,5 @@ public class DetailedExamReportDTO {
     private List<ResultSummaryDTO> needsAttention;
     private Map<String, Object> additionalMetrics;
     private LocalDateTime generatedAt;
+    private Long reportVersion;
 }
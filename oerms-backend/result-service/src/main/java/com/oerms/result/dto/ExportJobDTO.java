@@ -0,0 +1,29 @@
+package com.oerms.result.dto;
+
+import com.oerms.result.enums.ExportFormat;
+import com.oerms.result.enums.ExportJobStatus;
+import com.oerms.result.enums.ResultStatus;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+    private UUID jobId;
+    private UUID examId;
+    private ExportFormat format;
+    private ResultStatus resultStatus;
+    private ExportJobStatus status;
+    private Long totalRows;
+    private Long processedRows;
+    private Integer progressPercentage;
+    private String fileName;
+    private String downloadUrl;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
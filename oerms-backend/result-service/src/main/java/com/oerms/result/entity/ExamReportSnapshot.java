@@ -0,0 +1,47 @@
+package com.oerms.result.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stored version of an exam's detailed report, serialized as JSON. Versions count up per exam;
+ * the latest one is served and a few older ones are kept.
+ */
+@Entity
+@Table(name = "exam_report_snapshots")
+@IdClass(ExamReportSnapshot.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamReportSnapshot {
+
+    @Id
+    @Column(name = "exam_id", nullable = false)
+    private UUID examId;
+
+    @Id
+    @Column(name = "report_version", nullable = false)
+    private long reportVersion;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    @Column(name = "result_count", nullable = false)
+    private long resultCount;
+
+    @Column(name = "report", nullable = false, columnDefinition = "text")
+    private String report;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID examId;
+        private long reportVersion;
+    }
+}
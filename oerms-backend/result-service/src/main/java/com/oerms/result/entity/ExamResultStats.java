@@ -0,0 +1,92 @@
+package com.oerms.result.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-exam projection of the results table, kept current by additive deltas as results are
+ * created, graded, published, unpublished and deleted. Score sums, sums of squares, passes,
+ * extremes and grade counts cover published results only; status counts cover all results.
+ */
+@Entity
+@Table(name = "exam_result_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamResultStats {
+
+    @Id
+    @Column(name = "exam_id", nullable = false)
+    private UUID examId;
+
+    @Column(name = "total_results", nullable = false)
+    private long totalResults;
+
+    @Column(name = "draft_results", nullable = false)
+    private long draftResults;
+
+    @Column(name = "pending_grading_results", nullable = false)
+    private long pendingGradingResults;
+
+    @Column(name = "graded_results", nullable = false)
+    private long gradedResults;
+
+    @Column(name = "published_results", nullable = false)
+    private long publishedResults;
+
+    @Column(name = "withheld_results", nullable = false)
+    private long withheldResults;
+
+    @Column(name = "suspicious_results", nullable = false)
+    private long suspiciousResults;
+
+    @Column(name = "published_passed", nullable = false)
+    private long publishedPassed;
+
+    @Column(name = "marks_sum", nullable = false)
+    private double marksSum;
+
+    @Column(name = "marks_sum_squares", nullable = false)
+    private double marksSumSquares;
+
+    @Column(name = "percentage_sum", nullable = false)
+    private double percentageSum;
+
+    @Column(name = "percentage_sum_squares", nullable = false)
+    private double percentageSumSquares;
+
+    @Column(name = "highest_marks")
+    private Double highestMarks;
+
+    @Column(name = "lowest_marks")
+    private Double lowestMarks;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "grade_counts", nullable = false, columnDefinition = "jsonb")
+    private Map<String, Long> gradeCounts;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static ExamResultStats empty(UUID examId) {
+        return ExamResultStats.builder()
+                .examId(examId)
+                .gradeCounts(Map.of())
+                .build();
+    }
+
+    public Double averageMarks() {
+        return publishedResults > 0 ? marksSum / publishedResults : null;
+    }
+
+    public Double averagePercentage() {
+        return publishedResults > 0 ? percentageSum / publishedResults : null;
+    }
+}
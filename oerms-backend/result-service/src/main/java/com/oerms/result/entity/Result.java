@@ -12,7 +12,9 @@ import java.util.UUID;
     @Index(name = "idx_result_student_id", columnList = "student_id"),
     @Index(name = "idx_result_exam_id", columnList = "exam_id"),
     @Index(name = "idx_result_attempt_id", columnList = "attempt_id"),
-    @Index(name = "idx_result_status", columnList = "status")
+    @Index(name = "idx_result_status", columnList = "status"),
+    @Index(name = "idx_result_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_result_submitted_at", columnList = "submitted_at")
 })
 @Data
 @Builder
@@ -29,6 +31,9 @@ public class Result extends BaseEntity {
     
     @Column(name = "exam_title")
     private String examTitle;
+
+    @Column(name = "subject", length = 100)
+    private String subject;
     
     @Column(name = "student_id", nullable = false)
     private UUID studentId;
@@ -0,0 +1,66 @@
+package com.oerms.result.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Results of one exam submitted on one day, rolled up under the exam's subject and kept current
+ * by additive deltas like {@link ExamResultStats}. The total counts all results; passes and
+ * percentage sums cover published results only. System analytics over a period reads these
+ * rows instead of the results themselves.
+ */
+@Entity
+@Table(name = "result_daily_rollups", indexes = {
+    @Index(name = "idx_rollup_subject_day", columnList = "subject, day")
+})
+@IdClass(ResultDailyRollup.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultDailyRollup {
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Id
+    @Column(name = "subject", nullable = false, length = 100)
+    private String subject;
+
+    @Id
+    @Column(name = "exam_id", nullable = false)
+    private UUID examId;
+
+    @Column(name = "total_results", nullable = false)
+    private long totalResults;
+
+    @Column(name = "published_results", nullable = false)
+    private long publishedResults;
+
+    @Column(name = "published_passed", nullable = false)
+    private long publishedPassed;
+
+    @Column(name = "percentage_sum", nullable = false)
+    private double percentageSum;
+
+    @Column(name = "percentage_sum_squares", nullable = false)
+    private double percentageSumSquares;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String subject;
+        private UUID examId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.oerms.result.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Outcome of one question within a result, recorded when the attempt is graded so that
+ * per-question analytics can be computed from result-service's own tables.
+ */
+@Entity
+@Table(name = "result_item_scores", indexes = {
+    @Index(name = "idx_item_score_exam_id", columnList = "exam_id")
+})
+@IdClass(ResultItemScore.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultItemScore {
+
+    @Id
+    @Column(name = "result_id", nullable = false)
+    private UUID resultId;
+
+    @Id
+    @Column(name = "question_id", nullable = false)
+    private UUID questionId;
+
+    @Column(name = "exam_id", nullable = false)
+    private UUID examId;
+
+    @Column(name = "correct", nullable = false)
+    private boolean correct;
+
+    @Column(name = "answered", nullable = false)
+    private boolean answered;
+
+    /** Awaiting manual grading; such items are left out of automatic item statistics */
+    @Column(name = "manual", nullable = false)
+    private boolean manual;
+
+    @Column(name = "marks_obtained", nullable = false)
+    private double marksObtained;
+
+    @Column(name = "marks_allocated", nullable = false)
+    private int marksAllocated;
+
+    @Column(name = "time_spent_seconds")
+    private Long timeSpentSeconds;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID resultId;
+        private UUID questionId;
+    }
+}
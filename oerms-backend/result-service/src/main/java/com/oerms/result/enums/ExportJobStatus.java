@@ -0,0 +1,8 @@
+package com.oerms.result.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.oerms.result.enums;
+
+public enum RankingMethod {
+    /** Ties share a rank and the next rank is skipped (1, 1, 3) */
+    COMPETITION,
+    /** Ties share a rank and no rank is skipped (1, 1, 2) */
+    DENSE
+}
@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -18,22 +20,63 @@ public class AttemptEventConsumer {
     @KafkaListener(
             topics = {"attempt-submitted-topic", "attempt-auto-submitted-topic"},
             groupId = "result-service-group",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "batchKafkaListenerContainerFactory"
     )
-    public void handleAttemptSubmitted(AttemptEvent event) {
-        log.info("Received attempt event of type {} for attemptId: {}", event.getEventType(), event.getAttemptId());
+    public void handleAttemptSubmitted(List<AttemptEvent> events) {
+        log.info("Received batch of {} attempt events", events.size());
 
-        try {
+        // Deduplicate redeliveries within the batch and group by exam
+        Map<UUID, AttemptDTO> attemptsById = new LinkedHashMap<>();
+        for (AttemptEvent event : events) {
             AttemptDTO attemptDto = event.getAttemptDTO(); // use common DTO
             if (attemptDto == null) {
                 log.error("AttemptDTO is null in received AttemptEvent for attemptId: {}", event.getAttemptId());
-                return;
+                continue;
+            }
+            attemptsById.putIfAbsent(attemptDto.getId(), attemptDto);
+        }
+        if (attemptsById.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> alreadyGraded;
+        try {
+            alreadyGraded = resultService.findAttemptsWithResults(attemptsById.keySet());
+        } catch (Exception e) {
+            log.error("Idempotency check failed for batch of {} attempts, grading one by one", attemptsById.size(), e);
+            attemptsById.values().forEach(this::handleSingle);
+            return;
+        }
+        if (!alreadyGraded.isEmpty()) {
+            log.warn("Results already exist for {} attempts in batch, skipping them", alreadyGraded.size());
+        }
+
+        Map<UUID, List<AttemptDTO>> attemptsByExam = new LinkedHashMap<>();
+        for (AttemptDTO attempt : attemptsById.values()) {
+            if (!alreadyGraded.contains(attempt.getId())) {
+                attemptsByExam.computeIfAbsent(attempt.getExamId(), id -> new ArrayList<>()).add(attempt);
+            }
+        }
+
+        attemptsByExam.forEach((examId, attempts) -> {
+            try {
+                int created = resultService.createResultsForExam(examId, attempts);
+                log.info("Successfully processed {} attempt events for examId: {}", created, examId);
+            } catch (Exception e) {
+                // Fall back to one-by-one so a single bad attempt does not drop the whole group
+                log.error("Batch grading failed for examId: {}, grading {} attempts one by one",
+                        examId, attempts.size(), e);
+                attempts.forEach(this::handleSingle);
             }
+        });
+    }
 
+    private void handleSingle(AttemptDTO attemptDto) {
+        try {
             resultService.createResultFromAttempt(attemptDto);
-            log.info("Successfully processed attempt event of type {} for attemptId: {}", event.getEventType(), event.getAttemptId());
+            log.info("Successfully processed attempt event for attemptId: {}", attemptDto.getId());
         } catch (Exception e) {
-            log.error("Error processing attempt event of type {} for attemptId: {}", event.getEventType(), event.getAttemptId(), e);
+            log.error("Error processing attempt event for attemptId: {}", attemptDto.getId(), e);
         }
     }
 }
@@ -0,0 +1,29 @@
+package com.oerms.result.kafka;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Subset of the event exam-service publishes on the {@code exam-events} topic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExamEvent {
+    private String eventType;
+    private UUID examId;
+    private UUID teacherId;
+    private String title;
+    private Integer totalMarks;
+    private Integer passingMarks;
+    private String status;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,35 @@
+package com.oerms.result.kafka;
+
+import com.oerms.result.service.AnswerKeyCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExamEventConsumer {
+
+    private static final Set<String> INVALIDATING_EVENTS = Set.of(
+            "exam.updated", "exam.deleted", "exam.published", "exam.unpublished",
+            "exam.archived", "exam.cancelled");
+
+    private final AnswerKeyCache answerKeyCache;
+
+    @KafkaListener(
+            topics = "exam-events",
+            containerFactory = "examEventKafkaListenerContainerFactory"
+    )
+    public void handleExamEvent(ExamEvent event) {
+        if (event == null || event.getExamId() == null) {
+            return;
+        }
+        if (INVALIDATING_EVENTS.contains(event.getEventType())) {
+            log.debug("Received {} for examId: {}, evicting cached grading data", event.getEventType(), event.getExamId());
+            answerKeyCache.evict(event.getExamId());
+        }
+    }
+}
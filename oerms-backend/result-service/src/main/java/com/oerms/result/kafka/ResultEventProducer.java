@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate; // Import KafkaTemplate
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -60,4 +62,29 @@ public class ResultEventProducer {
         kafkaTemplate.send("result-graded-topic", event);
         log.info("Published ResultGraded event for resultId: {}", result.getId());
     }
+
+    /**
+     * Sends a ResultGraded event for each result and flushes the producer once, so the events
+     * leave in as few requests as the producer's batching allows.
+     */
+    public void publishResultsGraded(Collection<Result> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        for (Result result : results) {
+            ResultEvent event = ResultEvent.builder()
+                .resultId(result.getId())
+                .examId(result.getExamId())
+                .studentId(result.getStudentId())
+                .obtainedMarks(result.getObtainedMarks())
+                .percentage(result.getPercentage())
+                .grade(result.getGrade())
+                .passed(result.getPassed())
+                .timestamp(System.currentTimeMillis())
+                .build();
+            kafkaTemplate.send("result-graded-topic", event);
+        }
+        kafkaTemplate.flush();
+        log.info("Published {} ResultGraded events", results.size());
+    }
 }
@@ -28,6 +28,7 @@ public interface ResultMapper {
     @Mapping(target = "teacherComments", ignore = true)
     @Mapping(target = "attemptNumber", ignore = true)
     @Mapping(target = "autoSubmitted", ignore = true)
+    @Mapping(target = "subject", ignore = true)
     Result toEntity(ResultDTO dto);
 
     // ========================
@@ -40,5 +41,6 @@ public interface ResultMapper {
     @Mapping(target = "teacherComments", ignore = true)
     @Mapping(target = "attemptNumber", ignore = true)
     @Mapping(target = "autoSubmitted", ignore = true)
+    @Mapping(target = "subject", ignore = true)
     void updateEntityFromDto(ResultDTO dto, @MappingTarget Result entity);
 }
@@ -0,0 +1,26 @@
+package com.oerms.result.repository;
+
+import com.oerms.result.entity.ExamReportSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ExamReportSnapshotRepository extends JpaRepository<ExamReportSnapshot, ExamReportSnapshot.Key> {
+
+    Optional<ExamReportSnapshot> findFirstByExamIdOrderByReportVersionDesc(UUID examId);
+
+    Optional<ExamReportSnapshot> findByExamIdAndReportVersion(UUID examId, long reportVersion);
+
+    @Query("SELECT COALESCE(MAX(s.reportVersion), 0) FROM ExamReportSnapshot s WHERE s.examId = :examId")
+    long findLatestVersion(@Param("examId") UUID examId);
+
+    @Modifying
+    @Query("DELETE FROM ExamReportSnapshot s WHERE s.examId = :examId AND s.reportVersion <= :version")
+    int deleteVersionsUpTo(@Param("examId") UUID examId, @Param("version") long version);
+}
@@ -0,0 +1,160 @@
+package com.oerms.result.repository;
+
+import com.oerms.result.entity.ExamResultStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ExamResultStatsRepository extends JpaRepository<ExamResultStats, UUID> {
+
+    String COLUMNS =
+            "exam_id, total_results, draft_results, pending_grading_results, graded_results, " +
+            "published_results, withheld_results, suspicious_results, published_passed, " +
+            "marks_sum, marks_sum_squares, percentage_sum, percentage_sum_squares, " +
+            "highest_marks, lowest_marks, grade_counts, updated_at";
+
+    String AGGREGATE_RESULTS =
+            "SELECT r.exam_id, COUNT(*), " +
+            "COUNT(*) FILTER (WHERE r.status = 'DRAFT'), " +
+            "COUNT(*) FILTER (WHERE r.status = 'PENDING_GRADING'), " +
+            "COUNT(*) FILTER (WHERE r.status = 'GRADED'), " +
+            "COUNT(*) FILTER (WHERE r.status = 'PUBLISHED'), " +
+            "COUNT(*) FILTER (WHERE r.status = 'WITHHELD'), " +
+            "COUNT(*) FILTER (WHERE r.suspicious_activity), " +
+            "COUNT(*) FILTER (WHERE r.status = 'PUBLISHED' AND r.passed), " +
+            "COALESCE(SUM(r.obtained_marks) FILTER (WHERE r.status = 'PUBLISHED'), 0), " +
+            "COALESCE(SUM(r.obtained_marks * r.obtained_marks) FILTER (WHERE r.status = 'PUBLISHED'), 0), " +
+            "COALESCE(SUM(r.percentage) FILTER (WHERE r.status = 'PUBLISHED'), 0), " +
+            "COALESCE(SUM(r.percentage * r.percentage) FILTER (WHERE r.status = 'PUBLISHED'), 0), " +
+            "MAX(r.obtained_marks) FILTER (WHERE r.status = 'PUBLISHED'), " +
+            "MIN(r.obtained_marks) FILTER (WHERE r.status = 'PUBLISHED'), " +
+            "COALESCE((SELECT jsonb_object_agg(g.grade, g.cnt) FROM (" +
+            "  SELECT grade, COUNT(*) AS cnt FROM results " +
+            "  WHERE exam_id = r.exam_id AND status = 'PUBLISHED' AND grade IS NOT NULL GROUP BY grade) g), " +
+            "  CAST('{}' AS jsonb)), " +
+            "now() " +
+            "FROM results r ";
+
+    /**
+     * Advisory lock space of the per-exam locks; the second key is a hash of the exam id.
+     */
+    int EXAM_LOCK = 7_140;
+
+    /**
+     * Overwrites an existing row with the recomputed values, for full rebuilds racing the
+     * creation of a row.
+     */
+    String OVERWRITE =
+            "ON CONFLICT (exam_id) DO UPDATE SET " +
+            "total_results = EXCLUDED.total_results, " +
+            "draft_results = EXCLUDED.draft_results, " +
+            "pending_grading_results = EXCLUDED.pending_grading_results, " +
+            "graded_results = EXCLUDED.graded_results, " +
+            "published_results = EXCLUDED.published_results, " +
+            "withheld_results = EXCLUDED.withheld_results, " +
+            "suspicious_results = EXCLUDED.suspicious_results, " +
+            "published_passed = EXCLUDED.published_passed, " +
+            "marks_sum = EXCLUDED.marks_sum, " +
+            "marks_sum_squares = EXCLUDED.marks_sum_squares, " +
+            "percentage_sum = EXCLUDED.percentage_sum, " +
+            "percentage_sum_squares = EXCLUDED.percentage_sum_squares, " +
+            "highest_marks = EXCLUDED.highest_marks, " +
+            "lowest_marks = EXCLUDED.lowest_marks, " +
+            "grade_counts = EXCLUDED.grade_counts, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    /**
+     * Takes the exam's lock until the transaction ends, so that only one transaction at a time
+     * builds its missing row.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + EXAM_LOCK + ", hashtext(CAST(:examId AS text)))",
+            nativeQuery = true)
+    int lockExam(@Param("examId") UUID examId);
+
+    /**
+     * Adds a delta to an exam's row, creating it if needed. Counters and sums are added,
+     * extremes widened and grade counts merged key by key, dropping grades that reach zero.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO exam_result_stats (" + COLUMNS + ") VALUES (" +
+            ":examId, :total, :draft, :pendingGrading, :graded, :published, :withheld, :suspicious, " +
+            ":passed, :marksSum, :marksSumSquares, :percentageSum, :percentageSumSquares, " +
+            "CASE WHEN :hasScores THEN :highest END, CASE WHEN :hasScores THEN :lowest END, " +
+            "CAST(:gradeCounts AS jsonb), now()) " +
+            "ON CONFLICT (exam_id) DO UPDATE SET " +
+            "total_results = exam_result_stats.total_results + EXCLUDED.total_results, " +
+            "draft_results = exam_result_stats.draft_results + EXCLUDED.draft_results, " +
+            "pending_grading_results = exam_result_stats.pending_grading_results + EXCLUDED.pending_grading_results, " +
+            "graded_results = exam_result_stats.graded_results + EXCLUDED.graded_results, " +
+            "published_results = exam_result_stats.published_results + EXCLUDED.published_results, " +
+            "withheld_results = exam_result_stats.withheld_results + EXCLUDED.withheld_results, " +
+            "suspicious_results = exam_result_stats.suspicious_results + EXCLUDED.suspicious_results, " +
+            "published_passed = exam_result_stats.published_passed + EXCLUDED.published_passed, " +
+            "marks_sum = exam_result_stats.marks_sum + EXCLUDED.marks_sum, " +
+            "marks_sum_squares = exam_result_stats.marks_sum_squares + EXCLUDED.marks_sum_squares, " +
+            "percentage_sum = exam_result_stats.percentage_sum + EXCLUDED.percentage_sum, " +
+            "percentage_sum_squares = exam_result_stats.percentage_sum_squares + EXCLUDED.percentage_sum_squares, " +
+            "highest_marks = GREATEST(exam_result_stats.highest_marks, EXCLUDED.highest_marks), " +
+            "lowest_marks = LEAST(exam_result_stats.lowest_marks, EXCLUDED.lowest_marks), " +
+            "grade_counts = (SELECT COALESCE(jsonb_object_agg(t.key, t.total) FILTER (WHERE t.total <> 0), " +
+            "    CAST('{}' AS jsonb)) FROM (" +
+            "  SELECT m.key, SUM(CAST(m.value AS bigint)) AS total FROM (" +
+            "    SELECT key, value FROM jsonb_each_text(exam_result_stats.grade_counts) " +
+            "    UNION ALL SELECT key, value FROM jsonb_each_text(EXCLUDED.grade_counts)) m " +
+            "  GROUP BY m.key) t), " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int applyDelta(@Param("examId") UUID examId,
+                   @Param("total") long total,
+                   @Param("draft") long draft,
+                   @Param("pendingGrading") long pendingGrading,
+                   @Param("graded") long graded,
+                   @Param("published") long published,
+                   @Param("withheld") long withheld,
+                   @Param("suspicious") long suspicious,
+                   @Param("passed") long passed,
+                   @Param("marksSum") double marksSum,
+                   @Param("marksSumSquares") double marksSumSquares,
+                   @Param("percentageSum") double percentageSum,
+                   @Param("percentageSumSquares") double percentageSumSquares,
+                   @Param("hasScores") boolean hasScores,
+                   @Param("highest") double highest,
+                   @Param("lowest") double lowest,
+                   @Param("gradeCounts") String gradeCounts);
+
+    /**
+     * Re-reads the published extremes, which deltas cannot narrow when a score leaves the set.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE exam_result_stats SET " +
+            "highest_marks = (SELECT MAX(obtained_marks) FROM results WHERE exam_id = :examId AND status = 'PUBLISHED'), " +
+            "lowest_marks = (SELECT MIN(obtained_marks) FROM results WHERE exam_id = :examId AND status = 'PUBLISHED') " +
+            "WHERE exam_id = :examId",
+            nativeQuery = true)
+    int refreshExtremes(@Param("examId") UUID examId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM exam_result_stats WHERE exam_id = :examId", nativeQuery = true)
+    int deleteForExam(@Param("examId") UUID examId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO exam_result_stats (" + COLUMNS + ") " + AGGREGATE_RESULTS +
+            "WHERE r.exam_id = :examId GROUP BY r.exam_id " + OVERWRITE,
+            nativeQuery = true)
+    int rebuildForExam(@Param("examId") UUID examId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM exam_result_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO exam_result_stats (" + COLUMNS + ") " + AGGREGATE_RESULTS +
+            "GROUP BY r.exam_id " + OVERWRITE,
+            nativeQuery = true)
+    int rebuildAll();
+}
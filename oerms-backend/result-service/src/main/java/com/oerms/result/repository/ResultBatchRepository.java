@@ -0,0 +1,141 @@
+package com.oerms.result.repository;
+
+import com.oerms.result.entity.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC writes for results created in bulk, where persisting entities one by one
+ * would cost a statement and a flush per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResultBatchRepository {
+
+    private static final String INSERT_RESULT_SQL =
+            "INSERT INTO results (id, created_at, updated_at, version, attempt_id, exam_id, exam_title, " +
+            "subject, student_id, student_name, total_marks, obtained_marks, percentage, passed, grade, status, " +
+            "total_questions, time_taken_seconds, submitted_at, published_at, attempt_number, auto_submitted, " +
+            "auto_graded, requires_manual_grading, tab_switches, webcam_violations, suspicious_activity) " +
+            "VALUES (?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (attempt_id) DO NOTHING";
+
+    private static final String UPDATE_GRADE_SQL =
+            "UPDATE results SET obtained_marks = ?, percentage = ?, grade = ?, passed = ?, status = ?, " +
+            "requires_manual_grading = false, graded_by = ?, graded_by_name = ?, graded_at = ?, " +
+            "teacher_comments = ?, updated_at = ?, version = COALESCE(version, 0) + 1 " +
+            "WHERE id = ? AND version IS NOT DISTINCT FROM ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the results in one JDBC batch. Ids and audit timestamps are assigned here.
+     * Rows whose attempt already has a result are skipped.
+     *
+     * @return the results that were actually inserted
+     */
+    public List<Result> insertAll(List<Result> results) {
+        if (results.isEmpty()) {
+            return results;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> params = new ArrayList<>(results.size());
+        for (Result result : results) {
+            result.setId(UUID.randomUUID());
+            result.setCreatedAt(now);
+            result.setUpdatedAt(now);
+            result.setVersion(0L);
+            params.add(new Object[]{
+                    result.getId(),
+                    Timestamp.valueOf(now),
+                    Timestamp.valueOf(now),
+                    result.getAttemptId(),
+                    result.getExamId(),
+                    result.getExamTitle(),
+                    result.getSubject(),
+                    result.getStudentId(),
+                    result.getStudentName(),
+                    result.getTotalMarks(),
+                    result.getObtainedMarks(),
+                    result.getPercentage(),
+                    result.getPassed(),
+                    result.getGrade(),
+                    result.getStatus().name(),
+                    result.getTotalQuestions(),
+                    result.getTimeTakenSeconds(),
+                    toTimestamp(result.getSubmittedAt()),
+                    toTimestamp(result.getPublishedAt()),
+                    result.getAttemptNumber(),
+                    result.getAutoSubmitted(),
+                    result.getAutoGraded(),
+                    result.getRequiresManualGrading(),
+                    result.getTabSwitches(),
+                    result.getWebcamViolations(),
+                    result.getSuspiciousActivity()
+            });
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, params);
+        List<Result> inserted = new ArrayList<>(results.size());
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO is treated as inserted; only an explicit 0 means the conflict was hit
+            if (counts[i] != 0) {
+                inserted.add(results.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Writes the grading fields of the results in one JDBC batch, guarded by each result's
+     * version. Versions are advanced on the updated results.
+     *
+     * @return the results that were actually updated; the others changed concurrently
+     */
+    public List<Result> updateGrades(List<Result> results) {
+        if (results.isEmpty()) {
+            return results;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> params = new ArrayList<>(results.size());
+        for (Result result : results) {
+            result.setUpdatedAt(now);
+            params.add(new Object[]{
+                    result.getObtainedMarks(),
+                    result.getPercentage(),
+                    result.getGrade(),
+                    result.getPassed(),
+                    result.getStatus().name(),
+                    result.getGradedBy(),
+                    result.getGradedByName(),
+                    toTimestamp(result.getGradedAt()),
+                    result.getTeacherComments(),
+                    Timestamp.valueOf(now),
+                    result.getId(),
+                    result.getVersion()
+            });
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_GRADE_SQL, params);
+        List<Result> updated = new ArrayList<>(results.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                Result result = results.get(i);
+                result.setVersion(result.getVersion() != null ? result.getVersion() + 1 : 1L);
+                updated.add(result);
+            }
+        }
+        return updated;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
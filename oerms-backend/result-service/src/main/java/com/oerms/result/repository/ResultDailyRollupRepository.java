@@ -0,0 +1,150 @@
+package com.oerms.result.repository;
+
+import com.oerms.result.entity.ResultDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ResultDailyRollupRepository extends JpaRepository<ResultDailyRollup, ResultDailyRollup.Key> {
+
+    String COLUMNS =
+            "day, subject, exam_id, total_results, published_results, published_passed, " +
+            "percentage_sum, percentage_sum_squares, updated_at";
+
+    /**
+     * Day and subject of a result as the projection derives them: the submission date, and the
+     * exam's subject falling back to the first word of its title.
+     */
+    String DAY = "CAST(COALESCE(r.submitted_at, r.created_at) AS date)";
+    String SUBJECT = "COALESCE(NULLIF(btrim(r.subject), ''), NULLIF(split_part(btrim(r.exam_title), ' ', 1), ''), 'Unknown')";
+
+    String AGGREGATE_RESULTS =
+            "SELECT " + DAY + ", " + SUBJECT + ", r.exam_id, COUNT(*), " +
+            "COUNT(*) FILTER (WHERE r.status = 'PUBLISHED'), " +
+            "COUNT(*) FILTER (WHERE r.status = 'PUBLISHED' AND r.passed), " +
+            "COALESCE(SUM(r.percentage) FILTER (WHERE r.status = 'PUBLISHED'), 0), " +
+            "COALESCE(SUM(r.percentage * r.percentage) FILTER (WHERE r.status = 'PUBLISHED'), 0), " +
+            "now() " +
+            "FROM results r ";
+
+    /**
+     * Submission time range written so that both the submitted_at and created_at indexes apply.
+     */
+    String SUBMITTED_BETWEEN =
+            "((r.submitted_at >= :from AND r.submitted_at < :to) " +
+            "OR (r.submitted_at IS NULL AND r.created_at >= :from AND r.created_at < :to)) ";
+
+    /**
+     * Advisory lock space of the per-day rollup locks; the second key is the epoch day.
+     */
+    int DAY_LOCK = 7_141;
+
+    List<ResultDailyRollup> findByDayBetween(LocalDate from, LocalDate to);
+
+    boolean existsByDayAndSubjectAndExamId(LocalDate day, String subject, UUID examId);
+
+    /**
+     * Adds a delta to a row, creating it if needed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO result_daily_rollups (" + COLUMNS + ") VALUES (" +
+            ":day, :subject, :examId, :total, :published, :passed, :percentageSum, :percentageSumSquares, now()) " +
+            "ON CONFLICT (day, subject, exam_id) DO UPDATE SET " +
+            "total_results = result_daily_rollups.total_results + EXCLUDED.total_results, " +
+            "published_results = result_daily_rollups.published_results + EXCLUDED.published_results, " +
+            "published_passed = result_daily_rollups.published_passed + EXCLUDED.published_passed, " +
+            "percentage_sum = result_daily_rollups.percentage_sum + EXCLUDED.percentage_sum, " +
+            "percentage_sum_squares = result_daily_rollups.percentage_sum_squares + EXCLUDED.percentage_sum_squares, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int applyDelta(@Param("day") LocalDate day,
+                   @Param("subject") String subject,
+                   @Param("examId") UUID examId,
+                   @Param("total") long total,
+                   @Param("published") long published,
+                   @Param("passed") long passed,
+                   @Param("percentageSum") double percentageSum,
+                   @Param("percentageSumSquares") double percentageSumSquares);
+
+    /**
+     * Recomputes one row from the results of its day, subject and exam. Callers hold the row's
+     * lock, so no other transaction builds the row at the same time.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO result_daily_rollups (" + COLUMNS + ") " + AGGREGATE_RESULTS +
+            "WHERE r.exam_id = :examId AND " + SUBJECT + " = :subject AND " + SUBMITTED_BETWEEN +
+            "GROUP BY 1, 2, 3 " +
+            "ON CONFLICT (day, subject, exam_id) DO UPDATE SET " +
+            "total_results = EXCLUDED.total_results, " +
+            "published_results = EXCLUDED.published_results, " +
+            "published_passed = EXCLUDED.published_passed, " +
+            "percentage_sum = EXCLUDED.percentage_sum, " +
+            "percentage_sum_squares = EXCLUDED.percentage_sum_squares, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int rebuildRow(@Param("examId") UUID examId,
+                   @Param("subject") String subject,
+                   @Param("from") LocalDateTime from,
+                   @Param("to") LocalDateTime to);
+
+    /**
+     * Takes a row's lock exclusively until the transaction ends, for building the missing row.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(" +
+            "CAST(:day AS text) || '|' || :subject || '|' || CAST(:examId AS text), " + DAY_LOCK + "))",
+            nativeQuery = true)
+    int lockRow(@Param("day") LocalDate day, @Param("subject") String subject, @Param("examId") UUID examId);
+
+    /**
+     * Takes a day's lock shared until the transaction ends; deltas hold it so that a rebuild of
+     * the day waits for them to commit and they wait for the rebuild.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(" + DAY_LOCK + ", :day)", nativeQuery = true)
+    int lockDayShared(@Param("day") int epochDay);
+
+    /**
+     * Takes a day's lock exclusively until the transaction ends, for rebuilding the day.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + DAY_LOCK + ", :day)", nativeQuery = true)
+    int lockDay(@Param("day") int epochDay);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM result_daily_rollups WHERE day >= :from AND day < :to", nativeQuery = true)
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Recomputes every row of the days in {@code [from, to)}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO result_daily_rollups (" + COLUMNS + ") " + AGGREGATE_RESULTS +
+            "WHERE " + SUBMITTED_BETWEEN +
+            "GROUP BY 1, 2, 3 " +
+            "ON CONFLICT (day, subject, exam_id) DO UPDATE SET " +
+            "total_results = EXCLUDED.total_results, " +
+            "published_results = EXCLUDED.published_results, " +
+            "published_passed = EXCLUDED.published_passed, " +
+            "percentage_sum = EXCLUDED.percentage_sum, " +
+            "percentage_sum_squares = EXCLUDED.percentage_sum_squares, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int rebuildDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(COALESCE(r.submittedAt, r.createdAt)) FROM Result r")
+    LocalDateTime findFirstResultTime();
+
+    /**
+     * Students are the one figure that does not add up across days, so they are counted from
+     * the results of the period.
+     */
+    @Query(value = "SELECT COUNT(DISTINCT r.student_id) FROM results r WHERE " + SUBMITTED_BETWEEN,
+            nativeQuery = true)
+    long countDistinctStudents(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,118 @@
+package com.oerms.result.repository;
+
+import com.oerms.result.entity.ResultItemScore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to per-question result outcomes, which are written in bulk at grading
+ * time and read back as a forward-only stream by the analytics jobs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResultItemScoreRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String INSERT_ITEM_SCORE_SQL =
+            "INSERT INTO result_item_scores (result_id, question_id, exam_id, correct, answered, manual, " +
+            "marks_obtained, marks_allocated, time_spent_seconds) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (result_id, question_id) DO NOTHING";
+
+    /**
+     * Auto-graded items of an exam's published results, each with its result's total marks and
+     * its position in the upper (1) or lower (-1) 27% of results by total marks, or neither (0).
+     */
+    private static final String ITEM_ANALYSIS_SQL =
+            "WITH ranked AS (" +
+            "  SELECT id, obtained_marks, " +
+            "    ROW_NUMBER() OVER (ORDER BY obtained_marks DESC, id) AS rn, " +
+            "    COUNT(*) OVER () AS n " +
+            "  FROM results WHERE exam_id = ? AND status = 'PUBLISHED'" +
+            "), grouped AS (" +
+            "  SELECT id, obtained_marks, rn, n, GREATEST(1, ROUND(n * 0.27)) AS k FROM ranked" +
+            ") " +
+            "SELECT s.question_id, s.correct, g.obtained_marks, " +
+            "  CASE WHEN g.rn <= g.k THEN 1 WHEN g.rn > g.n - g.k THEN -1 ELSE 0 END AS score_group " +
+            "FROM result_item_scores s JOIN grouped g ON g.id = s.result_id " +
+            "WHERE s.exam_id = ? AND s.manual = false";
+
+    /**
+     * Results without any item scores, in id order after a given id; these were graded before
+     * item scores were stored.
+     */
+    private static final String RESULTS_WITHOUT_ITEM_SCORES_SQL =
+            "SELECT r.id, r.attempt_id, r.exam_id FROM results r " +
+            "WHERE r.id > ? AND NOT EXISTS (SELECT 1 FROM result_item_scores s WHERE s.result_id = r.id) " +
+            "ORDER BY r.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ResultRef(UUID id, UUID attemptId, UUID examId) {
+    }
+
+    @FunctionalInterface
+    public interface ItemAnalysisRowHandler {
+        void accept(UUID questionId, boolean correct, double totalMarks, int scoreGroup);
+    }
+
+    public void insertAll(Collection<ResultItemScore> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        List<Object[]> params = new ArrayList<>(scores.size());
+        for (ResultItemScore score : scores) {
+            params.add(new Object[]{
+                    score.getResultId(),
+                    score.getQuestionId(),
+                    score.getExamId(),
+                    score.isCorrect(),
+                    score.isAnswered(),
+                    score.isManual(),
+                    score.getMarksObtained(),
+                    score.getMarksAllocated(),
+                    score.getTimeSpentSeconds()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SCORE_SQL, params);
+    }
+
+    public List<ResultRef> findResultsWithoutItemScores(UUID after, int limit) {
+        return jdbcTemplate.query(RESULTS_WITHOUT_ITEM_SCORES_SQL,
+                (rs, rowNum) -> new ResultRef(
+                        rs.getObject(1, UUID.class),
+                        rs.getObject(2, UUID.class),
+                        rs.getObject(3, UUID.class)),
+                after, limit);
+    }
+
+    public int deleteByResultId(UUID resultId) {
+        return jdbcTemplate.update("DELETE FROM result_item_scores WHERE result_id = ?", resultId);
+    }
+
+    /**
+     * Streams the rows for item analysis through a server-side cursor. Must run inside a
+     * transaction, as the PostgreSQL driver only honours the fetch size without auto-commit.
+     */
+    public void streamItemAnalysisRows(UUID examId, ItemAnalysisRowHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ITEM_ANALYSIS_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, examId);
+            ps.setObject(2, examId);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(
+                rs.getObject(1, UUID.class),
+                rs.getBoolean(2),
+                rs.getDouble(3),
+                rs.getInt(4)));
+    }
+}
@@ -2,23 +2,33 @@ package com.oerms.result.repository;
 
 import com.oerms.result.entity.Result;
 import com.oerms.result.enums.ResultStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ResultRepository extends JpaRepository<Result, UUID> {
+public interface ResultRepository extends JpaRepository<Result, UUID>, JpaSpecificationExecutor<Result> {
     
     // Existing methods
     Optional<Result> findByAttemptId(UUID attemptId);
+
+    @Query("SELECT r.attemptId FROM Result r WHERE r.attemptId IN :attemptIds")
+    List<UUID> findExistingAttemptIds(@Param("attemptIds") Collection<UUID> attemptIds);
     Page<Result> findByStudentId(UUID studentId, Pageable pageable);
     Page<Result> findByStudentIdAndExamId(UUID studentId, UUID examId, Pageable pageable);
     Page<Result> findByExamId(UUID examId, Pageable pageable);
@@ -86,11 +96,64 @@ public interface ResultRepository extends JpaRepository<Result, UUID> {
     @Query("SELECT AVG(r.percentage) FROM Result r WHERE r.examId = :examId " +
            "AND r.status = 'PUBLISHED'")
     Double getAveragePercentageByExam(@Param("examId") UUID examId);
+
+    @Query(value = "SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY percentage) FROM results " +
+           "WHERE exam_id = :examId AND status = 'PUBLISHED'", nativeQuery = true)
+    Double getMedianPercentageByExam(@Param("examId") UUID examId);
+
+    /**
+     * Forward-only cursor over an exam's results; must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Result r WHERE r.examId = :examId AND r.status = :status")
+    Stream<Result> streamByExamIdAndStatus(@Param("examId") UUID examId, @Param("status") ResultStatus status);
+
+    /**
+     * Forward-only cursor over an exam's results in rank order for exports, optionally limited
+     * to one status; must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Result r WHERE r.examId = :examId AND (:status IS NULL OR r.status = :status) " +
+           "ORDER BY r.rank ASC NULLS LAST, r.studentName ASC, r.id ASC")
+    Stream<Result> streamForExport(@Param("examId") UUID examId, @Param("status") ResultStatus status);
+
+    @Query("SELECT COUNT(r) FROM Result r WHERE r.examId = :examId AND (:status IS NULL OR r.status = :status)")
+    long countForExport(@Param("examId") UUID examId, @Param("status") ResultStatus status);
+
+    Optional<Result> findFirstByExamId(UUID examId);
+    
+    @Query("SELECT r.id, r.obtainedMarks, r.percentage FROM Result r WHERE r.examId = :examId " +
+           "AND r.status = 'PUBLISHED'")
+    List<Object[]> findPublishedScores(@Param("examId") UUID examId);
     
     @Query("SELECT r.grade, COUNT(r) FROM Result r WHERE r.examId = :examId " +
            "AND r.status = 'PUBLISHED' GROUP BY r.grade")
     List<Object[]> getGradeDistribution(@Param("examId") UUID examId);
     
+    // Rankings are computed with a window function and written in one statement;
+    // rows whose rank is already correct are left untouched
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE results r SET rank = ranked.new_rank, updated_at = now(), " +
+           "version = COALESCE(r.version, 0) + 1 " +
+           "FROM (SELECT id, RANK() OVER (ORDER BY obtained_marks DESC) AS new_rank " +
+           "      FROM results WHERE exam_id = :examId AND status = 'PUBLISHED') ranked " +
+           "WHERE r.id = ranked.id AND r.rank IS DISTINCT FROM ranked.new_rank",
+           nativeQuery = true)
+    int updateCompetitionRanks(@Param("examId") UUID examId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE results r SET rank = ranked.new_rank, updated_at = now(), " +
+           "version = COALESCE(r.version, 0) + 1 " +
+           "FROM (SELECT id, DENSE_RANK() OVER (ORDER BY obtained_marks DESC) AS new_rank " +
+           "      FROM results WHERE exam_id = :examId AND status = 'PUBLISHED') ranked " +
+           "WHERE r.id = ranked.id AND r.rank IS DISTINCT FROM ranked.new_rank",
+           nativeQuery = true)
+    int updateDenseRanks(@Param("examId") UUID examId);
+    
     @Query("SELECT r FROM Result r WHERE r.examId = :examId AND r.status = 'PUBLISHED' " +
            "ORDER BY r.obtainedMarks DESC")
     List<Result> findTopScoresByExam(@Param("examId") UUID examId, Pageable pageable);
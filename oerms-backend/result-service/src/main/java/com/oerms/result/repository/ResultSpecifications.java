@@ -0,0 +1,50 @@
+package com.oerms.result.repository;
+
+import com.oerms.result.dto.ResultSearchCriteria;
+import com.oerms.result.entity.Result;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result filters for keyset listings. Only the criteria that were given become predicates,
+ * so the planner sees a plain query instead of a chain of {@code :x IS NULL OR ...} terms.
+ */
+public final class ResultSpecifications {
+
+    private ResultSpecifications() {
+    }
+
+    public static Specification<Result> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Result> matching(ResultSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (StringUtils.hasText(criteria.getStudentName())) {
+                predicates.add(cb.like(cb.lower(root.get("studentName")),
+                        "%" + criteria.getStudentName().toLowerCase() + "%"));
+            }
+            if (criteria.getExamId() != null) {
+                predicates.add(cb.equal(root.get("examId"), criteria.getExamId()));
+            }
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getPassed() != null) {
+                predicates.add(cb.equal(root.get("passed"), criteria.getPassed()));
+            }
+            if (criteria.getMinPercentage() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("percentage"), criteria.getMinPercentage()));
+            }
+            if (criteria.getMaxPercentage() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("percentage"), criteria.getMaxPercentage()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
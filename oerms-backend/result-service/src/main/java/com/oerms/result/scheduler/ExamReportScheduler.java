@@ -0,0 +1,24 @@
+package com.oerms.result.scheduler;
+
+import com.oerms.result.service.ExamReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExamReportScheduler {
+
+    private final ExamReportService examReportService;
+
+    @Scheduled(fixedDelayString = "${result.report.interval-ms:10000}")
+    public void generatePendingReports() {
+        try {
+            examReportService.runPending();
+        } catch (Exception ex) {
+            log.error("Failed to generate pending exam reports: {}", ex.getMessage(), ex);
+        }
+    }
+}
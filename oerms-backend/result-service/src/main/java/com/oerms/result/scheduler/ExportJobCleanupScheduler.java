@@ -0,0 +1,27 @@
+package com.oerms.result.scheduler;
+
+import com.oerms.result.service.ResultExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobCleanupScheduler {
+
+    private final ResultExportService resultExportService;
+
+    @Scheduled(fixedDelayString = "${result.export.cleanup-interval-ms:300000}")
+    public void purgeExpiredExports() {
+        try {
+            int purged = resultExportService.purgeExpiredJobs();
+            if (purged > 0) {
+                log.info("Purged {} expired export jobs", purged);
+            }
+        } catch (Exception ex) {
+            log.error("Failed to purge expired export jobs: {}", ex.getMessage(), ex);
+        }
+    }
+}
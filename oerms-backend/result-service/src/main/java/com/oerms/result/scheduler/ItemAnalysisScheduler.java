@@ -0,0 +1,24 @@
+package com.oerms.result.scheduler;
+
+import com.oerms.result.service.ItemAnalysisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemAnalysisScheduler {
+
+    private final ItemAnalysisService itemAnalysisService;
+
+    @Scheduled(fixedDelayString = "${result.item-analysis.interval-ms:5000}")
+    public void analyzePendingExams() {
+        try {
+            itemAnalysisService.runPending();
+        } catch (Exception ex) {
+            log.error("Failed to run pending item analyses: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.oerms.result.service;
+
+import com.oerms.common.dto.QuestionDTO;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * Grading view of a set of questions, compiled once so that grading an answer needs no
+ * string splitting, set building or type dispatch on strings.
+ * <p>
+ * Single-choice answers are compared against a pre-normalized token. Multiple-answer keys are
+ * held as a bitmask over the question's options when every correct token is one of at most 64
+ * options, and as a token set otherwise. Each question's topic and difficulty are kept too, so
+ * analytics can bucket outcomes without fetching questions again. Instances are immutable and
+ * safe to share.
+ */
+public final class AnswerKey {
+
+    enum KeyType {
+        /** MCQ and TRUE_FALSE: one answer compared case-insensitively */
+        SINGLE,
+        /** MULTIPLE_ANSWER: the selected set must equal the correct set */
+        MULTIPLE,
+        /** ESSAY and SHORT_ANSWER: scored zero until graded by a teacher */
+        MANUAL,
+        /** Any other type is not auto-graded */
+        UNGRADED
+    }
+
+    private static final int MAX_MASK_OPTIONS = 64;
+
+    private final Map<UUID, Integer> indexByQuestionId;
+    private final KeyType[] types;
+    private final int[] marks;
+    private final String[] singleAnswers;
+    private final long[] correctMasks;
+    private final List<Map<String, Integer>> optionIndexes;
+    private final List<Set<String>> correctTokenSets;
+    private final String[] topics;
+    private final String[] difficulties;
+
+    private AnswerKey(int size) {
+        this.indexByQuestionId = new HashMap<>(size * 2);
+        this.types = new KeyType[size];
+        this.marks = new int[size];
+        this.singleAnswers = new String[size];
+        this.correctMasks = new long[size];
+        this.optionIndexes = new ArrayList<>(Collections.nCopies(size, null));
+        this.correctTokenSets = new ArrayList<>(Collections.nCopies(size, null));
+        this.topics = new String[size];
+        this.difficulties = new String[size];
+    }
+
+    public static AnswerKey compile(Collection<QuestionDTO> questions) {
+        AnswerKey key = new AnswerKey(questions.size());
+        int i = 0;
+        for (QuestionDTO question : questions) {
+            if (question == null || question.getId() == null
+                    || key.indexByQuestionId.putIfAbsent(question.getId(), i) != null) {
+                continue;
+            }
+            key.marks[i] = question.getMarks() != null ? question.getMarks() : 0;
+            key.types[i] = typeOf(question.getType());
+            key.topics[i] = question.getTopic();
+            key.difficulties[i] = question.getDifficulty();
+            switch (key.types[i]) {
+                case SINGLE -> key.singleAnswers[i] = normalize(question.getCorrectAnswer());
+                case MULTIPLE -> key.compileMultiple(i, question);
+                default -> { }
+            }
+            i++;
+        }
+        return key;
+    }
+
+    public boolean contains(UUID questionId) {
+        return indexByQuestionId.containsKey(questionId);
+    }
+
+    public Set<UUID> questionIds() {
+        return Collections.unmodifiableSet(indexByQuestionId.keySet());
+    }
+
+    /**
+     * @return position of the question in this key, or -1 if the key does not cover it
+     */
+    public int indexOf(UUID questionId) {
+        Integer index = indexByQuestionId.get(questionId);
+        return index != null ? index : -1;
+    }
+
+    public int marks(int index) {
+        return marks[index];
+    }
+
+    public String topic(int index) {
+        return topics[index];
+    }
+
+    public String difficulty(int index) {
+        return difficulties[index];
+    }
+
+    public boolean requiresManualGrading(int index) {
+        return types[index] == KeyType.MANUAL;
+    }
+
+    /**
+     * @return the marks awarded for the answer, either the question's full marks or zero
+     */
+    public double grade(int index, String answerText, Collection<String> selectedOptions) {
+        return isCorrect(index, answerText, selectedOptions) ? marks[index] : 0.0;
+    }
+
+    public boolean isCorrect(int index, String answerText, Collection<String> selectedOptions) {
+        return switch (types[index]) {
+            case SINGLE -> isSingleCorrect(index, answerText, selectedOptions);
+            case MULTIPLE -> isMultipleCorrect(index, selectedOptions);
+            default -> false;
+        };
+    }
+
+    // ==================== Internals ====================
+
+    private boolean isSingleCorrect(int index, String answerText, Collection<String> selectedOptions) {
+        String expected = singleAnswers[index];
+        if (expected == null) {
+            return false;
+        }
+        String studentAnswer = answerText;
+        if (!StringUtils.hasText(studentAnswer) && selectedOptions != null && selectedOptions.size() == 1) {
+            studentAnswer = selectedOptions.iterator().next();
+        }
+        return studentAnswer != null && expected.equalsIgnoreCase(studentAnswer.trim());
+    }
+
+    private boolean isMultipleCorrect(int index, Collection<String> selectedOptions) {
+        Set<String> tokenSet = correctTokenSets.get(index);
+        if (tokenSet != null) {
+            return tokenSet.equals(trimmedSet(selectedOptions));
+        }
+        long expected = correctMasks[index];
+        if (expected == 0L) {
+            return false;
+        }
+        if (selectedOptions == null) {
+            return false;
+        }
+        Map<String, Integer> options = optionIndexes.get(index);
+        long selected = 0L;
+        for (String option : selectedOptions) {
+            Integer bit = option != null ? options.get(option.trim()) : null;
+            if (bit == null) {
+                // A selection outside the option list can never match a mask-compiled key
+                return false;
+            }
+            selected |= 1L << bit;
+        }
+        return selected == expected;
+    }
+
+    private void compileMultiple(int index, QuestionDTO question) {
+        if (!StringUtils.hasText(question.getCorrectAnswer())) {
+            correctMasks[index] = 0L;
+            return;
+        }
+        Set<String> correctTokens = new HashSet<>();
+        for (String token : question.getCorrectAnswer().split(",")) {
+            correctTokens.add(token.trim());
+        }
+
+        List<String> options = question.getOptions();
+        if (options != null && options.size() <= MAX_MASK_OPTIONS) {
+            Map<String, Integer> optionIndex = new HashMap<>(options.size() * 2);
+            for (int bit = 0; bit < options.size(); bit++) {
+                if (options.get(bit) != null) {
+                    optionIndex.putIfAbsent(options.get(bit).trim(), bit);
+                }
+            }
+            long mask = 0L;
+            boolean allKnown = true;
+            for (String token : correctTokens) {
+                Integer bit = optionIndex.get(token);
+                if (bit == null) {
+                    allKnown = false;
+                    break;
+                }
+                mask |= 1L << bit;
+            }
+            if (allKnown) {
+                correctMasks[index] = mask;
+                optionIndexes.set(index, optionIndex);
+                return;
+            }
+        }
+        correctTokenSets.set(index, Set.copyOf(correctTokens));
+    }
+
+    private static Set<String> trimmedSet(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> trimmed = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            trimmed.add(value.trim());
+        }
+        return trimmed;
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    private static KeyType typeOf(String type) {
+        if (type == null) {
+            return KeyType.UNGRADED;
+        }
+        return switch (type) {
+            case "MCQ", "TRUE_FALSE" -> KeyType.SINGLE;
+            case "MULTIPLE_ANSWER" -> KeyType.MULTIPLE;
+            case "ESSAY", "SHORT_ANSWER" -> KeyType.MANUAL;
+            default -> KeyType.UNGRADED;
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.oerms.result.service;
+
+import com.oerms.common.dto.ExamDTO;
+import com.oerms.common.dto.QuestionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bounded, per-exam cache of compiled {@link AnswerKey}s.
+ * <p>
+ * Entries are tied to the exam's {@code updatedAt}, so a changed exam never grades against an
+ * old key, and are evicted on exam events and after a TTL as a safety net for question edits,
+ * which question-service does not announce. Keys grow as attempts reference questions the
+ * cached key does not cover yet; only the missing questions are fetched.
+ */
+@Component
+@Slf4j
+public class AnswerKeyCache {
+
+    private final int maxExams;
+    private final long ttlMillis;
+    private final Map<UUID, Entry> entries;
+
+    public AnswerKeyCache(@Value("${result.grading.answer-key-cache.max-exams:256}") int maxExams,
+                          @Value("${result.grading.answer-key-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.maxExams = maxExams;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > AnswerKeyCache.this.maxExams;
+            }
+        };
+    }
+
+    private record Entry(LocalDateTime examVersion, Map<UUID, QuestionDTO> questions,
+                         AnswerKey key, long loadedAt) {
+    }
+
+    /**
+     * Returns a key covering the given questions of the exam, loading and compiling the
+     * questions it does not know yet through {@code loader}.
+     */
+    public AnswerKey getAnswerKey(ExamDTO exam, Collection<UUID> questionIds,
+                                  Function<Collection<UUID>, List<QuestionDTO>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(exam.getId());
+        }
+        if (entry != null && (!Objects.equals(entry.examVersion(), exam.getUpdatedAt())
+                || now - entry.loadedAt() > ttlMillis)) {
+            entry = null;
+        }
+
+        Set<UUID> unknown = new HashSet<>();
+        for (UUID questionId : questionIds) {
+            if (entry == null || !entry.key().contains(questionId)) {
+                unknown.add(questionId);
+            }
+        }
+        if (entry != null && unknown.isEmpty()) {
+            return entry.key();
+        }
+
+        // Questions the loader does not return are not remembered, so they are asked for again
+        // next time instead of grading against a key that silently lacks them
+        Map<UUID, QuestionDTO> questions = entry != null ? new HashMap<>(entry.questions()) : new HashMap<>();
+        for (QuestionDTO question : loader.apply(unknown)) {
+            questions.put(question.getId(), question);
+        }
+
+        Entry compiled = new Entry(exam.getUpdatedAt(), questions,
+                AnswerKey.compile(questions.values()), entry != null ? entry.loadedAt() : now);
+        if (!questions.isEmpty()) {
+            synchronized (entries) {
+                entries.put(exam.getId(), compiled);
+            }
+        }
+        log.debug("Compiled answer key for exam {} with {} questions", exam.getId(), questions.size());
+        return compiled.key();
+    }
+
+    public void evict(UUID examId) {
+        synchronized (entries) {
+            if (entries.remove(examId) != null) {
+                log.debug("Evicted answer key for exam {}", examId);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ExportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class CsvResultExportWriter implements ResultExportWriter {
+
+    // Lets spreadsheet applications detect UTF-8 in student names
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.CSV;
+    }
+
+    @Override
+    public String contentType() {
+        return "text/csv";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public RowSink open(OutputStream out, String title) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(BYTE_ORDER_MARK);
+        writeLine(writer, ResultExportColumns.HEADERS.toArray());
+        return new RowSink() {
+            @Override
+            public void write(Result result) throws IOException {
+                writeLine(writer, ResultExportColumns.values(result));
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private static void writeLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escape(values[i]));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(Object value) {
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            // Keeps spreadsheet applications from evaluating user-entered text as a formula
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
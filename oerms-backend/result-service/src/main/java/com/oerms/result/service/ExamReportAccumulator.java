@@ -0,0 +1,148 @@
+package com.oerms.result.service;
+
+import com.oerms.result.dto.ResultSummaryDTO;
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ResultStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Single-pass summary of all results of one exam for its detailed report: status counts,
+ * published score statistics through a {@link ScoreAccumulator}, and the top scorers and
+ * results needing attention kept in heaps bounded to the list size. Memory stays independent
+ * of the number of results.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class ExamReportAccumulator {
+
+    private static final Comparator<Candidate> BY_PERCENTAGE = Comparator.comparingDouble(Candidate::percentage);
+
+    private final ScoreAccumulator publishedScores = new ScoreAccumulator();
+    private final Map<ResultStatus, long[]> statusCounts = new EnumMap<>(ResultStatus.class);
+    private final int listSize;
+    private final Function<Result, ResultSummaryDTO> summarizer;
+    // Lowest top scorer on top, so it is the one replaced
+    private final PriorityQueue<Candidate> topScorers = new PriorityQueue<>(BY_PERCENTAGE);
+    // Highest result needing attention on top, so the weakest ones are kept
+    private final PriorityQueue<Candidate> needsAttention = new PriorityQueue<>(BY_PERCENTAGE.reversed());
+
+    private String examTitle;
+    private LocalDateTime firstSubmittedAt;
+    private long total;
+    private long suspicious;
+    private long autoSubmitted;
+    private long timedResults;
+    private double timeTakenSum;
+
+    private record Candidate(double percentage, ResultSummaryDTO summary) {
+    }
+
+    public ExamReportAccumulator(int listSize, Function<Result, ResultSummaryDTO> summarizer) {
+        this.listSize = listSize;
+        this.summarizer = summarizer;
+    }
+
+    public void accept(Result result) {
+        total++;
+        statusCounts.computeIfAbsent(result.getStatus(), s -> new long[1])[0]++;
+        if (examTitle == null) {
+            examTitle = result.getExamTitle();
+        }
+        if (result.getSubmittedAt() != null
+                && (firstSubmittedAt == null || result.getSubmittedAt().isBefore(firstSubmittedAt))) {
+            firstSubmittedAt = result.getSubmittedAt();
+        }
+        if (Boolean.TRUE.equals(result.getAutoSubmitted())) {
+            autoSubmitted++;
+        }
+        if (result.getTimeTakenSeconds() != null) {
+            timedResults++;
+            timeTakenSum += result.getTimeTakenSeconds();
+        }
+        boolean flagged = Boolean.TRUE.equals(result.getSuspiciousActivity());
+        if (flagged) {
+            suspicious++;
+        }
+
+        if (result.getStatus() != ResultStatus.PUBLISHED) {
+            if (flagged) {
+                offer(needsAttention, result);
+            }
+            return;
+        }
+        publishedScores.accept(result);
+        offer(topScorers, result);
+        if (flagged || !Boolean.TRUE.equals(result.getPassed())) {
+            offer(needsAttention, result);
+        }
+    }
+
+    public ScoreAccumulator publishedScores() {
+        return publishedScores;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public long count(ResultStatus status) {
+        long[] count = statusCounts.get(status);
+        return count != null ? count[0] : 0L;
+    }
+
+    public long suspicious() {
+        return suspicious;
+    }
+
+    public long autoSubmitted() {
+        return autoSubmitted;
+    }
+
+    public Double averageTimeTakenSeconds() {
+        return timedResults > 0 ? timeTakenSum / timedResults : null;
+    }
+
+    public String examTitle() {
+        return examTitle;
+    }
+
+    public LocalDateTime firstSubmittedAt() {
+        return firstSubmittedAt;
+    }
+
+    /**
+     * @return top scorers, best first
+     */
+    public List<ResultSummaryDTO> topScorers() {
+        return drain(topScorers, BY_PERCENTAGE.reversed());
+    }
+
+    /**
+     * @return failed or suspicious results, weakest first
+     */
+    public List<ResultSummaryDTO> needsAttention() {
+        return drain(needsAttention, BY_PERCENTAGE);
+    }
+
+    // ==================== Internals ====================
+
+    private void offer(PriorityQueue<Candidate> heap, Result result) {
+        double percentage = result.getPercentage() != null ? result.getPercentage() : 0.0;
+        if (heap.size() < listSize) {
+            heap.add(new Candidate(percentage, summarizer.apply(result)));
+        } else if (heap.comparator().compare(new Candidate(percentage, null), heap.peek()) > 0) {
+            heap.poll();
+            heap.add(new Candidate(percentage, summarizer.apply(result)));
+        }
+    }
+
+    private static List<ResultSummaryDTO> drain(PriorityQueue<Candidate> heap, Comparator<Candidate> order) {
+        return heap.stream()
+                .sorted(order)
+                .map(Candidate::summary)
+                .toList();
+    }
+}
@@ -0,0 +1,304 @@
+package com.oerms.result.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oerms.common.dto.ApiResponse;
+import com.oerms.common.dto.QuestionDTO;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.ServiceException;
+import com.oerms.result.client.QuestionServiceClient;
+import com.oerms.result.dto.DetailedExamReportDTO;
+import com.oerms.result.dto.ExamResultStatisticsDTO;
+import com.oerms.result.dto.QuestionPerformanceDTO;
+import com.oerms.result.dto.ScoreDistributionDTO;
+import com.oerms.result.entity.ExamReportSnapshot;
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ResultStatus;
+import com.oerms.result.mapper.ResultMapper;
+import com.oerms.result.repository.ExamReportSnapshotRepository;
+import com.oerms.result.repository.ResultRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Builds an exam's {@link DetailedExamReportDTO} in one pass over its results and stores it
+ * as a versioned snapshot.
+ * <p>
+ * Like item analysis, changes to an exam's published results mark the exam as pending once
+ * they commit, and the scheduler regenerates the report of pending exams in the background.
+ * Reads return the latest snapshot, generating the first one on demand, and can ask for a
+ * refresh or for one of the few older versions kept.
+ */
+@Service
+@Slf4j
+public class ExamReportService {
+
+    private final ResultRepository resultRepository;
+    private final ExamReportSnapshotRepository snapshotRepository;
+    private final ItemAnalysisService itemAnalysisService;
+    private final QuestionServiceClient questionServiceClient;
+    private final ResultMapper resultMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate newTransaction;
+    private final int listSize;
+    private final int keepVersions;
+    private final Set<UUID> pendingExams = ConcurrentHashMap.newKeySet();
+
+    public ExamReportService(ResultRepository resultRepository,
+                             ExamReportSnapshotRepository snapshotRepository,
+                             ItemAnalysisService itemAnalysisService,
+                             QuestionServiceClient questionServiceClient,
+                             ResultMapper resultMapper,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${result.report.list-size:10}") int listSize,
+                             @Value("${result.report.keep-versions:5}") int keepVersions) {
+        this.resultRepository = resultRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.itemAnalysisService = itemAnalysisService;
+        this.questionServiceClient = questionServiceClient;
+        this.resultMapper = resultMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.listSize = listSize;
+        this.keepVersions = keepVersions;
+    }
+
+    /**
+     * Schedules a fresh report of the exam once the current transaction commits.
+     */
+    public void requestRefresh(UUID examId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingExams.add(examId);
+                }
+            });
+        } else {
+            pendingExams.add(examId);
+        }
+    }
+
+    /**
+     * Returns the requested version of the exam's report, or the latest one when no version is
+     * given, generating it if the exam has none yet.
+     */
+    public DetailedExamReportDTO getReport(UUID examId, Long version) {
+        Optional<ExamReportSnapshot> snapshot = version != null
+                ? snapshotRepository.findByExamIdAndReportVersion(examId, version)
+                : snapshotRepository.findFirstByExamIdOrderByReportVersionDesc(examId);
+        if (snapshot.isPresent()) {
+            return read(snapshot.get());
+        }
+        if (version != null) {
+            throw new ResourceNotFoundException("Report version " + version + " not found for exam: " + examId);
+        }
+        return generate(examId);
+    }
+
+    /**
+     * Builds the exam's report from its results and stores it as the next version.
+     */
+    public DetailedExamReportDTO generate(UUID examId) {
+        long start = System.currentTimeMillis();
+        ExamReportAccumulator accumulator = new ExamReportAccumulator(listSize, resultMapper::toSummaryDTO);
+        Double median = readOnlyTransaction.execute(status -> {
+            try (Stream<Result> results = resultRepository.streamForExport(examId, null)) {
+                results.forEach(result -> {
+                    accumulator.accept(result);
+                    entityManager.detach(result);
+                });
+            }
+            // The median needs ordered values, which the database computes without shipping them here
+            return accumulator.publishedScores().count() > 0
+                    ? resultRepository.getMedianPercentageByExam(examId)
+                    : null;
+        });
+
+        DetailedExamReportDTO report = toReport(examId, accumulator, median);
+        report.setReportVersion(store(examId, report, accumulator.total()));
+        log.info("Report version {} for exam {} covered {} results in {} ms",
+                report.getReportVersion(), examId, accumulator.total(), System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * Regenerates the report of every exam marked pending since the last run.
+     */
+    public void runPending() {
+        Iterator<UUID> iterator = pendingExams.iterator();
+        while (iterator.hasNext()) {
+            UUID examId = iterator.next();
+            iterator.remove();
+            try {
+                generate(examId);
+            } catch (Exception e) {
+                log.error("Report generation failed for exam {}", examId, e);
+            }
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private DetailedExamReportDTO toReport(UUID examId, ExamReportAccumulator accumulator, Double median) {
+        ScoreAccumulator scores = accumulator.publishedScores();
+        long published = accumulator.count(ResultStatus.PUBLISHED);
+
+        ExamResultStatisticsDTO statistics = ExamResultStatisticsDTO.builder()
+                .examId(examId)
+                .examTitle(accumulator.examTitle())
+                .totalResults(accumulator.total())
+                .publishedResults(published)
+                .pendingGrading(accumulator.count(ResultStatus.PENDING_GRADING))
+                .averageScore(scores.averageMarks())
+                .highestScore(scores.maxMarks())
+                .lowestScore(scores.minMarks())
+                .averagePercentage(scores.meanPercentage())
+                .passedCount(scores.passedCount())
+                .failedCount(published - scores.passedCount())
+                .passRate(scores.passRate())
+                .gradeDistribution(scores.gradeCounts())
+                .suspiciousResultsCount(accumulator.suspicious())
+                .build();
+
+        ScoreDistributionDTO distribution = ScoreDistributionDTO.builder()
+                .examId(examId)
+                .scoreRanges(scores.histogram())
+                .median(median != null ? median : 0.0)
+                .standardDeviation(scores.standardDeviation())
+                .build();
+
+        Map<String, Object> additionalMetrics = new LinkedHashMap<>();
+        additionalMetrics.put("draftResults", accumulator.count(ResultStatus.DRAFT));
+        additionalMetrics.put("gradedResults", accumulator.count(ResultStatus.GRADED));
+        additionalMetrics.put("withheldResults", accumulator.count(ResultStatus.WITHHELD));
+        additionalMetrics.put("autoSubmittedResults", accumulator.autoSubmitted());
+        additionalMetrics.put("averageTimeTakenSeconds", accumulator.averageTimeTakenSeconds());
+
+        return DetailedExamReportDTO.builder()
+                .examId(examId)
+                .examTitle(accumulator.examTitle())
+                .examDate(accumulator.firstSubmittedAt())
+                .totalParticipants((int) accumulator.total())
+                .statistics(statistics)
+                .scoreDistribution(distribution)
+                .questionPerformances(questionPerformances(examId))
+                .topScorers(accumulator.topScorers())
+                .needsAttention(accumulator.needsAttention())
+                .additionalMetrics(additionalMetrics)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private List<QuestionPerformanceDTO> questionPerformances(UUID examId) {
+        ItemAnalysisReport analysis = itemAnalysisService.getFreshReport(examId);
+        Map<UUID, String> questionTexts = fetchQuestionTexts(analysis.items().stream()
+                .map(ItemAnalysisReport.Item::questionId)
+                .toList());
+
+        return analysis.items().stream()
+                .map(item -> QuestionPerformanceDTO.builder()
+                        .questionId(item.questionId())
+                        .questionText(questionTexts.get(item.questionId()))
+                        .totalAttempts(item.responses())
+                        .correctAnswers(item.correct())
+                        .accuracyRate(item.difficultyIndex() * 100)
+                        .difficulty(observedDifficulty(item.difficultyIndex()))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Question texts are a nicety; the report is still built when question-service is down.
+     */
+    private Map<UUID, String> fetchQuestionTexts(List<UUID> questionIds) {
+        Map<UUID, String> texts = new HashMap<>();
+        if (questionIds.isEmpty()) {
+            return texts;
+        }
+        try {
+            ApiResponse<List<QuestionDTO>> response = questionServiceClient.getQuestionsForGrading(questionIds);
+            if (response != null && response.isSuccess() && response.getData() != null) {
+                response.getData().forEach(question -> texts.put(question.getId(), question.getQuestionText()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not fetch question texts for report: {}", e.getMessage());
+        }
+        return texts;
+    }
+
+    private static String observedDifficulty(double difficultyIndex) {
+        if (difficultyIndex >= 0.7) return "EASY";
+        if (difficultyIndex >= 0.4) return "MEDIUM";
+        return "HARD";
+    }
+
+    /**
+     * Stores the report under the next version and prunes old versions. A concurrent
+     * generation on another instance may take the same version, in which case the next one
+     * is used.
+     */
+    private long store(UUID examId, DetailedExamReportDTO report, long resultCount) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Failed to serialize report for exam " + examId, e);
+        }
+        try {
+            return storeNextVersion(examId, report, json, resultCount);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Report version for exam {} taken concurrently, retrying", examId);
+            return storeNextVersion(examId, report, json, resultCount);
+        }
+    }
+
+    private long storeNextVersion(UUID examId, DetailedExamReportDTO report, String json, long resultCount) {
+        Long version = newTransaction.execute(status -> {
+            long next = snapshotRepository.findLatestVersion(examId) + 1;
+            snapshotRepository.saveAndFlush(ExamReportSnapshot.builder()
+                    .examId(examId)
+                    .reportVersion(next)
+                    .generatedAt(report.getGeneratedAt())
+                    .resultCount(resultCount)
+                    .report(json)
+                    .build());
+            if (next > keepVersions) {
+                snapshotRepository.deleteVersionsUpTo(examId, next - keepVersions);
+            }
+            return next;
+        });
+        return version != null ? version : 0L;
+    }
+
+    private DetailedExamReportDTO read(ExamReportSnapshot snapshot) {
+        try {
+            DetailedExamReportDTO report = objectMapper.readValue(snapshot.getReport(), DetailedExamReportDTO.class);
+            report.setReportVersion(snapshot.getReportVersion());
+            return report;
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Stored report of exam " + snapshot.getExamId() + " is unreadable", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.oerms.result.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oerms.result.entity.ExamResultStats;
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ResultStatus;
+import com.oerms.result.repository.ExamResultStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Maintains the {@code exam_result_stats} projection. Callers describe each change to a result
+ * as a before and after {@link Snapshot}; the difference is applied to the exam's row with one
+ * upsert in the caller's transaction, so the projection commits or rolls back with the change.
+ * <p>
+ * An exam without a row is built from {@code results} on its first change instead, which also
+ * covers exams whose results predate the projection. Building takes a per-exam advisory lock,
+ * so a concurrent first change waits for the row and then applies its delta to it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExamResultStatsProjection {
+
+    private final ExamResultStatsRepository statsRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The fields of a result the projection depends on, captured before a change.
+     */
+    public record Snapshot(UUID examId, ResultStatus status, double obtainedMarks, double percentage,
+                           String grade, boolean passed, boolean suspicious) {
+
+        public static Snapshot of(Result result) {
+            return new Snapshot(
+                    result.getExamId(),
+                    result.getStatus(),
+                    result.getObtainedMarks() != null ? result.getObtainedMarks() : 0.0,
+                    result.getPercentage() != null ? result.getPercentage() : 0.0,
+                    result.getGrade(),
+                    Boolean.TRUE.equals(result.getPassed()),
+                    Boolean.TRUE.equals(result.getSuspiciousActivity()));
+        }
+
+        boolean published() {
+            return status == ResultStatus.PUBLISHED;
+        }
+    }
+
+    public Optional<ExamResultStats> find(UUID examId) {
+        return statsRepository.findById(examId);
+    }
+
+    public void recordCreated(Result result) {
+        recordChange(null, Snapshot.of(result));
+    }
+
+    /**
+     * Records results of one exam created together as a single delta.
+     */
+    public void recordCreated(UUID examId, Collection<Result> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        Delta delta = new Delta();
+        for (Result result : results) {
+            delta.add(Snapshot.of(result), 1);
+        }
+        apply(examId, delta);
+    }
+
+    public void recordChanged(Snapshot before, Result after) {
+        recordChange(before, Snapshot.of(after));
+    }
+
+    public void recordDeleted(Result result) {
+        recordChange(Snapshot.of(result), null);
+    }
+
+    /**
+     * Recomputes one exam's row from {@code results}.
+     */
+    @Transactional
+    public void rebuild(UUID examId) {
+        statsRepository.lockExam(examId);
+        statsRepository.deleteForExam(examId);
+        statsRepository.rebuildForExam(examId);
+        log.info("Rebuilt result statistics for exam {}", examId);
+    }
+
+    /**
+     * Recomputes every exam's row from {@code results}.
+     *
+     * @return number of exams with statistics
+     */
+    @Transactional
+    public int rebuildAll() {
+        statsRepository.deleteAllStats();
+        int exams = statsRepository.rebuildAll();
+        log.info("Rebuilt result statistics for {} exams", exams);
+        return exams;
+    }
+
+    // ==================== Internals ====================
+
+    private void recordChange(Snapshot before, Snapshot after) {
+        Delta delta = new Delta();
+        if (before != null) {
+            delta.add(before, -1);
+        }
+        if (after != null) {
+            delta.add(after, 1);
+        }
+        apply(before != null ? before.examId() : after.examId(), delta);
+    }
+
+    private void apply(UUID examId, Delta delta) {
+        if (!statsRepository.existsById(examId)) {
+            statsRepository.lockExam(examId);
+            // Re-checked under the lock: a transaction that held it may have committed the row
+            if (!statsRepository.existsById(examId)) {
+                // The change is already flushed into results, so the rebuild includes it
+                statsRepository.rebuildForExam(examId);
+                return;
+            }
+        }
+        statsRepository.applyDelta(examId, delta.total, delta.draft, delta.pendingGrading, delta.graded,
+                delta.published, delta.withheld, delta.suspicious, delta.passed,
+                delta.marksSum, delta.marksSumSquares, delta.percentageSum, delta.percentageSumSquares,
+                delta.hasAddedScores(), delta.highest, delta.lowest, toJson(delta.gradeCounts));
+        if (delta.removedPublished) {
+            statsRepository.refreshExtremes(examId);
+        }
+    }
+
+    private String toJson(Map<String, Long> gradeCounts) {
+        try {
+            return objectMapper.writeValueAsString(gradeCounts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize grade counts", e);
+        }
+    }
+
+    private static final class Delta {
+        long total;
+        long draft;
+        long pendingGrading;
+        long graded;
+        long published;
+        long withheld;
+        long suspicious;
+        long passed;
+        double marksSum;
+        double marksSumSquares;
+        double percentageSum;
+        double percentageSumSquares;
+        double highest = Double.NEGATIVE_INFINITY;
+        double lowest = Double.POSITIVE_INFINITY;
+        boolean removedPublished;
+        final Map<String, Long> gradeCounts = new HashMap<>();
+
+        void add(Snapshot snapshot, int sign) {
+            total += sign;
+            if (snapshot.suspicious()) {
+                suspicious += sign;
+            }
+            switch (snapshot.status()) {
+                case DRAFT -> draft += sign;
+                case PENDING_GRADING -> pendingGrading += sign;
+                case GRADED -> graded += sign;
+                case PUBLISHED -> published += sign;
+                case WITHHELD -> withheld += sign;
+            }
+            if (!snapshot.published()) {
+                return;
+            }
+
+            double marks = snapshot.obtainedMarks();
+            double percentage = snapshot.percentage();
+            marksSum += sign * marks;
+            marksSumSquares += sign * marks * marks;
+            percentageSum += sign * percentage;
+            percentageSumSquares += sign * percentage * percentage;
+            if (snapshot.passed()) {
+                passed += sign;
+            }
+            if (snapshot.grade() != null) {
+                gradeCounts.merge(snapshot.grade(), (long) sign, Long::sum);
+            }
+            if (sign > 0) {
+                highest = Math.max(highest, marks);
+                lowest = Math.min(lowest, marks);
+            } else {
+                removedPublished = true;
+            }
+        }
+
+        boolean hasAddedScores() {
+            return highest != Double.NEGATIVE_INFINITY;
+        }
+    }
+}
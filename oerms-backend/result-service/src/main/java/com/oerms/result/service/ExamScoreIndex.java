@@ -0,0 +1,333 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ResultStatus;
+import com.oerms.result.repository.ResultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Per-exam sorted index of published scores kept in Redis sorted sets, one scored by obtained
+ * marks and one by percentage, with the result id as member.
+ * <p>
+ * An index is built from the database on first use and whenever the exam is re-ranked, and is
+ * kept current by single-result changes after their transaction commits; keys do not expire.
+ * Rebuilds are single-flight across instances through a short-lived Redis lock, and results
+ * changed while a rebuild is running are recorded and re-applied once the new index is in place.
+ * Nothing waits for the lock: a read of an index being built fails with a
+ * {@link DataAccessException}, which callers answer from the database, and a rebuild requested
+ * while another runs is left to the running one.
+ */
+@Component
+@Slf4j
+public class ExamScoreIndex {
+
+    private static final String KEY_PREFIX = "result:score-index:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ResultRepository resultRepository;
+    private final Duration lockTimeout;
+
+    public ExamScoreIndex(StringRedisTemplate redisTemplate,
+                          ResultRepository resultRepository,
+                          @Value("${result.score-index.rebuild-lock-seconds:30}") long lockSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.resultRepository = resultRepository;
+        this.lockTimeout = Duration.ofSeconds(lockSeconds);
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * @return number of published results scoring strictly below {@code obtainedMarks}
+     */
+    public long countBelow(UUID examId, double obtainedMarks) {
+        ensureBuilt(examId);
+        Long count = redisTemplate.opsForZSet().count(marksKey(examId), Double.NEGATIVE_INFINITY,
+                Math.nextDown(obtainedMarks));
+        return count != null ? count : 0L;
+    }
+
+    public long size(UUID examId) {
+        ensureBuilt(examId);
+        Long size = redisTemplate.opsForZSet().zCard(marksKey(examId));
+        return size != null ? size : 0L;
+    }
+
+    /**
+     * @return ids of the highest scoring published results, best first
+     */
+    public List<UUID> top(UUID examId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        ensureBuilt(examId);
+        return toIds(redisTemplate.opsForZSet().reverseRange(marksKey(examId), 0, limit - 1L));
+    }
+
+    /**
+     * @return ids of published results below the percentage threshold, lowest first
+     */
+    public List<UUID> belowPercentage(UUID examId, double thresholdPercentage) {
+        ensureBuilt(examId);
+        return toIds(redisTemplate.opsForZSet().rangeByScore(percentageKey(examId),
+                Double.NEGATIVE_INFINITY, Math.nextDown(thresholdPercentage)));
+    }
+
+    // ==================== Maintenance ====================
+
+    /**
+     * Reflects a single result's current state in its exam's index once the surrounding
+     * transaction commits: published results are added or re-scored, others removed.
+     */
+    public void update(Result result) {
+        UUID examId = result.getExamId();
+        UUID resultId = result.getId();
+        boolean published = result.getStatus() == ResultStatus.PUBLISHED;
+        double marks = result.getObtainedMarks() != null ? result.getObtainedMarks() : 0.0;
+        double percentage = result.getPercentage() != null ? result.getPercentage() : 0.0;
+
+        afterCommit(() -> {
+            markChangedDuringRebuild(examId, resultId);
+            if (!isBuilt(examId)) {
+                // Not built yet; the first read builds it from the database
+                return;
+            }
+            if (published) {
+                apply(examId, resultId, marks, percentage);
+            } else {
+                evict(examId, resultId);
+            }
+        });
+    }
+
+    public void remove(UUID examId, UUID resultId) {
+        afterCommit(() -> {
+            markChangedDuringRebuild(examId, resultId);
+            evict(examId, resultId);
+        });
+    }
+
+    public void rebuildAfterCommit(UUID examId) {
+        afterCommit(() -> rebuild(examId));
+    }
+
+    /**
+     * Rebuilds the exam's index from its published results. When a rebuild is already running,
+     * here or elsewhere, it is marked stale and its holder rebuilds again once done.
+     */
+    public void rebuild(UUID examId) {
+        redisTemplate.opsForValue().set(staleKey(examId), "1", lockTimeout.multipliedBy(2));
+        rebuildWhileStale(examId);
+    }
+
+    // ==================== Internals ====================
+
+    /**
+     * Builds a missing index once: concurrent readers, here or on other instances, fall back to
+     * the database while the rebuild holding the lock runs instead of starting their own.
+     */
+    private void ensureBuilt(UUID examId) {
+        if (isBuilt(examId)) {
+            return;
+        }
+        String token = tryAcquireRebuildLock(examId);
+        if (token == null) {
+            throw new TransientDataAccessResourceException("Score index of exam " + examId + " is being built");
+        }
+        try {
+            if (!isBuilt(examId)) {
+                rebuildLocked(examId);
+            }
+        } finally {
+            releaseRebuildLock(examId, token);
+        }
+        replayChanged(examId);
+        rebuildWhileStale(examId);
+    }
+
+    /**
+     * Rebuilds until no rebuild request is pending. Gives up when another holder has the lock,
+     * as every holder checks for requests again after releasing it.
+     */
+    private void rebuildWhileStale(UUID examId) {
+        while (Boolean.TRUE.equals(redisTemplate.hasKey(staleKey(examId)))) {
+            String token = tryAcquireRebuildLock(examId);
+            if (token == null) {
+                return;
+            }
+            try {
+                while (Boolean.TRUE.equals(redisTemplate.delete(staleKey(examId)))) {
+                    rebuildLocked(examId);
+                }
+            } finally {
+                releaseRebuildLock(examId, token);
+            }
+            replayChanged(examId);
+        }
+    }
+
+    /**
+     * Writes the index from the database under temporary keys and renames them into place so
+     * that readers never see a partial index. An exam without published results gets empty
+     * marker-only sets so that it is not rebuilt on every read.
+     */
+    private void rebuildLocked(UUID examId) {
+        List<Object[]> rows = resultRepository.findPublishedScores(examId);
+        String marksKey = marksKey(examId);
+        String percentageKey = percentageKey(examId);
+
+        String suffix = ":" + UUID.randomUUID();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.set(builtKey(examId) + suffix, "1");
+            for (Object[] row : rows) {
+                String member = row[0].toString();
+                redis.zAdd(marksKey + suffix, toDouble(row[1]), member);
+                redis.zAdd(percentageKey + suffix, toDouble(row[2]), member);
+            }
+            if (rows.isEmpty()) {
+                redis.del(percentageKey, marksKey);
+            } else {
+                redis.rename(percentageKey + suffix, percentageKey);
+                redis.rename(marksKey + suffix, marksKey);
+            }
+            redis.rename(builtKey(examId) + suffix, builtKey(examId));
+            return null;
+        });
+        log.debug("Rebuilt score index for exam {} with {} published results", examId, rows.size());
+    }
+
+    /**
+     * Re-applies results that changed while a rebuild was reading the database, so that the
+     * renamed index does not lose them.
+     */
+    private void replayChanged(UUID examId) {
+        String changedKey = changedKey(examId);
+        List<String> members = redisTemplate.opsForSet().pop(changedKey, Long.MAX_VALUE);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        Set<UUID> pending = new HashSet<>(toIds(new HashSet<>(members)));
+        for (Result result : resultRepository.findAllById(pending)) {
+            pending.remove(result.getId());
+            if (result.getStatus() == ResultStatus.PUBLISHED) {
+                apply(examId, result.getId(),
+                        result.getObtainedMarks() != null ? result.getObtainedMarks() : 0.0,
+                        result.getPercentage() != null ? result.getPercentage() : 0.0);
+            } else {
+                evict(examId, result.getId());
+            }
+        }
+        // Deleted since the change was recorded
+        pending.forEach(resultId -> evict(examId, resultId));
+    }
+
+    private void markChangedDuringRebuild(UUID examId, UUID resultId) {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(lockKey(examId)))) {
+            redisTemplate.opsForSet().add(changedKey(examId), resultId.toString());
+            redisTemplate.expire(changedKey(examId), lockTimeout.multipliedBy(2));
+        }
+    }
+
+    /**
+     * @return the lock token, or {@code null} when another rebuild holds the lock; a holder that
+     * died without releasing it blocks rebuilds until the lock expires
+     */
+    private String tryAcquireRebuildLock(UUID examId) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey(examId), token, lockTimeout))
+                ? token
+                : null;
+    }
+
+    private void releaseRebuildLock(UUID examId, String token) {
+        if (token != null && token.equals(redisTemplate.opsForValue().get(lockKey(examId)))) {
+            redisTemplate.delete(lockKey(examId));
+        }
+    }
+
+    private boolean isBuilt(UUID examId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(builtKey(examId)));
+    }
+
+    private void apply(UUID examId, UUID resultId, double marks, double percentage) {
+        redisTemplate.opsForZSet().add(marksKey(examId), resultId.toString(), marks);
+        redisTemplate.opsForZSet().add(percentageKey(examId), resultId.toString(), percentage);
+    }
+
+    private void evict(UUID examId, UUID resultId) {
+        redisTemplate.opsForZSet().remove(marksKey(examId), resultId.toString());
+        redisTemplate.opsForZSet().remove(percentageKey(examId), resultId.toString());
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable guarded = () -> {
+            try {
+                action.run();
+            } catch (DataAccessException e) {
+                log.warn("Failed to update score index: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+
+    private static List<UUID> toIds(Set<String> members) {
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UUID> ids = new ArrayList<>(members.size());
+        for (String member : members) {
+            ids.add(UUID.fromString(member));
+        }
+        return ids;
+    }
+
+    private static double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static String marksKey(UUID examId) {
+        return KEY_PREFIX + examId + ":marks";
+    }
+
+    private static String percentageKey(UUID examId) {
+        return KEY_PREFIX + examId + ":percentage";
+    }
+
+    private static String builtKey(UUID examId) {
+        return KEY_PREFIX + examId + ":built";
+    }
+
+    private static String lockKey(UUID examId) {
+        return KEY_PREFIX + examId + ":lock";
+    }
+
+    private static String changedKey(UUID examId) {
+        return KEY_PREFIX + examId + ":changed";
+    }
+
+    private static String staleKey(UUID examId) {
+        return KEY_PREFIX + examId + ":stale";
+    }
+}
@@ -0,0 +1,98 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ExportFormat;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes .xlsx through a streaming workbook that keeps only the last rows of the sheet in
+ * memory and flushes older ones to a compressed temporary file.
+ */
+@Component
+public class ExcelResultExportWriter implements ResultExportWriter {
+
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    private final int rowWindow;
+
+    public ExcelResultExportWriter(@Value("${result.export.excel-row-window:100}") int rowWindow) {
+        this.rowWindow = rowWindow;
+    }
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.EXCEL;
+    }
+
+    @Override
+    public String contentType() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public RowSink open(OutputStream out, String title) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        SXSSFSheet sheet = workbook.createSheet(sheetName(title));
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        CellStyle headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < ResultExportColumns.HEADERS.size(); i++) {
+            header.createCell(i).setCellValue(ResultExportColumns.HEADERS.get(i));
+            header.getCell(i).setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+
+        return new RowSink() {
+            private int rowIndex = 1;
+
+            @Override
+            public void write(Result result) {
+                Row row = sheet.createRow(rowIndex++);
+                Object[] values = ResultExportColumns.values(result);
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] instanceof Number number) {
+                        row.createCell(i).setCellValue(number.doubleValue());
+                    } else if (values[i] != null) {
+                        row.createCell(i).setCellValue(values[i].toString());
+                    }
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    workbook.write(out);
+                } finally {
+                    workbook.dispose();
+                    workbook.close();
+                }
+            }
+        };
+    }
+
+    private static String sheetName(String title) {
+        String name = title.replaceAll("[\\\\/?*\\[\\]:]", " ").trim();
+        if (name.isEmpty()) {
+            return "Results";
+        }
+        return name.length() > MAX_SHEET_NAME_LENGTH ? name.substring(0, MAX_SHEET_NAME_LENGTH) : name;
+    }
+}
@@ -0,0 +1,129 @@
+package com.oerms.result.service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Per-question accumulators for classical item analysis, filled one item outcome at a time
+ * and held in parallel primitive arrays indexed by the order questions are first seen.
+ * <p>
+ * Each outcome carries its result's total marks and whether that result is in the upper or
+ * lower 27% group, which is all the P-value, discrimination index and point-biserial
+ * correlation need. Instances are not thread-safe.
+ */
+public final class ItemAnalysisAccumulator {
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] questionIds = new UUID[16];
+    private int[] responses = new int[16];
+    private int[] correct = new int[16];
+    private double[] totalSum = new double[16];
+    private double[] totalSumSquares = new double[16];
+    private double[] correctTotalSum = new double[16];
+    private int[] upperResponses = new int[16];
+    private int[] upperCorrect = new int[16];
+    private int[] lowerResponses = new int[16];
+    private int[] lowerCorrect = new int[16];
+
+    /**
+     * @param scoreGroup 1 for the upper group, -1 for the lower group, 0 otherwise
+     */
+    public void accept(UUID questionId, boolean isCorrect, double resultTotal, int scoreGroup) {
+        int i = slotOf(questionId);
+        responses[i]++;
+        totalSum[i] += resultTotal;
+        totalSumSquares[i] += resultTotal * resultTotal;
+        if (isCorrect) {
+            correct[i]++;
+            correctTotalSum[i] += resultTotal;
+        }
+        if (scoreGroup > 0) {
+            upperResponses[i]++;
+            if (isCorrect) {
+                upperCorrect[i]++;
+            }
+        } else if (scoreGroup < 0) {
+            lowerResponses[i]++;
+            if (isCorrect) {
+                lowerCorrect[i]++;
+            }
+        }
+    }
+
+    public ItemAnalysisReport toReport(UUID examId) {
+        List<ItemAnalysisReport.Item> items = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            items.add(new ItemAnalysisReport.Item(
+                    questionIds[i],
+                    responses[i],
+                    correct[i],
+                    (double) correct[i] / responses[i],
+                    discrimination(i),
+                    pointBiserial(i),
+                    upperResponses[i],
+                    upperCorrect[i],
+                    lowerResponses[i],
+                    lowerCorrect[i]));
+        }
+        return new ItemAnalysisReport(examId, LocalDateTime.now(), items);
+    }
+
+    // ==================== Internals ====================
+
+    private Double discrimination(int i) {
+        if (upperResponses[i] == 0 || lowerResponses[i] == 0) {
+            return null;
+        }
+        return (double) upperCorrect[i] / upperResponses[i] - (double) lowerCorrect[i] / lowerResponses[i];
+    }
+
+    /**
+     * (M1 - M0) / s * sqrt(pq), where M1 and M0 are the mean totals of results that got the
+     * item right and wrong and s is the population deviation of totals. Undefined when every
+     * or no result got the item right, or when all totals are equal.
+     */
+    private Double pointBiserial(int i) {
+        int n = responses[i];
+        int c = correct[i];
+        if (c == 0 || c == n) {
+            return null;
+        }
+        double mean = totalSum[i] / n;
+        double variance = totalSumSquares[i] / n - mean * mean;
+        if (variance <= 0) {
+            return null;
+        }
+        double p = (double) c / n;
+        double meanCorrect = correctTotalSum[i] / c;
+        double meanIncorrect = (totalSum[i] - correctTotalSum[i]) / (n - c);
+        return (meanCorrect - meanIncorrect) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+    }
+
+    private int slotOf(UUID questionId) {
+        Integer slot = slots.get(questionId);
+        if (slot != null) {
+            return slot;
+        }
+        int i = slots.size();
+        if (i == questionIds.length) {
+            grow();
+        }
+        slots.put(questionId, i);
+        questionIds[i] = questionId;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = questionIds.length * 2;
+        questionIds = Arrays.copyOf(questionIds, capacity);
+        responses = Arrays.copyOf(responses, capacity);
+        correct = Arrays.copyOf(correct, capacity);
+        totalSum = Arrays.copyOf(totalSum, capacity);
+        totalSumSquares = Arrays.copyOf(totalSumSquares, capacity);
+        correctTotalSum = Arrays.copyOf(correctTotalSum, capacity);
+        upperResponses = Arrays.copyOf(upperResponses, capacity);
+        upperCorrect = Arrays.copyOf(upperCorrect, capacity);
+        lowerResponses = Arrays.copyOf(lowerResponses, capacity);
+        lowerCorrect = Arrays.copyOf(lowerCorrect, capacity);
+    }
+}
@@ -0,0 +1,24 @@
+package com.oerms.result.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cached outcome of an exam's item analysis. Statistics that are undefined for an item,
+ * such as the point-biserial of a question everyone answered correctly, are null.
+ */
+public record ItemAnalysisReport(UUID examId, LocalDateTime computedAt, List<Item> items) {
+
+    public record Item(UUID questionId,
+                       int responses,
+                       int correct,
+                       double difficultyIndex,
+                       Double discriminationIndex,
+                       Double pointBiserial,
+                       int upperGroupSize,
+                       int upperGroupCorrect,
+                       int lowerGroupSize,
+                       int lowerGroupCorrect) {
+    }
+}
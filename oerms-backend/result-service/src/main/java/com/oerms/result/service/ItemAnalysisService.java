@@ -0,0 +1,136 @@
+package com.oerms.result.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oerms.result.repository.ResultItemScoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes item statistics for an exam in one pass over its stored item outcomes and caches
+ * the report in Redis.
+ * <p>
+ * Changes to an exam's published results only mark the exam as pending once they commit; the
+ * scheduler drains pending exams in the background, so a burst of publications for one exam
+ * costs a single analysis. Reads fall back to computing the report on demand when the cache
+ * holds none.
+ */
+@Service
+@Slf4j
+public class ItemAnalysisService {
+
+    private static final String KEY_PREFIX = "result:item-analysis:";
+
+    private final ResultItemScoreRepository itemScoreRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration cacheTtl;
+    private final Set<UUID> pendingExams = ConcurrentHashMap.newKeySet();
+
+    public ItemAnalysisService(ResultItemScoreRepository itemScoreRepository,
+                               StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${result.item-analysis.cache-ttl-hours:24}") long cacheTtlHours) {
+        this.itemScoreRepository = itemScoreRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cacheTtl = Duration.ofHours(cacheTtlHours);
+    }
+
+    /**
+     * Schedules a fresh analysis of the exam once the current transaction commits.
+     */
+    public void requestAnalysis(UUID examId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingExams.add(examId);
+                }
+            });
+        } else {
+            pendingExams.add(examId);
+        }
+    }
+
+    public ItemAnalysisReport getReport(UUID examId) {
+        ItemAnalysisReport cached = readCached(examId);
+        return cached != null ? cached : analyze(examId);
+    }
+
+    /**
+     * Like {@link #getReport}, but runs a pending analysis of the exam now instead of returning
+     * the report it would replace.
+     */
+    public ItemAnalysisReport getFreshReport(UUID examId) {
+        return pendingExams.remove(examId) ? analyze(examId) : getReport(examId);
+    }
+
+    /**
+     * Analyses the exam from its item outcomes and replaces the cached report.
+     */
+    public ItemAnalysisReport analyze(UUID examId) {
+        long start = System.currentTimeMillis();
+        ItemAnalysisAccumulator accumulator = new ItemAnalysisAccumulator();
+        readOnlyTransaction.executeWithoutResult(status ->
+                itemScoreRepository.streamItemAnalysisRows(examId, accumulator::accept));
+        ItemAnalysisReport report = accumulator.toReport(examId);
+
+        writeCached(report);
+        log.info("Item analysis for exam {} covered {} questions in {} ms",
+                examId, report.items().size(), System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * Analyses every exam marked pending since the last run.
+     */
+    public void runPending() {
+        Iterator<UUID> iterator = pendingExams.iterator();
+        while (iterator.hasNext()) {
+            UUID examId = iterator.next();
+            iterator.remove();
+            try {
+                analyze(examId);
+            } catch (Exception e) {
+                log.error("Item analysis failed for exam {}", examId, e);
+            }
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private ItemAnalysisReport readCached(UUID examId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + examId);
+            return json != null ? objectMapper.readValue(json, ItemAnalysisReport.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not read cached item analysis for exam {}: {}", examId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCached(ItemAnalysisReport report) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + report.examId(),
+                    objectMapper.writeValueAsString(report), cacheTtl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not cache item analysis for exam {}: {}", report.examId(), e.getMessage());
+        }
+    }
+}
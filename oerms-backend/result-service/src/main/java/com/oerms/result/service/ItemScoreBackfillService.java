@@ -0,0 +1,81 @@
+package com.oerms.result.service;
+
+import com.oerms.common.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the item scores of results graded before they were stored, so that item analysis,
+ * exam reports and performance matrices cover those results too.
+ * <p>
+ * The backfill walks the results without item scores in id order, one chunk at a time, and
+ * regrades each chunk's answers through {@link ResultService#backfillItemScores}. Only one
+ * backfill runs at a time; a result whose answers could not be fetched is picked up again by
+ * the next backfill.
+ */
+@Service
+@Slf4j
+public class ItemScoreBackfillService {
+
+    private final ResultService resultService;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+    private final int chunkSize;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    public ItemScoreBackfillService(ResultService resultService,
+                                    @Value("${result.item-analysis.backfill-chunk-size:200}") int chunkSize) {
+        this.resultService = resultService;
+        this.chunkSize = chunkSize;
+
+        this.backfillExecutor = new ThreadPoolTaskExecutor();
+        this.backfillExecutor.setCorePoolSize(1);
+        this.backfillExecutor.setMaxPoolSize(1);
+        this.backfillExecutor.setThreadNamePrefix("result-item-backfill-");
+        this.backfillExecutor.initialize();
+    }
+
+    /**
+     * Starts the backfill in the background.
+     */
+    public void startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new BadRequestException("An item score backfill is already running");
+        }
+        try {
+            backfillExecutor.execute(this::runBackfill);
+        } catch (RuntimeException e) {
+            backfillRunning.set(false);
+            throw e;
+        }
+        log.info("Item score backfill started in chunks of {} results", chunkSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdown();
+    }
+
+    // ==================== Internals ====================
+
+    private void runBackfill() {
+        long start = System.currentTimeMillis();
+        int chunks = 0;
+        UUID after = new UUID(0L, 0L);
+        try {
+            while ((after = resultService.backfillItemScores(after, chunkSize)) != null) {
+                chunks++;
+            }
+            log.info("Item score backfill finished {} chunks in {} ms", chunks, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Item score backfill failed after {} chunks: {}", chunks, e.getMessage(), e);
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+}
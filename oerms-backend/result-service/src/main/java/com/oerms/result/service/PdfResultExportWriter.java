@@ -0,0 +1,106 @@
+package com.oerms.result.service;
+
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ExportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a landscape PDF table. The table is marked incomplete and added to the document
+ * every few hundred rows, which lays out and writes the finished rows and frees them.
+ */
+@Component
+public class PdfResultExportWriter implements ResultExportWriter {
+
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 7);
+    private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 7);
+    private static final Color HEADER_BACKGROUND = new Color(230, 230, 230);
+
+    private final int flushRows;
+
+    public PdfResultExportWriter(@Value("${result.export.pdf-flush-rows:200}") int flushRows) {
+        this.flushRows = flushRows;
+    }
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.PDF;
+    }
+
+    @Override
+    public String contentType() {
+        return "application/pdf";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "pdf";
+    }
+
+    @Override
+    public RowSink open(OutputStream out, String title) throws IOException {
+        Document document = new Document(PageSize.A4.rotate(), 20, 20, 20, 20);
+        PdfWriter writer;
+        try {
+            writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+            document.add(new Paragraph(title, TITLE_FONT));
+        } catch (DocumentException e) {
+            throw new IOException("Failed to start PDF export", e);
+        }
+
+        PdfPTable table = new PdfPTable(ResultExportColumns.HEADERS.size());
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        for (String heading : ResultExportColumns.HEADERS) {
+            PdfPCell cell = new PdfPCell(new Phrase(heading, HEADER_FONT));
+            cell.setBackgroundColor(HEADER_BACKGROUND);
+            table.addCell(cell);
+        }
+
+        return new RowSink() {
+            private int pendingRows;
+
+            @Override
+            public void write(Result result) throws IOException {
+                for (Object value : ResultExportColumns.values(result)) {
+                    table.addCell(new Phrase(value != null ? value.toString() : "", CELL_FONT));
+                }
+                if (++pendingRows >= flushRows) {
+                    addTable();
+                    pendingRows = 0;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                table.setComplete(true);
+                try {
+                    addTable();
+                } finally {
+                    document.close();
+                }
+            }
+
+            private void addTable() throws IOException {
+                try {
+                    document.add(table);
+                } catch (DocumentException e) {
+                    throw new IOException("Failed to write PDF export", e);
+                }
+            }
+        };
+    }
+}
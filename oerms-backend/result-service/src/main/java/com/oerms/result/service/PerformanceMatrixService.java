@@ -0,0 +1,240 @@
+package com.oerms.result.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oerms.common.dto.ExamDTO;
+import com.oerms.common.dto.QuestionDTO;
+import com.oerms.result.dto.PerformanceMatrixDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Topic and difficulty accuracy of an exam's whole cohort.
+ * <p>
+ * Response and correct counts per question come from the exam's item analysis, which is built
+ * from the stored item outcomes of its published results, and each question's topic and
+ * difficulty from the cached {@link AnswerKey}, so no result, attempt or question is fetched
+ * per student. Questions are folded into per-bucket counters by a fork-join task. The matrix is
+ * cached in Redis and reused for as long as the item analysis it was built from is current.
+ */
+@Service
+@Slf4j
+public class PerformanceMatrixService {
+
+    private static final String KEY_PREFIX = "result:performance-matrix:";
+    private static final String UNSPECIFIED = "UNSPECIFIED";
+    /** Questions a fork-join leaf counts without splitting further */
+    private static final int LEAF_SIZE = 256;
+
+    private final ItemAnalysisService itemAnalysisService;
+    private final AnswerKeyCache answerKeyCache;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration cacheTtl;
+
+    public PerformanceMatrixService(ItemAnalysisService itemAnalysisService,
+                                    AnswerKeyCache answerKeyCache,
+                                    StringRedisTemplate redisTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${result.performance-matrix.cache-ttl-minutes:60}") long cacheTtlMinutes) {
+        this.itemAnalysisService = itemAnalysisService;
+        this.answerKeyCache = answerKeyCache;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.cacheTtl = Duration.ofMinutes(cacheTtlMinutes);
+    }
+
+    /**
+     * Cached matrix together with the item analysis it was built from.
+     */
+    public record CachedMatrix(LocalDateTime analysisComputedAt, PerformanceMatrixDTO matrix) {
+    }
+
+    /**
+     * Returns the exam's matrix, rebuilding it when the item analysis has moved on or when asked
+     * to, in which case the item analysis is recomputed as well.
+     *
+     * @param questionLoader loads the questions the answer key cache does not hold yet
+     */
+    public PerformanceMatrixDTO getMatrix(ExamDTO exam, boolean refresh,
+                                          Function<Collection<UUID>, List<QuestionDTO>> questionLoader) {
+        UUID examId = exam.getId();
+        ItemAnalysisReport analysis = refresh
+                ? itemAnalysisService.analyze(examId)
+                : itemAnalysisService.getFreshReport(examId);
+        if (!refresh) {
+            CachedMatrix cached = readCached(examId);
+            if (cached != null && Objects.equals(cached.analysisComputedAt(), analysis.computedAt())) {
+                return cached.matrix();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        PerformanceMatrixDTO matrix = build(exam, analysis, questionLoader);
+        writeCached(examId, new CachedMatrix(analysis.computedAt(), matrix));
+        log.info("Performance matrix for exam {} covered {} questions in {} ms",
+                examId, analysis.items().size(), System.currentTimeMillis() - start);
+        return matrix;
+    }
+
+    // ==================== Internals ====================
+
+    private PerformanceMatrixDTO build(ExamDTO exam, ItemAnalysisReport analysis,
+                                       Function<Collection<UUID>, List<QuestionDTO>> questionLoader) {
+        List<ItemAnalysisReport.Item> items = analysis.items();
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(exam,
+                items.stream().map(ItemAnalysisReport.Item::questionId).toList(), questionLoader);
+
+        // Buckets are numbered up front so that the leaves count into plain arrays
+        int size = items.size();
+        Map<String, Integer> topicIds = new LinkedHashMap<>();
+        Map<String, Integer> difficultyIds = new LinkedHashMap<>();
+        int[] topicOf = new int[size];
+        int[] difficultyOf = new int[size];
+        double[] accuracy = new double[size];
+        for (int i = 0; i < size; i++) {
+            ItemAnalysisReport.Item item = items.get(i);
+            int index = answerKey.indexOf(item.questionId());
+            String topic = index >= 0 && StringUtils.hasText(answerKey.topic(index))
+                    ? answerKey.topic(index).trim() : UNSPECIFIED;
+            String difficulty = index >= 0 && StringUtils.hasText(answerKey.difficulty(index))
+                    ? answerKey.difficulty(index).trim().toUpperCase() : UNSPECIFIED;
+            topicOf[i] = topicIds.computeIfAbsent(topic, t -> topicIds.size());
+            difficultyOf[i] = difficultyIds.computeIfAbsent(difficulty, d -> difficultyIds.size());
+            accuracy[i] = item.responses() > 0 ? (double) item.correct() * 100 / item.responses() : -1;
+        }
+
+        BucketCounts counts = ForkJoinPool.commonPool().invoke(new BucketTask(
+                topicOf, difficultyOf, accuracy, topicIds.size(), difficultyIds.size(), 0, size));
+
+        Map<String, PerformanceMatrixDTO.TopicPerformance> topicPerformances = new LinkedHashMap<>();
+        topicIds.forEach((topic, id) -> topicPerformances.put(topic, PerformanceMatrixDTO.TopicPerformance.builder()
+                .topic(topic)
+                .questionCount(counts.topicQuestions[id])
+                .averageAccuracy(average(counts.topicAccuracySum[id], counts.topicQuestions[id]))
+                .build()));
+        Map<String, PerformanceMatrixDTO.DifficultyPerformance> difficultyPerformances = new LinkedHashMap<>();
+        difficultyIds.forEach((difficulty, id) -> difficultyPerformances.put(difficulty,
+                PerformanceMatrixDTO.DifficultyPerformance.builder()
+                        .difficulty(difficulty)
+                        .questionCount(counts.difficultyQuestions[id])
+                        .averageAccuracy(average(counts.difficultyAccuracySum[id], counts.difficultyQuestions[id]))
+                        .build()));
+
+        return PerformanceMatrixDTO.builder()
+                .examId(exam.getId())
+                .topicPerformances(topicPerformances)
+                .difficultyPerformances(difficultyPerformances)
+                .build();
+    }
+
+    private static double average(double sum, int count) {
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    private CachedMatrix readCached(UUID examId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + examId);
+            return json != null ? objectMapper.readValue(json, CachedMatrix.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not read cached performance matrix for exam {}: {}", examId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCached(UUID examId, CachedMatrix cached) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + examId, objectMapper.writeValueAsString(cached), cacheTtl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not cache performance matrix for exam {}: {}", examId, e.getMessage());
+        }
+    }
+
+    /**
+     * Questions and summed accuracy per topic and per difficulty, indexed by bucket id.
+     */
+    private static final class BucketCounts {
+        final int[] topicQuestions;
+        final double[] topicAccuracySum;
+        final int[] difficultyQuestions;
+        final double[] difficultyAccuracySum;
+
+        BucketCounts(int topics, int difficulties) {
+            topicQuestions = new int[topics];
+            topicAccuracySum = new double[topics];
+            difficultyQuestions = new int[difficulties];
+            difficultyAccuracySum = new double[difficulties];
+        }
+
+        BucketCounts merge(BucketCounts other) {
+            for (int i = 0; i < topicQuestions.length; i++) {
+                topicQuestions[i] += other.topicQuestions[i];
+                topicAccuracySum[i] += other.topicAccuracySum[i];
+            }
+            for (int i = 0; i < difficultyQuestions.length; i++) {
+                difficultyQuestions[i] += other.difficultyQuestions[i];
+                difficultyAccuracySum[i] += other.difficultyAccuracySum[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Counts the questions in {@code [from, to)}, splitting the range in halves above the leaf size.
+     * Questions without responses have a negative accuracy and are skipped.
+     */
+    private static final class BucketTask extends RecursiveTask<BucketCounts> {
+        private final int[] topicOf;
+        private final int[] difficultyOf;
+        private final double[] accuracy;
+        private final int topics;
+        private final int difficulties;
+        private final int from;
+        private final int to;
+
+        BucketTask(int[] topicOf, int[] difficultyOf, double[] accuracy,
+                   int topics, int difficulties, int from, int to) {
+            this.topicOf = topicOf;
+            this.difficultyOf = difficultyOf;
+            this.accuracy = accuracy;
+            this.topics = topics;
+            this.difficulties = difficulties;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BucketCounts compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                BucketTask left = new BucketTask(topicOf, difficultyOf, accuracy, topics, difficulties, from, middle);
+                BucketTask right = new BucketTask(topicOf, difficultyOf, accuracy, topics, difficulties, middle, to);
+                left.fork();
+                BucketCounts counts = right.compute();
+                return counts.merge(left.join());
+            }
+            BucketCounts counts = new BucketCounts(topics, difficulties);
+            for (int i = from; i < to; i++) {
+                if (accuracy[i] < 0) {
+                    continue;
+                }
+                counts.topicQuestions[topicOf[i]]++;
+                counts.topicAccuracySum[topicOf[i]] += accuracy[i];
+                counts.difficultyQuestions[difficultyOf[i]]++;
+                counts.difficultyAccuracySum[difficultyOf[i]] += accuracy[i];
+            }
+            return counts;
+        }
+    }
+}
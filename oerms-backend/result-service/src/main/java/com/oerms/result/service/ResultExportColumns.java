@@ -0,0 +1,46 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Columns shared by every export format, so CSV, Excel and PDF exports line up.
+ */
+final class ResultExportColumns {
+
+    static final List<String> HEADERS = List.of(
+            "Rank", "Student Name", "Student ID", "Attempt", "Status", "Obtained Marks", "Total Marks",
+            "Percentage", "Grade", "Passed", "Correct", "Wrong", "Unanswered", "Time Taken (s)",
+            "Submitted At", "Suspicious Activity");
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private ResultExportColumns() {
+    }
+
+    /**
+     * Cell values of a result in {@link #HEADERS} order; numbers stay numbers, missing values are null.
+     */
+    static Object[] values(Result result) {
+        return new Object[]{
+                result.getRank(),
+                result.getStudentName(),
+                result.getStudentId() != null ? result.getStudentId().toString() : null,
+                result.getAttemptNumber(),
+                result.getStatus() != null ? result.getStatus().name() : null,
+                result.getObtainedMarks(),
+                result.getTotalMarks(),
+                result.getPercentage() != null ? Math.round(result.getPercentage() * 100) / 100.0 : null,
+                result.getGrade(),
+                Boolean.TRUE.equals(result.getPassed()) ? "Yes" : "No",
+                result.getCorrectAnswers(),
+                result.getWrongAnswers(),
+                result.getUnanswered(),
+                result.getTimeTakenSeconds(),
+                result.getSubmittedAt() != null ? TIMESTAMP.format(result.getSubmittedAt()) : null,
+                Boolean.TRUE.equals(result.getSuspiciousActivity()) ? "Yes" : "No"
+        };
+    }
+}
@@ -0,0 +1,302 @@
+package com.oerms.result.service;
+
+import com.oerms.common.exception.BadRequestException;
+import com.oerms.common.exception.ResourceNotFoundException;
+import com.oerms.common.exception.ServiceException;
+import com.oerms.common.exception.UnauthorizedException;
+import com.oerms.common.util.JwtUtils;
+import com.oerms.result.dto.ExportJobDTO;
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ExportFormat;
+import com.oerms.result.enums.ExportJobStatus;
+import com.oerms.result.enums.ResultStatus;
+import com.oerms.result.repository.ResultRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Exports an exam's results as CSV, Excel or PDF.
+ * <p>
+ * Results are read through a forward-only database cursor and handed to the format's
+ * {@link ResultExportWriter} one by one, each detached once written, so memory use does not
+ * grow with the exam. Small exports stream straight into the response; larger ones run as
+ * jobs on a small dedicated pool that write the artifact to disk, where it can be downloaded
+ * until the job expires. Jobs live on the instance that runs them.
+ */
+@Service
+@Slf4j
+public class ResultExportService {
+
+    private static final int PROGRESS_INTERVAL = 500;
+
+    private final ResultRepository resultRepository;
+    private final ResultService resultService;
+    private final EntityManager entityManager;
+    private final Map<ExportFormat, ResultExportWriter> writers = new EnumMap<>(ExportFormat.class);
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final long syncMaxRows;
+    private final long jobTtlMinutes;
+    private final Path directory;
+
+    public ResultExportService(ResultRepository resultRepository,
+                               ResultService resultService,
+                               EntityManager entityManager,
+                               List<ResultExportWriter> writers,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${result.export.sync-max-rows:10000}") long syncMaxRows,
+                               @Value("${result.export.job-threads:2}") int jobThreads,
+                               @Value("${result.export.job-queue-capacity:20}") int jobQueueCapacity,
+                               @Value("${result.export.job-ttl-minutes:60}") long jobTtlMinutes,
+                               @Value("${result.export.directory:${java.io.tmpdir}/oerms-result-exports}") String directory) {
+        this.resultRepository = resultRepository;
+        this.resultService = resultService;
+        this.entityManager = entityManager;
+        writers.forEach(writer -> this.writers.put(writer.format(), writer));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.syncMaxRows = syncMaxRows;
+        this.jobTtlMinutes = jobTtlMinutes;
+        this.directory = Paths.get(directory);
+
+        this.jobExecutor = new ThreadPoolTaskExecutor();
+        this.jobExecutor.setCorePoolSize(jobThreads);
+        this.jobExecutor.setMaxPoolSize(jobThreads);
+        this.jobExecutor.setQueueCapacity(jobQueueCapacity);
+        this.jobExecutor.setThreadNamePrefix("result-export-");
+        this.jobExecutor.initialize();
+    }
+
+    /**
+     * What an export covers and how it is delivered.
+     */
+    public record ResultExport(UUID examId, ExportFormat format, ResultStatus resultStatus, String title,
+                               String fileName, String contentType, long totalRows) {
+    }
+
+    /**
+     * A finished job's file, ready to be sent.
+     */
+    public record ExportArtifact(Path path, String fileName, String contentType) {
+    }
+
+    /**
+     * Checks access and sizes an export that is streamed into the response. Exports above the
+     * synchronous row limit must use a job instead.
+     */
+    public ResultExport prepareDownload(UUID examId, ExportFormat format, ResultStatus resultStatus,
+                                        Authentication auth) {
+        ResultExport export = prepare(examId, format, resultStatus, auth);
+        if (export.totalRows() > syncMaxRows) {
+            throw new BadRequestException("Export of " + export.totalRows() + " results exceeds the limit of "
+                    + syncMaxRows + " for direct download, start an export job instead");
+        }
+        return export;
+    }
+
+    /**
+     * Writes the export to the stream inside a read-only transaction; the stream is not closed.
+     *
+     * @param progress receives the number of rows written so far, may be null
+     */
+    public void write(ResultExport export, OutputStream out, LongConsumer progress) {
+        ResultExportWriter writer = writers.get(export.format());
+        Long written = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            try (Stream<Result> results = resultRepository.streamForExport(export.examId(), export.resultStatus());
+                 ResultExportWriter.RowSink sink = writer.open(out, export.title())) {
+                Iterator<Result> iterator = results.iterator();
+                while (iterator.hasNext()) {
+                    Result result = iterator.next();
+                    sink.write(result);
+                    entityManager.detach(result);
+                    if (++rows % PROGRESS_INTERVAL == 0 && progress != null) {
+                        progress.accept(rows);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (progress != null) {
+                progress.accept(rows);
+            }
+            return rows;
+        });
+        log.info("Exported {} results of exam {} as {}", written, export.examId(), export.format());
+    }
+
+    public ExportJobDTO startJob(UUID examId, ExportFormat format, ResultStatus resultStatus, Authentication auth) {
+        ResultExport export = prepare(examId, format, resultStatus, auth);
+        ExportJob job = new ExportJob(UUID.randomUUID(), JwtUtils.getUserId(auth), export);
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw new ServiceException("Too many exports in progress, try again later");
+        }
+        log.info("Export job {} queued for exam {} as {} with {} rows", job.id, examId, format, export.totalRows());
+        return job.toDTO();
+    }
+
+    public ExportJobDTO getJob(UUID jobId, Authentication auth) {
+        return getJobForCaller(jobId, auth).toDTO();
+    }
+
+    public ExportArtifact getArtifact(UUID jobId, Authentication auth) {
+        ExportJob job = getJobForCaller(jobId, auth);
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new BadRequestException("Export job is not completed, current status: " + job.status);
+        }
+        return new ExportArtifact(job.file, job.export.fileName(), job.export.contentType());
+    }
+
+    /**
+     * Drops finished jobs past their time to live, together with their files.
+     */
+    public int purgeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.expiresAt != null && job.expiresAt.isBefore(now) && jobs.remove(job.id, job)) {
+                deleteFile(job.file);
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdown();
+        jobs.values().forEach(job -> deleteFile(job.file));
+    }
+
+    // ==================== Internals ====================
+
+    private ResultExport prepare(UUID examId, ExportFormat format, ResultStatus resultStatus, Authentication auth) {
+        if (format == null || !writers.containsKey(format)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+        resultService.verifyExamAccess(examId, auth);
+        ResultExportWriter writer = writers.get(format);
+        String title = resultRepository.findFirstByExamId(examId)
+                .map(Result::getExamTitle)
+                .filter(examTitle -> !examTitle.isBlank())
+                .orElse("Exam " + examId);
+        String fileName = title.replaceAll("[^A-Za-z0-9._-]+", "-") + "-results." + writer.fileExtension();
+        long totalRows = resultRepository.countForExport(examId, resultStatus);
+        return new ResultExport(examId, format, resultStatus, title, fileName, writer.contentType(), totalRows);
+    }
+
+    private void run(ExportJob job) {
+        job.status = ExportJobStatus.RUNNING;
+        Path file = directory.resolve(job.id + "." + writers.get(job.export.format()).fileExtension());
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                write(job.export, out, rows -> job.processedRows = rows);
+            }
+            job.file = file;
+            job.status = ExportJobStatus.COMPLETED;
+        } catch (Exception e) {
+            log.error("Export job {} for exam {} failed: {}", job.id, job.export.examId(), e.getMessage(), e);
+            deleteFile(file);
+            job.error = "Export failed";
+            job.status = ExportJobStatus.FAILED;
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            job.expiresAt = job.completedAt.plusMinutes(jobTtlMinutes);
+        }
+    }
+
+    private ExportJob getJobForCaller(UUID jobId, Authentication auth) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export job not found with id: " + jobId);
+        }
+        if (!job.requestedBy.equals(JwtUtils.getUserId(auth)) && !"ROLE_ADMIN".equals(JwtUtils.getRole(auth))) {
+            throw new UnauthorizedException("Not authorized to access this export job");
+        }
+        return job;
+    }
+
+    private void deleteFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class ExportJob {
+        private final UUID id;
+        private final UUID requestedBy;
+        private final ResultExport export;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile long processedRows;
+        private volatile Path file;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+
+        private ExportJob(UUID id, UUID requestedBy, ResultExport export) {
+            this.id = id;
+            this.requestedBy = requestedBy;
+            this.export = export;
+        }
+
+        private ExportJobDTO toDTO() {
+            long total = export.totalRows();
+            int percentage;
+            if (status == ExportJobStatus.COMPLETED) {
+                percentage = 100;
+            } else {
+                percentage = total > 0 ? (int) Math.min(99, processedRows * 100 / total) : 0;
+            }
+            return ExportJobDTO.builder()
+                    .jobId(id)
+                    .examId(export.examId())
+                    .format(export.format())
+                    .resultStatus(export.resultStatus())
+                    .status(status)
+                    .totalRows(total)
+                    .processedRows(processedRows)
+                    .progressPercentage(percentage)
+                    .fileName(export.fileName())
+                    .downloadUrl(status == ExportJobStatus.COMPLETED
+                            ? "/api/results/export-jobs/" + id + "/download" : null)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .completedAt(completedAt)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+    }
+}
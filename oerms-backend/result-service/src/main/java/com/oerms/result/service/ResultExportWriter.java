@@ -0,0 +1,31 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes exported results in one {@link ExportFormat}, one row at a time, so that an export
+ * never holds more than a bounded window of rows in memory.
+ */
+public interface ResultExportWriter {
+
+    ExportFormat format();
+
+    String contentType();
+
+    String fileExtension();
+
+    /**
+     * Starts a document on the stream; closing the returned sink finishes the document but
+     * leaves the stream open.
+     */
+    RowSink open(OutputStream out, String title) throws IOException;
+
+    interface RowSink extends Closeable {
+        void write(Result result) throws IOException;
+    }
+}
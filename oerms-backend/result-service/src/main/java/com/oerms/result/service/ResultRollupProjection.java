@@ -0,0 +1,199 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+import com.oerms.result.enums.ResultStatus;
+import com.oerms.result.repository.ResultDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains the {@code result_daily_rollups} projection the same way
+ * {@link ExamResultStatsProjection} maintains per-exam statistics: each change to a result is
+ * applied as a delta to the row of its submission day, subject and exam, in the caller's
+ * transaction. A row that does not exist yet is built from {@code results} instead, which also
+ * covers results that predate the projection.
+ * <p>
+ * Deltas and rebuilds of a day are serialised by a per-day advisory lock, taken shared by
+ * deltas and exclusively by rebuilds, always in ascending day order. Building a missing row
+ * also takes an exclusive lock on that row, so a concurrent first change waits for the row and
+ * then applies its delta to it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResultRollupProjection {
+
+    private final ResultDailyRollupRepository rollupRepository;
+
+    /**
+     * The fields of a result the rollups depend on, captured before a change.
+     */
+    public record Snapshot(LocalDate day, String subject, UUID examId, boolean published,
+                           boolean passed, double percentage) {
+
+        public static Snapshot of(Result result) {
+            return new Snapshot(
+                    dayOf(result),
+                    subjectOf(result),
+                    result.getExamId(),
+                    result.getStatus() == ResultStatus.PUBLISHED,
+                    Boolean.TRUE.equals(result.getPassed()),
+                    result.getPercentage() != null ? result.getPercentage() : 0.0);
+        }
+
+        RowKey key() {
+            return new RowKey(day, subject, examId);
+        }
+    }
+
+    /**
+     * Day a result is rolled up under; matches {@link ResultDailyRollupRepository#DAY}.
+     */
+    public static LocalDate dayOf(Result result) {
+        LocalDateTime at = result.getSubmittedAt() != null ? result.getSubmittedAt() : result.getCreatedAt();
+        return at != null ? at.toLocalDate() : LocalDate.now();
+    }
+
+    /**
+     * Subject a result is rolled up under; matches {@link ResultDailyRollupRepository#SUBJECT}.
+     */
+    public static String subjectOf(Result result) {
+        if (StringUtils.hasText(result.getSubject())) {
+            return result.getSubject().trim();
+        }
+        String title = result.getExamTitle() != null ? result.getExamTitle().trim() : "";
+        int space = title.indexOf(' ');
+        String firstWord = space >= 0 ? title.substring(0, space) : title;
+        return firstWord.isEmpty() ? "Unknown" : firstWord;
+    }
+
+    public void recordCreated(Result result) {
+        recordChange(null, Snapshot.of(result));
+    }
+
+    /**
+     * Records results created together, one delta per row they fall into.
+     */
+    public void recordCreated(Collection<Result> results) {
+        Map<RowKey, Delta> deltas = new HashMap<>();
+        for (Result result : results) {
+            Snapshot snapshot = Snapshot.of(result);
+            deltas.computeIfAbsent(snapshot.key(), key -> new Delta()).add(snapshot, 1);
+        }
+        applyAll(deltas);
+    }
+
+    public void recordChanged(Snapshot before, Result after) {
+        recordChange(before, Snapshot.of(after));
+    }
+
+    /**
+     * Records changes to many results, one delta per row they fall into.
+     *
+     * @param before snapshots taken before the change, by result id
+     */
+    public void recordChanged(Map<UUID, Snapshot> before, Collection<Result> after) {
+        Map<RowKey, Delta> deltas = new HashMap<>();
+        for (Result result : after) {
+            Snapshot previous = before.get(result.getId());
+            Snapshot current = Snapshot.of(result);
+            deltas.computeIfAbsent(previous.key(), key -> new Delta()).add(previous, -1);
+            deltas.computeIfAbsent(current.key(), key -> new Delta()).add(current, 1);
+        }
+        applyAll(deltas);
+    }
+
+    public void recordDeleted(Result result) {
+        recordChange(Snapshot.of(result), null);
+    }
+
+    /**
+     * Recomputes every row of the days in {@code [from, to)} from {@code results}.
+     *
+     * @return number of rows written
+     */
+    @Transactional
+    public int rebuildDays(LocalDate from, LocalDate to) {
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            rollupRepository.lockDay((int) day.toEpochDay());
+        }
+        rollupRepository.deleteDays(from, to);
+        return rollupRepository.rebuildDays(from.atStartOfDay(), to.atStartOfDay());
+    }
+
+    // ==================== Internals ====================
+
+    private record RowKey(LocalDate day, String subject, UUID examId) {
+
+        static final Comparator<RowKey> ORDER = Comparator.comparing(RowKey::day)
+                .thenComparing(RowKey::subject)
+                .thenComparing(RowKey::examId);
+    }
+
+    private void recordChange(Snapshot before, Snapshot after) {
+        Map<RowKey, Delta> deltas = new HashMap<>();
+        if (before != null) {
+            deltas.computeIfAbsent(before.key(), key -> new Delta()).add(before, -1);
+        }
+        if (after != null) {
+            deltas.computeIfAbsent(after.key(), key -> new Delta()).add(after, 1);
+        }
+        applyAll(deltas);
+    }
+
+    private void applyAll(Map<RowKey, Delta> deltas) {
+        deltas.keySet().stream()
+                .map(RowKey::day)
+                .distinct()
+                .sorted()
+                .forEach(day -> rollupRepository.lockDayShared((int) day.toEpochDay()));
+        // Rows are applied in key order too, as building a missing one takes its lock
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(RowKey.ORDER))
+                .forEach(entry -> apply(entry.getKey(), entry.getValue()));
+    }
+
+    private void apply(RowKey key, Delta delta) {
+        if (!rollupRepository.existsByDayAndSubjectAndExamId(key.day(), key.subject(), key.examId())) {
+            rollupRepository.lockRow(key.day(), key.subject(), key.examId());
+            // Re-checked under the lock: a transaction that held it may have committed the row
+            if (!rollupRepository.existsByDayAndSubjectAndExamId(key.day(), key.subject(), key.examId())) {
+                // The change is already flushed into results, so the rebuild includes it
+                rollupRepository.rebuildRow(key.examId(), key.subject(),
+                        key.day().atStartOfDay(), key.day().plusDays(1).atStartOfDay());
+                return;
+            }
+        }
+        rollupRepository.applyDelta(key.day(), key.subject(), key.examId(), delta.total, delta.published,
+                delta.passed, delta.percentageSum, delta.percentageSumSquares);
+    }
+
+    private static final class Delta {
+        long total;
+        long published;
+        long passed;
+        double percentageSum;
+        double percentageSumSquares;
+
+        void add(Snapshot snapshot, int sign) {
+            total += sign;
+            if (!snapshot.published()) {
+                return;
+            }
+            double percentage = snapshot.percentage();
+            published += sign;
+            percentageSum += sign * percentage;
+            percentageSumSquares += sign * percentage * percentage;
+            if (snapshot.passed()) {
+                passed += sign;
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.oerms.result.service;
 import com.oerms.common.dto.ApiResponse;
 import com.oerms.common.dto.AttemptAnswerDTO;
 import com.oerms.common.dto.AttemptDTO;
+import com.oerms.common.dto.CursorPage;
 import com.oerms.common.dto.ExamDTO;
 import com.oerms.common.dto.QuestionDTO;
 import com.oerms.common.exception.BadRequestException;
@@ -10,41 +11,69 @@ import com.oerms.common.exception.ResourceNotFoundException;
 import com.oerms.common.exception.ServiceException;
 import com.oerms.common.exception.UnauthorizedException;
 import com.oerms.common.util.JwtUtils;
+import com.oerms.common.util.KeysetCursor;
 import com.oerms.result.client.AttemptServiceClient;
 import com.oerms.result.client.ExamServiceClient;
 import com.oerms.result.client.QuestionServiceClient;
 import com.oerms.result.dto.*;
+import com.oerms.result.entity.ExamResultStats;
 import com.oerms.result.entity.Result;
+import com.oerms.result.entity.ResultItemScore;
+import com.oerms.result.enums.RankingMethod;
 import com.oerms.result.enums.ResultStatus;
 import com.oerms.result.kafka.ResultEventProducer;
 import com.oerms.result.mapper.ResultMapper;
+import com.oerms.result.repository.ResultBatchRepository;
+import com.oerms.result.repository.ResultItemScoreRepository;
 import com.oerms.result.repository.ResultRepository;
+import com.oerms.result.repository.ResultSpecifications;
 import feign.FeignException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ResultService {
 
+    private static final int MAX_BULK_GRADES = 1000;
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final ResultRepository resultRepository;
+    private final ResultBatchRepository resultBatchRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final ExamScoreIndex examScoreIndex;
+    private final ExamResultStatsProjection statsProjection;
+    private final ResultRollupProjection rollupProjection;
+    private final ResultItemScoreRepository itemScoreRepository;
+    private final ItemAnalysisService itemAnalysisService;
+    private final ExamReportService examReportService;
+    private final PerformanceMatrixService performanceMatrixService;
     private final ResultMapper resultMapper;
     private final ExamServiceClient examServiceClient;
     private final AttemptServiceClient attemptServiceClient;
     private final QuestionServiceClient questionServiceClient;
     private final ResultEventProducer eventProducer;
+    private final EntityManager entityManager;
 
     // ==================== CREATE OPERATIONS ====================
 
@@ -59,42 +88,83 @@ public class ResultService {
         }
 
         ExamDTO exam = getExamOrThrow(attempt.getExamId());
-        List<QuestionDTO> questions = fetchQuestionsForGrading(attempt);
-        Map<UUID, QuestionDTO> questionMap = questions.stream()
-                .collect(Collectors.toMap(QuestionDTO::getId, q -> q));
+        AnswerKey answerKey = getAnswerKey(exam, List.of(attempt));
 
-        double obtainedMarks = 0.0;
-        int totalMarks = 0;
-
-        if (attempt.getAnswers() != null) {
-            for (AttemptAnswerDTO answer : attempt.getAnswers()) {
-                QuestionDTO question = questionMap.get(answer.getQuestionId());
-                if (question != null) {
-                    obtainedMarks += gradeSingleAnswer(answer, question);
-                    totalMarks += (question.getMarks() != null ? question.getMarks() : 0);
-                }
-            }
+        GradedAttempt graded = gradeAttempt(attempt, exam, answerKey);
+        Result result = graded.result();
+        resultRepository.save(result);
+        saveItemScores(result, graded.items());
+        statsProjection.recordCreated(result);
+        rollupProjection.recordCreated(result);
+        log.info("Result created successfully: {}", result.getId());
+        if (result.getStatus() == ResultStatus.PUBLISHED) {
+            examScoreIndex.update(result);
+            itemAnalysisService.requestAnalysis(result.getExamId());
+            examReportService.requestRefresh(result.getExamId());
         }
 
-        if (attempt.getTotalMarks() != null && attempt.getTotalMarks() > 0) {
-            totalMarks = attempt.getTotalMarks();
-        }
+        publishResultEvents(result);
+        return resultMapper.toDTO(result);
+    }
 
-        double percentage = (totalMarks > 0) ? (obtainedMarks / totalMarks) * 100 : 0.0;
-        boolean requiresManualGrading = questions.stream()
-                .anyMatch(q -> "ESSAY".equals(q.getType()) || "SHORT_ANSWER".equals(q.getType()));
-        String grade = calculateGrade(obtainedMarks, totalMarks);
-        boolean passed = exam.getPassingMarks() != null && obtainedMarks >= exam.getPassingMarks();
+    /**
+     * Grades a batch of attempts of the same exam. Exam and question metadata are fetched once
+     * for the whole batch and all results are inserted with a single JDBC batch. Attempts that
+     * already have a result are skipped by the caller's idempotency check, and again by the
+     * insert itself should one be created concurrently.
+     *
+     * @return number of results created
+     */
+    @Transactional
+    public int createResultsForExam(UUID examId, List<AttemptDTO> attempts) {
+        log.info("Creating {} results for exam: {}", attempts.size(), examId);
 
-        ResultStatus initialStatus = determineInitialStatus(requiresManualGrading, exam.getShowResultsImmediately());
+        ExamDTO exam = getExamOrThrow(examId);
+        AnswerKey answerKey = getAnswerKey(exam, attempts);
+
+        List<Result> results = new ArrayList<>(attempts.size());
+        Map<UUID, List<ResultItemScore>> itemsByAttempt = new HashMap<>(attempts.size() * 2);
+        for (AttemptDTO attempt : attempts) {
+            GradedAttempt graded = gradeAttempt(attempt, exam, answerKey);
+            results.add(graded.result());
+            itemsByAttempt.put(attempt.getId(), graded.items());
+        }
 
-        Result result = buildResultEntity(attempt, obtainedMarks, totalMarks, percentage,
-                grade, passed, initialStatus, requiresManualGrading);
-        resultRepository.save(result);
-        log.info("Result created successfully: {}", result.getId());
+        List<Result> inserted = resultBatchRepository.insertAll(results);
+        List<ResultItemScore> items = new ArrayList<>();
+        for (Result result : inserted) {
+            for (ResultItemScore item : itemsByAttempt.get(result.getAttemptId())) {
+                item.setResultId(result.getId());
+                items.add(item);
+            }
+        }
+        itemScoreRepository.insertAll(items);
+        if (inserted.size() < results.size()) {
+            log.warn("Skipped {} results for exam {} that were created concurrently",
+                    results.size() - inserted.size(), examId);
+        }
+        statsProjection.recordCreated(examId, inserted);
+        rollupProjection.recordCreated(inserted);
+        log.info("Created {} results for exam: {}", inserted.size(), examId);
+
+        inserted.forEach(this::publishResultEvents);
+        if (inserted.stream().anyMatch(r -> r.getStatus() == ResultStatus.PUBLISHED)) {
+            examScoreIndex.rebuildAfterCommit(examId);
+            itemAnalysisService.requestAnalysis(examId);
+            examReportService.requestRefresh(examId);
+        }
+        return inserted.size();
+    }
 
-        publishResultEvents(result);
-        return resultMapper.toDTO(result);
+    /**
+     * Returns the attempt ids among the given ones that already have a result.
+     */
+    @Transactional(readOnly = true)
+    public Set<UUID> findAttemptsWithResults(Collection<UUID> attemptIds) {
+        if (attemptIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(resultRepository.findExistingAttemptIds(attemptIds));
     }
 
     public List<QuestionDTO> fetchQuestionsForGrading(AttemptDTO attempt) {
@@ -104,7 +174,14 @@ public class ResultService {
         List<UUID> questionIds = attempt.getAnswers().stream()
                 .map(AttemptAnswerDTO::getQuestionId)
                 .collect(Collectors.toList());
-        ApiResponse<List<QuestionDTO>> response = questionServiceClient.getQuestionsForGrading(questionIds);
+        return fetchQuestionsByIds(questionIds);
+    }
+
+    private List<QuestionDTO> fetchQuestionsByIds(Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ApiResponse<List<QuestionDTO>> response = questionServiceClient.getQuestionsForGrading(new ArrayList<>(questionIds));
         if (response != null && response.isSuccess() && response.getData() != null) {
             return response.getData();
         }
@@ -143,12 +220,13 @@ public class ResultService {
 
         Map<UUID, QuestionDTO> questionMap = questions.stream()
                 .collect(Collectors.toMap(QuestionDTO::getId, q -> q));
+        AnswerKey answerKey = AnswerKey.compile(questions);
 
         List<ResultQuestionDetailDTO> questionDetails = answers.stream()
                 .sorted(Comparator.comparingInt(AttemptAnswerDTO::getQuestionOrder))
                 .map(answer -> {
                     QuestionDTO question = questionMap.get(answer.getQuestionId());
-                    double marksObtained = (question != null) ? gradeSingleAnswer(answer, question) : 0.0;
+                    double marksObtained = (question != null) ? gradeSingleAnswer(answer, answerKey) : 0.0;
                     boolean isCorrect = marksObtained > 0;
 
                     return ResultQuestionDetailDTO.builder()
@@ -212,6 +290,14 @@ public class ResultService {
         return resultRepository.findAll(pageable).map(resultMapper::toSummaryDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ResultSummaryDTO> scrollAllResults(String cursor, int size, boolean includeTotal,
+                                                         Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        log.debug("Scrolling all results");
+        return scrollResults(ResultSpecifications.all(), cursor, size, includeTotal);
+    }
+
     // ==================== READ OPERATIONS - STUDENT ====================
 
     @Transactional(readOnly = true)
@@ -297,6 +383,14 @@ public class ResultService {
         ).map(resultMapper::toSummaryDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ResultSummaryDTO> scrollSearchResults(ResultSearchCriteria criteria, String cursor, int size,
+                                                            boolean includeTotal, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        log.debug("Scrolling results with criteria: {}", criteria);
+        return scrollResults(ResultSpecifications.matching(criteria), cursor, size, includeTotal);
+    }
+
     @Transactional(readOnly = true)
     public Page<ResultSummaryDTO> getResultsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
                                                         Pageable pageable, Authentication auth) {
@@ -340,36 +434,35 @@ public class ResultService {
         verifyOwnership(examId, auth);
         log.debug("Calculating statistics for exam: {}", examId);
         ExamDTO exam = getExamOrThrow(examId);
-        List<Result> publishedResults = resultRepository.findByExamIdAndStatus(examId, ResultStatus.PUBLISHED);
+        ExamResultStats stats = getStatsOrEmpty(examId);
 
-        if (publishedResults.isEmpty()) {
+        if (stats.getPublishedResults() == 0) {
             return ExamResultStatisticsDTO.builder()
                     .examId(examId)
                     .examTitle(exam.getTitle())
-                    .totalResults(0L)
+                    .totalResults(stats.getTotalResults())
                     .publishedResults(0L)
                     .build();
         }
 
-        long passedCount = resultRepository.countByExamIdAndPassed(examId, true);
-        double passRate = (double) passedCount * 100 / publishedResults.size();
+        long passedCount = stats.getPublishedPassed();
+        double passRate = (double) passedCount * 100 / stats.getPublishedResults();
 
         return ExamResultStatisticsDTO.builder()
                 .examId(examId)
                 .examTitle(exam.getTitle())
-                .totalResults((long) resultRepository.countByExamId(examId))
-                .publishedResults((long) publishedResults.size())
-                .pendingGrading(resultRepository.countByExamIdAndStatus(examId, ResultStatus.PENDING_GRADING))
-                .averageScore(resultRepository.getAverageScoreByExam(examId))
-                .highestScore(resultRepository.getHighestScoreByExam(examId))
-                .lowestScore(resultRepository.getLowestScoreByExam(examId))
-                .averagePercentage(resultRepository.getAveragePercentageByExam(examId))
+                .totalResults(stats.getTotalResults())
+                .publishedResults(stats.getPublishedResults())
+                .pendingGrading(stats.getPendingGradingResults())
+                .averageScore(stats.averageMarks())
+                .highestScore(stats.getHighestMarks())
+                .lowestScore(stats.getLowestMarks())
+                .averagePercentage(stats.averagePercentage())
                 .passedCount(passedCount)
-                .failedCount(publishedResults.size() - passedCount)
+                .failedCount(stats.getPublishedResults() - passedCount)
                 .passRate(passRate)
-                .gradeDistribution(resultRepository.getGradeDistribution(examId).stream()
-                        .collect(Collectors.toMap(obj -> (String) obj[0], obj -> (Long) obj[1])))
-                .suspiciousResultsCount((long) resultRepository.findSuspiciousResultsByExam(examId).size())
+                .gradeDistribution(new HashMap<>(stats.getGradeCounts()))
+                .suspiciousResultsCount(stats.getSuspiciousResults())
                 .build();
     }
 
@@ -393,8 +486,7 @@ public class ResultService {
         verifyOwnership(examId, auth);
         log.debug("Fetching grade distribution for exam: {}", examId);
 
-        return resultRepository.getGradeDistribution(examId).stream()
-                .collect(Collectors.toMap(obj -> (String) obj[0], obj -> (Long) obj[1]));
+        return new HashMap<>(getStatsOrEmpty(examId).getGradeCounts());
     }
 
     @Transactional(readOnly = true)
@@ -403,12 +495,13 @@ public class ResultService {
         log.debug("Fetching publication status for exam: {}", examId);
 
         ExamDTO exam = getExamOrThrow(examId);
-        long totalResults = resultRepository.countByExamId(examId);
-        long publishedResults = resultRepository.countByExamIdAndStatus(examId, ResultStatus.PUBLISHED);
-        long draftResults = resultRepository.countByExamIdAndStatus(examId, ResultStatus.DRAFT);
-        long pendingGrading = resultRepository.countByExamIdAndStatus(examId, ResultStatus.PENDING_GRADING);
-        long gradedResults = resultRepository.countByExamIdAndStatus(examId, ResultStatus.GRADED);
-        long withheldResults = resultRepository.countByExamIdAndStatus(examId, ResultStatus.WITHHELD);
+        ExamResultStats stats = getStatsOrEmpty(examId);
+        long totalResults = stats.getTotalResults();
+        long publishedResults = stats.getPublishedResults();
+        long draftResults = stats.getDraftResults();
+        long pendingGrading = stats.getPendingGradingResults();
+        long gradedResults = stats.getGradedResults();
+        long withheldResults = stats.getWithheldResults();
 
         long unpublishedResults = totalResults - publishedResults;
         double publicationRate = totalResults > 0 ? (double) publishedResults * 100 / totalResults : 0.0;
@@ -488,6 +581,11 @@ public class ResultService {
     public List<ResultSummaryDTO> getTopScorers(UUID examId, int limit, Authentication auth) {
         verifyTeacherOrAdminRole(auth);
         log.debug("Fetching top {} scorers for exam: {}", limit, examId);
+        try {
+            return loadInIndexOrder(examScoreIndex.top(examId, limit));
+        } catch (DataAccessException e) {
+            log.warn("Score index unavailable for exam {}, querying results directly: {}", examId, e.getMessage());
+        }
         return resultRepository.findTopScoresByExam(examId, PageRequest.of(0, limit)).stream()
                 .map(resultMapper::toSummaryDTO)
                 .collect(Collectors.toList());
@@ -498,6 +596,11 @@ public class ResultService {
         verifyOwnership(examId, auth);
         log.debug("Fetching low performers for exam: {} with threshold: {}%", examId, thresholdPercentage);
 
+        try {
+            return loadInIndexOrder(examScoreIndex.belowPercentage(examId, thresholdPercentage));
+        } catch (DataAccessException e) {
+            log.warn("Score index unavailable for exam {}, querying results directly: {}", examId, e.getMessage());
+        }
         return resultRepository.findLowPerformersByExam(examId, thresholdPercentage).stream()
                 .map(resultMapper::toSummaryDTO)
                 .collect(Collectors.toList());
@@ -535,6 +638,8 @@ public class ResultService {
             throw new BadRequestException("Result requires manual grading before publishing");
         }
 
+        ExamResultStatsProjection.Snapshot before = ExamResultStatsProjection.Snapshot.of(result);
+        ResultRollupProjection.Snapshot rollupBefore = ResultRollupProjection.Snapshot.of(result);
         result.setStatus(ResultStatus.PUBLISHED);
         result.setPublishedAt(LocalDateTime.now());
         result.setPublishedBy(JwtUtils.getUserId(auth));
@@ -543,7 +648,12 @@ public class ResultService {
         }
 
         resultRepository.save(result);
+        statsProjection.recordChanged(before, result);
+        rollupProjection.recordChanged(rollupBefore, result);
         log.info("Result published successfully: {}", resultId);
+        examScoreIndex.update(result);
+        itemAnalysisService.requestAnalysis(result.getExamId());
+        examReportService.requestRefresh(result.getExamId());
 
         if (Boolean.TRUE.equals(request.getCalculateRankings())) {
             calculateRankings(result.getExamId());
@@ -562,11 +672,18 @@ public class ResultService {
             throw new BadRequestException("Result is not published");
         }
 
+        ExamResultStatsProjection.Snapshot before = ExamResultStatsProjection.Snapshot.of(result);
+        ResultRollupProjection.Snapshot rollupBefore = ResultRollupProjection.Snapshot.of(result);
         result.setStatus(result.getRequiresManualGrading() ? ResultStatus.PENDING_GRADING : ResultStatus.DRAFT);
         result.setPublishedAt(null);
         result.setPublishedBy(null);
         resultRepository.save(result);
+        statsProjection.recordChanged(before, result);
+        rollupProjection.recordChanged(rollupBefore, result);
         log.info("Result unpublished: {}", resultId);
+        examScoreIndex.update(result);
+        itemAnalysisService.requestAnalysis(result.getExamId());
+        examReportService.requestRefresh(result.getExamId());
         return resultMapper.toDTO(result);
     }
 
@@ -575,6 +692,8 @@ public class ResultService {
         Result result = getResultEntity(resultId);
         verifyOwnership(result.getExamId(), auth);
 
+        ExamResultStatsProjection.Snapshot before = ExamResultStatsProjection.Snapshot.of(result);
+        ResultRollupProjection.Snapshot rollupBefore = ResultRollupProjection.Snapshot.of(result);
         if (request.getObtainedMarks() != null) {
             result.setObtainedMarks(request.getObtainedMarks());
             if (result.getTotalMarks() != null && result.getTotalMarks() > 0) {
@@ -595,27 +714,235 @@ public class ResultService {
         }
 
         resultRepository.save(result);
+        statsProjection.recordChanged(before, result);
+        rollupProjection.recordChanged(rollupBefore, result);
         log.info("Result graded successfully: {} (Marks: {}/{})", resultId, result.getObtainedMarks(), result.getTotalMarks());
+        examScoreIndex.update(result);
+        if (before.published()) {
+            itemAnalysisService.requestAnalysis(result.getExamId());
+            examReportService.requestRefresh(result.getExamId());
+        }
         publishResultEvents(result);
         return resultMapper.toDTO(result);
     }
 
+    /**
+     * Grades many results in one go. Each exam is fetched and checked once, all grades are
+     * written with one JDBC batch, and rankings and statistics are recomputed once per exam.
+     * Entries that cannot be applied are reported as failed without affecting the others.
+     */
+    @Transactional
+    public BulkGradingResultDTO bulkGradeResults(BulkGradingRequest request, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        List<BulkGradingRequest.GradeEntry> entries = request != null && request.getGrades() != null
+                ? request.getGrades() : List.of();
+        if (entries.isEmpty()) {
+            throw new BadRequestException("At least one grade is required");
+        }
+        if (entries.size() > MAX_BULK_GRADES) {
+            throw new BadRequestException("At most " + MAX_BULK_GRADES + " grades can be applied at once");
+        }
+
+        Map<UUID, String> failedItems = new LinkedHashMap<>();
+        Map<UUID, BulkGradingRequest.GradeEntry> entriesById = new LinkedHashMap<>();
+        for (BulkGradingRequest.GradeEntry entry : entries) {
+            if (entry == null || entry.getResultId() == null) {
+                throw new BadRequestException("Every grade needs a result ID");
+            }
+            if (entriesById.putIfAbsent(entry.getResultId(), entry) != null) {
+                throw new BadRequestException("Result " + entry.getResultId() + " is graded more than once");
+            }
+            if (entry.getObtainedMarks() == null || entry.getObtainedMarks() < 0) {
+                failedItems.put(entry.getResultId(), "Obtained marks must be zero or more");
+            }
+        }
+        entriesById.keySet().removeAll(failedItems.keySet());
+
+        Map<UUID, List<Result>> resultsByExam = new LinkedHashMap<>();
+        for (Result result : resultRepository.findAllById(entriesById.keySet())) {
+            // Changes are written through JDBC, not by flushing the entities
+            entityManager.detach(result);
+            resultsByExam.computeIfAbsent(result.getExamId(), id -> new ArrayList<>()).add(result);
+        }
+
+        UUID graderId = JwtUtils.getUserId(auth);
+        String graderName = JwtUtils.getUsername(auth);
+        LocalDateTime now = LocalDateTime.now();
+        List<Result> graded = new ArrayList<>(entriesById.size());
+        Map<UUID, ExamResultStatsProjection.Snapshot> before = new HashMap<>();
+        Map<UUID, ResultRollupProjection.Snapshot> rollupBefore = new HashMap<>();
+        for (Map.Entry<UUID, List<Result>> examResults : resultsByExam.entrySet()) {
+            ExamDTO exam;
+            try {
+                exam = getAccessibleExam(examResults.getKey(), auth);
+            } catch (UnauthorizedException | ResourceNotFoundException | ServiceException e) {
+                examResults.getValue().forEach(result -> failedItems.put(result.getId(), e.getMessage()));
+                continue;
+            }
+            for (Result result : examResults.getValue()) {
+                BulkGradingRequest.GradeEntry entry = entriesById.get(result.getId());
+                double marks = entry.getObtainedMarks();
+                if (result.getTotalMarks() != null && marks > result.getTotalMarks()) {
+                    failedItems.put(result.getId(), "Obtained marks exceed the total of " + result.getTotalMarks());
+                    continue;
+                }
+                before.put(result.getId(), ExamResultStatsProjection.Snapshot.of(result));
+                rollupBefore.put(result.getId(), ResultRollupProjection.Snapshot.of(result));
+                result.setObtainedMarks(marks);
+                if (result.getTotalMarks() != null && result.getTotalMarks() > 0) {
+                    result.setPercentage(marks / result.getTotalMarks() * 100);
+                }
+                result.setGrade(calculateGrade(marks, result.getTotalMarks()));
+                result.setPassed(exam.getPassingMarks() != null && marks >= exam.getPassingMarks());
+                result.setGradedBy(graderId);
+                result.setGradedByName(graderName);
+                result.setGradedAt(now);
+                result.setStatus(ResultStatus.GRADED);
+                result.setRequiresManualGrading(false);
+                if (entry.getComments() != null) {
+                    result.setTeacherComments(entry.getComments());
+                }
+                graded.add(result);
+            }
+        }
+        for (UUID resultId : entriesById.keySet()) {
+            if (!before.containsKey(resultId)) {
+                failedItems.putIfAbsent(resultId, "Result not found");
+            }
+        }
+
+        List<Result> updated = resultBatchRepository.updateGrades(graded);
+        Set<UUID> updatedIds = new HashSet<>();
+        updated.forEach(result -> updatedIds.add(result.getId()));
+        for (Result result : graded) {
+            if (!updatedIds.contains(result.getId())) {
+                failedItems.put(result.getId(), "Result was modified concurrently, try again");
+            }
+        }
+
+        rollupProjection.recordChanged(rollupBefore, updated);
+        Set<UUID> examIds = new LinkedHashSet<>();
+        Set<UUID> examsWithPublished = new HashSet<>();
+        for (Result result : updated) {
+            examIds.add(result.getExamId());
+            if (before.get(result.getId()).published()) {
+                examsWithPublished.add(result.getExamId());
+            }
+        }
+        for (UUID examId : examIds) {
+            statsProjection.rebuild(examId);
+            calculateRankings(examId);
+            if (examsWithPublished.contains(examId)) {
+                itemAnalysisService.requestAnalysis(examId);
+                examReportService.requestRefresh(examId);
+            }
+        }
+        publishGradedEventsAfterCommit(updated);
+
+        log.info("Bulk graded {} of {} results across {} exams", updated.size(), entries.size(), examIds.size());
+        return BulkGradingResultDTO.builder()
+                .totalRequested(entries.size())
+                .successful(updated.size())
+                .failed(entries.size() - updated.size())
+                .successfulIds(updated.stream().map(Result::getId).toList())
+                .failedItems(failedItems)
+                .build();
+    }
+
+    @Transactional
+    public int calculateRankings(UUID examId) {
+        return calculateRankings(examId, RankingMethod.COMPETITION);
+    }
+
+    /**
+     * Ranks the exam's published results by obtained marks inside the database.
+     *
+     * @return number of results whose rank changed
+     */
+    @Transactional
+    public int calculateRankings(UUID examId, RankingMethod method) {
+        log.info("Calculating {} rankings for exam: {}", method, examId);
+        int changed = method == RankingMethod.DENSE
+                ? resultRepository.updateDenseRanks(examId)
+                : resultRepository.updateCompetitionRanks(examId);
+        log.info("Rankings calculated for exam {}: {} results changed rank", examId, changed);
+        examScoreIndex.rebuildAfterCommit(examId);
+        return changed;
+    }
+
+    /**
+     * Recomputes the exam's statistics projection from its results.
+     */
+    @Transactional
+    public void rebuildExamStatistics(UUID examId, Authentication auth) {
+        verifyOwnership(examId, auth);
+        statsProjection.rebuild(examId);
+    }
+
+    /**
+     * Recomputes the statistics projection of every exam from the results table.
+     *
+     * @return number of exams with statistics
+     */
     @Transactional
-    public void calculateRankings(UUID examId) {
-        log.info("Calculating rankings for exam: {}", examId);
-        List<Result> publishedResults = resultRepository.findByExamIdAndStatus(examId, ResultStatus.PUBLISHED);
-        if (publishedResults.isEmpty()) return;
-
-        publishedResults.sort(Comparator.comparing(Result::getObtainedMarks).reversed());
-        int rank = 1;
-        for (int i = 0; i < publishedResults.size(); i++) {
-            if (i > 0 && publishedResults.get(i).getObtainedMarks() < publishedResults.get(i - 1).getObtainedMarks()) {
-                rank = i + 1;
+    public int rebuildAllStatistics() {
+        return statsProjection.rebuildAll();
+    }
+
+    /**
+     * Writes item scores for up to {@code limit} results graded before item scores were
+     * stored, regrading their answers from attempt-service against the current answer keys.
+     * Runs without a transaction so that no connection is held across the remote calls; the
+     * scores of a chunk are inserted in one batch and skip rows that exist by then.
+     *
+     * @return the last result id looked at, or {@code null} when none are left after {@code after}
+     */
+    public UUID backfillItemScores(UUID after, int limit) {
+        List<ResultItemScoreRepository.ResultRef> results = itemScoreRepository.findResultsWithoutItemScores(after, limit);
+        if (results.isEmpty()) {
+            return null;
+        }
+
+        Map<UUID, List<AttemptAnswerDTO>> answersByResult = new HashMap<>(results.size() * 2);
+        Set<UUID> questionIds = new HashSet<>();
+        for (ResultItemScoreRepository.ResultRef ref : results) {
+            ApiResponse<List<AttemptAnswerDTO>> response = attemptServiceClient.getAttemptAnswers(ref.attemptId());
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                log.warn("Skipping item score backfill of result {}: answers of attempt {} unavailable",
+                        ref.id(), ref.attemptId());
+                continue;
             }
-            publishedResults.get(i).setRank(rank);
+            answersByResult.put(ref.id(), response.getData());
+            response.getData().forEach(answer -> questionIds.add(answer.getQuestionId()));
         }
-        resultRepository.saveAll(publishedResults);
-        log.info("Rankings calculated for {} results", publishedResults.size());
+
+        AnswerKey answerKey = AnswerKey.compile(fetchQuestionsByIds(questionIds));
+        List<ResultItemScore> items = new ArrayList<>();
+        Set<UUID> examIds = new HashSet<>();
+        for (ResultItemScoreRepository.ResultRef ref : results) {
+            List<AttemptAnswerDTO> answers = answersByResult.get(ref.id());
+            if (answers == null) {
+                continue;
+            }
+            for (AttemptAnswerDTO answer : answers) {
+                int index = answerKey.indexOf(answer.getQuestionId());
+                if (index >= 0) {
+                    double marks = answerKey.grade(index, answer.getAnswerText(), answer.getSelectedOptions());
+                    ResultItemScore item = itemScore(answer, ref.examId(), marks,
+                            answerKey.requiresManualGrading(index), answerKey.marks(index));
+                    item.setResultId(ref.id());
+                    items.add(item);
+                    examIds.add(ref.examId());
+                }
+            }
+        }
+        itemScoreRepository.insertAll(items);
+        examIds.forEach(examId -> {
+            itemAnalysisService.requestAnalysis(examId);
+            examReportService.requestRefresh(examId);
+        });
+        log.info("Backfilled {} item scores for {} of {} results", items.size(), answersByResult.size(), results.size());
+        return results.get(results.size() - 1).id();
     }
 
     // ==================== DELETE OPERATIONS ====================
@@ -630,7 +957,11 @@ public class ResultService {
             throw new BadRequestException("Cannot delete published result");
         }
         resultRepository.delete(result);
+        itemScoreRepository.deleteByResultId(resultId);
+        statsProjection.recordDeleted(result);
+        rollupProjection.recordDeleted(result);
         log.info("Result deleted: {}", resultId);
+        examScoreIndex.remove(result.getExamId(), resultId);
     }
 
     // ==================== HELPER METHODS ====================
@@ -645,6 +976,83 @@ public class ResultService {
         }
     }
 
+    private AnswerKey getAnswerKey(ExamDTO exam, List<AttemptDTO> attempts) {
+        Set<UUID> questionIds = new HashSet<>();
+        for (AttemptDTO attempt : attempts) {
+            if (attempt.getAnswers() != null) {
+                for (AttemptAnswerDTO answer : attempt.getAnswers()) {
+                    questionIds.add(answer.getQuestionId());
+                }
+            }
+        }
+        return answerKeyCache.getAnswerKey(exam, questionIds, this::fetchQuestionsByIds);
+    }
+
+    /**
+     * A graded result with the outcome of each question it covers. Item scores get their
+     * result id once the result has been stored.
+     */
+    private record GradedAttempt(Result result, List<ResultItemScore> items) {
+    }
+
+    private GradedAttempt gradeAttempt(AttemptDTO attempt, ExamDTO exam, AnswerKey answerKey) {
+        double obtainedMarks = 0.0;
+        int totalMarks = 0;
+        boolean requiresManualGrading = false;
+        List<ResultItemScore> items = new ArrayList<>();
+
+        if (attempt.getAnswers() != null) {
+            for (AttemptAnswerDTO answer : attempt.getAnswers()) {
+                int index = answerKey.indexOf(answer.getQuestionId());
+                if (index >= 0) {
+                    double marks = answerKey.grade(index, answer.getAnswerText(), answer.getSelectedOptions());
+                    boolean manual = answerKey.requiresManualGrading(index);
+                    obtainedMarks += marks;
+                    totalMarks += answerKey.marks(index);
+                    requiresManualGrading |= manual;
+                    items.add(itemScore(answer, attempt.getExamId(), marks, manual, answerKey.marks(index)));
+                }
+            }
+        }
+
+        if (attempt.getTotalMarks() != null && attempt.getTotalMarks() > 0) {
+            totalMarks = attempt.getTotalMarks();
+        }
+
+        double percentage = (totalMarks > 0) ? (obtainedMarks / totalMarks) * 100 : 0.0;
+        String grade = calculateGrade(obtainedMarks, totalMarks);
+        boolean passed = exam.getPassingMarks() != null && obtainedMarks >= exam.getPassingMarks();
+
+        ResultStatus initialStatus = determineInitialStatus(requiresManualGrading, exam.getShowResultsImmediately());
+
+        Result result = buildResultEntity(attempt, obtainedMarks, totalMarks, percentage,
+                grade, passed, initialStatus, requiresManualGrading);
+        result.setSubject(exam.getSubject());
+        return new GradedAttempt(result, items);
+    }
+
+    private static ResultItemScore itemScore(AttemptAnswerDTO answer, UUID examId, double marks,
+                                             boolean manual, int marksAllocated) {
+        return ResultItemScore.builder()
+                .questionId(answer.getQuestionId())
+                .examId(examId)
+                .correct(marks > 0)
+                .answered(StringUtils.hasText(answer.getAnswerText())
+                        || (answer.getSelectedOptions() != null && !answer.getSelectedOptions().isEmpty()))
+                .manual(manual)
+                .marksObtained(marks)
+                .marksAllocated(marksAllocated)
+                .timeSpentSeconds(answer.getTimeSpentSeconds())
+                .build();
+    }
+
+    private void saveItemScores(Result result, List<ResultItemScore> items) {
+        for (ResultItemScore item : items) {
+            item.setResultId(result.getId());
+        }
+        itemScoreRepository.insertAll(items);
+    }
+
     private Result buildResultEntity(AttemptDTO attempt, double obtainedMarks,
                                      int totalMarks, double percentage, String grade, boolean passed,
                                      ResultStatus status, boolean requiresManualGrading) {
@@ -677,6 +1085,22 @@ public class ResultService {
         return result;
     }
 
+    private void publishGradedEventsAfterCommit(List<Result> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    eventProducer.publishResultsGraded(results);
+                } catch (Exception e) {
+                    log.error("Failed to publish graded events for {} results", results.size(), e);
+                }
+            }
+        });
+    }
+
     private void publishResultEvents(Result result) {
         try {
             eventProducer.publishResultCreated(result);
@@ -688,39 +1112,9 @@ public class ResultService {
         }
     }
 
-    private double gradeSingleAnswer(AttemptAnswerDTO answer, QuestionDTO question) {
-        String questionType = question.getType();
-        boolean isCorrect = false;
-
-        if ("MCQ".equals(questionType) || "TRUE_FALSE".equals(questionType)) {
-            String studentAnswer = answer.getAnswerText();
-            if (!StringUtils.hasText(studentAnswer) && answer.getSelectedOptions() != null && answer.getSelectedOptions().size() == 1) {
-                studentAnswer = answer.getSelectedOptions().iterator().next();
-            }
-            isCorrect = isTextAnswerCorrect(studentAnswer, question.getCorrectAnswer());
-        } else if ("MULTIPLE_ANSWER".equals(questionType)) {
-            isCorrect = isMultipleAnswerCorrect(answer, question);
-        }
-
-        return isCorrect && question.getMarks() != null ? question.getMarks().doubleValue() : 0.0;
-    }
-
-    private boolean isTextAnswerCorrect(String studentAnswer, String correctAnswer) {
-        return studentAnswer != null && correctAnswer != null &&
-                studentAnswer.trim().equalsIgnoreCase(correctAnswer.trim());
-    }
-
-    private boolean isMultipleAnswerCorrect(AttemptAnswerDTO answer, QuestionDTO question) {
-        if (question.getCorrectAnswer() == null || question.getCorrectAnswer().isBlank()) {
-            return false;
-        }
-        Set<String> correctOptions = Arrays.stream(question.getCorrectAnswer().split(","))
-                .map(String::trim)
-                .collect(Collectors.toSet());
-        Set<String> studentSelectedOptions = (answer.getSelectedOptions() != null)
-                ? answer.getSelectedOptions().stream().map(String::trim).collect(Collectors.toSet())
-                : Collections.emptySet();
-        return correctOptions.equals(studentSelectedOptions);
+    private double gradeSingleAnswer(AttemptAnswerDTO answer, AnswerKey answerKey) {
+        int index = answerKey.indexOf(answer.getQuestionId());
+        return index >= 0 ? answerKey.grade(index, answer.getAnswerText(), answer.getSelectedOptions()) : 0.0;
     }
 
     private String calculateGrade(Double obtainedMarks, Integer totalMarks) {
@@ -759,6 +1153,24 @@ public class ResultService {
         else return "STABLE";
     }
 
+    private List<ResultSummaryDTO> loadInIndexOrder(List<UUID> resultIds) {
+        if (resultIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<UUID, Result> byId = resultRepository.findAllById(resultIds).stream()
+                .collect(Collectors.toMap(Result::getId, r -> r));
+        return resultIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(resultMapper::toSummaryDTO)
+                .collect(Collectors.toList());
+    }
+
+    private ExamResultStats getStatsOrEmpty(UUID examId) {
+        // Exams get a row with their first result, so a missing row means no results
+        return statsProjection.find(examId).orElseGet(() -> ExamResultStats.empty(examId));
+    }
+
     private Result getResultEntity(UUID resultId) {
         return resultRepository.findById(resultId)
                 .orElseThrow(() -> new ResourceNotFoundException("Result not found with id: " + resultId));
@@ -777,6 +1189,28 @@ public class ResultService {
         }
     }
 
+    private CursorPage<ResultSummaryDTO> scrollResults(Specification<Result> spec, String cursor,
+                                                       int size, boolean includeTotal) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<Result> window = resultRepository.findBy(spec, query -> query
+                .sortBy(KeysetCursor.ORDER)
+                .limit(Math.min(size, MAX_SCROLL_SIZE))
+                .scroll(position));
+        Long total = includeTotal ? resultRepository.count(spec) : null;
+        return KeysetCursor.toPage(window, resultMapper::toSummaryDTO, total);
+    }
+
+    /**
+     * Checks that the caller may read all results of the exam, for callers outside this service.
+     */
+    public void verifyExamAccess(UUID examId, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        verifyOwnership(examId, auth);
+    }
+
     private void verifyTeacherOrAdminRole(Authentication auth) {
         String role = JwtUtils.getRole(auth);
         if (!role.equals("ROLE_ADMIN") && !role.equals("ROLE_TEACHER")) {
@@ -795,6 +1229,17 @@ public class ResultService {
         }
     }
 
+    /**
+     * Like {@link #verifyOwnership}, but returns the exam, which is fetched once for every role.
+     */
+    private ExamDTO getAccessibleExam(UUID examId, Authentication auth) {
+        ExamDTO exam = getExamOrThrow(examId);
+        if (JwtUtils.getRole(auth).equals("ROLE_TEACHER") && !exam.getTeacherId().equals(JwtUtils.getUserId(auth))) {
+            throw new UnauthorizedException("Not authorized to access this exam's results");
+        }
+        return exam;
+    }
+
     private void verifyCanViewResult(Result result, Authentication auth) {
         String role = JwtUtils.getRole(auth);
         if (role.equals("ROLE_STUDENT")) {
@@ -881,6 +1326,7 @@ public class ResultService {
 
         Map<UUID, QuestionDTO> questionMap = questions.stream()
                 .collect(Collectors.toMap(QuestionDTO::getId, q -> q));
+        AnswerKey answerKey = AnswerKey.compile(questions);
 
         // Analyze by topic/difficulty
         Map<String, List<Boolean>> topicPerformance = new HashMap<>();
@@ -888,7 +1334,7 @@ public class ResultService {
         for (AttemptAnswerDTO answer : answers) {
             QuestionDTO question = questionMap.get(answer.getQuestionId());
             if (question != null && question.getTopic() != null) {
-                boolean correct = gradeSingleAnswer(answer, question) > 0;
+                boolean correct = gradeSingleAnswer(answer, answerKey) > 0;
                 topicPerformance.computeIfAbsent(question.getTopic(), k -> new ArrayList<>()).add(correct);
             }
         }
@@ -999,22 +1445,31 @@ public class ResultService {
         Result result = getResultEntity(resultId);
         verifyCanViewResult(result, auth);
 
-        List<Result> examResults = resultRepository.findByExamIdAndStatus(
-                result.getExamId(), ResultStatus.PUBLISHED);
-
-        long betterThanCount = examResults.stream()
-                .filter(r -> r.getObtainedMarks() < result.getObtainedMarks())
-                .count();
+        long betterThanCount;
+        long totalStudents;
+        try {
+            betterThanCount = examScoreIndex.countBelow(result.getExamId(), result.getObtainedMarks());
+            totalStudents = examScoreIndex.size(result.getExamId());
+        } catch (DataAccessException e) {
+            log.warn("Score index unavailable for exam {}, counting results directly: {}",
+                    result.getExamId(), e.getMessage());
+            List<Result> examResults = resultRepository.findByExamIdAndStatus(
+                    result.getExamId(), ResultStatus.PUBLISHED);
+            betterThanCount = examResults.stream()
+                    .filter(r -> r.getObtainedMarks() < result.getObtainedMarks())
+                    .count();
+            totalStudents = examResults.size();
+        }
 
-        double percentile = examResults.size() > 0
-                ? (double) betterThanCount * 100 / examResults.size()
+        double percentile = totalStudents > 0
+                ? (double) betterThanCount * 100 / totalStudents
                 : 0.0;
 
         return PercentileDTO.builder()
                 .resultId(resultId)
                 .percentile(percentile)
                 .rank(result.getRank())
-                .totalStudents(examResults.size())
+                .totalStudents((int) totalStudents)
                 .build();
     }
 
@@ -1178,22 +1633,22 @@ public class ResultService {
         verifyOwnership(examId, auth);
 
         ExamResultStatisticsDTO stats = getExamStatistics(examId, auth);
-        List<Result> results = resultRepository.findByExamIdAndStatus(examId, ResultStatus.PUBLISHED);
+        ScoreAccumulator scores = accumulatePublishedScores(examId);
 
         // Calculate distribution
         Map<String, Long> performanceBands = new HashMap<>();
-        performanceBands.put("90-100", results.stream().filter(r -> r.getPercentage() >= 90).count());
-        performanceBands.put("80-89", results.stream().filter(r -> r.getPercentage() >= 80 && r.getPercentage() < 90).count());
-        performanceBands.put("70-79", results.stream().filter(r -> r.getPercentage() >= 70 && r.getPercentage() < 80).count());
-        performanceBands.put("60-69", results.stream().filter(r -> r.getPercentage() >= 60 && r.getPercentage() < 70).count());
-        performanceBands.put("50-59", results.stream().filter(r -> r.getPercentage() >= 50 && r.getPercentage() < 60).count());
-        performanceBands.put("Below 50", results.stream().filter(r -> r.getPercentage() < 50).count());
+        performanceBands.put("90-100", scores.countBetween(90, 110));
+        performanceBands.put("80-89", scores.countBetween(80, 90));
+        performanceBands.put("70-79", scores.countBetween(70, 80));
+        performanceBands.put("60-69", scores.countBetween(60, 70));
+        performanceBands.put("50-59", scores.countBetween(50, 60));
+        performanceBands.put("Below 50", scores.count() - scores.countBetween(50, 110));
 
         return ExamAnalyticsDTO.builder()
                 .examId(examId)
                 .statistics(stats)
                 .performanceBands(performanceBands)
-                .totalParticipants(results.size())
+                .totalParticipants((int) scores.count())
                 .build();
     }
 
@@ -1226,48 +1681,117 @@ public class ResultService {
     public ScoreDistributionDTO getScoreDistribution(UUID examId, Authentication auth) {
         verifyOwnership(examId, auth);
 
-        List<Result> results = resultRepository.findByExamIdAndStatus(examId, ResultStatus.PUBLISHED);
+        ScoreAccumulator scores = accumulatePublishedScores(examId);
 
-        Map<Integer, Long> scoreRanges = new TreeMap<>();
-        for (int i = 0; i <= 100; i += 10) {
-            int finalI = i;
-            long count = results.stream()
-                    .filter(r -> r.getPercentage() >= finalI && r.getPercentage() < finalI + 10)
-                    .count();
-            scoreRanges.put(i, count);
-        }
+        // The median needs ordered values, which the database computes without shipping them here
+        Double median = scores.count() > 0 ? resultRepository.getMedianPercentageByExam(examId) : null;
 
-        List<Double> allScores = results.stream()
-                .map(Result::getPercentage)
-                .sorted()
-                .collect(Collectors.toList());
+        return ScoreDistributionDTO.builder()
+                .examId(examId)
+                .scoreRanges(scores.histogram())
+                .median(median != null ? median : 0.0)
+                .standardDeviation(scores.standardDeviation())
+                .build();
+    }
 
-        double median = 0.0;
-        if (!allScores.isEmpty()) {
-            int middle = allScores.size() / 2;
-            median = allScores.size() % 2 == 0
-                    ? (allScores.get(middle - 1) + allScores.get(middle)) / 2.0
-                    : allScores.get(middle);
+    /**
+     * Summarizes an exam's published results in one pass over a database cursor, detaching
+     * each result once read so the persistence context does not grow with the exam.
+     */
+    private ScoreAccumulator accumulatePublishedScores(UUID examId) {
+        ScoreAccumulator scores = new ScoreAccumulator();
+        try (Stream<Result> results = resultRepository.streamByExamIdAndStatus(examId, ResultStatus.PUBLISHED)) {
+            results.forEach(result -> {
+                scores.accept(result);
+                entityManager.detach(result);
+            });
         }
+        return scores;
+    }
 
-        return ScoreDistributionDTO.builder()
+    @Transactional(readOnly = true)
+    public ItemAnalysisDTO getItemAnalysis(UUID examId, boolean refresh, Authentication auth) {
+        verifyOwnership(examId, auth);
+        ItemAnalysisReport report = refresh
+                ? itemAnalysisService.analyze(examId)
+                : itemAnalysisService.getReport(examId);
+
+        return ItemAnalysisDTO.builder()
                 .examId(examId)
-                .scoreRanges(scoreRanges)
-                .median(median)
-                .standardDeviation(calculateStandardDeviation(allScores))
+                .items(report.items().stream()
+                        .map(item -> ItemAnalysisDTO.ItemAnalysis.builder()
+                                .questionId(item.questionId())
+                                .difficultyIndex(item.difficultyIndex())
+                                .discriminationIndex(item.discriminationIndex())
+                                .pointBiserialCorrelation(item.pointBiserial())
+                                .interpretation(interpretItem(item))
+                                .build())
+                        .collect(Collectors.toList()))
                 .build();
     }
 
-    private double calculateStandardDeviation(List<Double> values) {
-        if (values.isEmpty()) return 0.0;
+    /**
+     * Topic and difficulty accuracy over the exam's published results.
+     */
+    public PerformanceMatrixDTO getPerformanceMatrix(UUID examId, boolean refresh, Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        ExamDTO exam = getAccessibleExam(examId, auth);
+        return performanceMatrixService.getMatrix(exam, refresh, this::fetchQuestionsByIds);
+    }
 
-        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .average()
-                .orElse(0.0);
+    /**
+     * Returns the stored detailed report of the exam, or regenerates it first when asked to.
+     */
+    @Transactional(readOnly = true)
+    public DetailedExamReportDTO getDetailedExamReport(UUID examId, Long version, boolean refresh,
+                                                       Authentication auth) {
+        verifyTeacherOrAdminRole(auth);
+        verifyOwnership(examId, auth);
+        return refresh
+                ? examReportService.generate(examId)
+                : examReportService.getReport(examId, version);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DiscriminationIndexDTO> getDiscriminationIndex(UUID examId, Authentication auth) {
+        verifyOwnership(examId, auth);
+        ItemAnalysisReport report = itemAnalysisService.getReport(examId);
+
+        Map<UUID, String> questionTexts = new HashMap<>();
+        List<UUID> questionIds = report.items().stream()
+                .map(ItemAnalysisReport.Item::questionId)
+                .collect(Collectors.toList());
+        for (QuestionDTO question : fetchQuestionsByIds(questionIds)) {
+            questionTexts.put(question.getId(), question.getQuestionText());
+        }
+
+        return report.items().stream()
+                .map(item -> DiscriminationIndexDTO.builder()
+                        .questionId(item.questionId())
+                        .questionText(questionTexts.get(item.questionId()))
+                        .discriminationIndex(item.discriminationIndex())
+                        .interpretation(interpretDiscrimination(item.discriminationIndex()))
+                        .upperGroupCorrect(item.upperGroupCorrect())
+                        .lowerGroupCorrect(item.lowerGroupCorrect())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private String interpretItem(ItemAnalysisReport.Item item) {
+        Double discrimination = item.discriminationIndex();
+        if (discrimination != null && discrimination < 0) return "NEGATIVE_DISCRIMINATION";
+        if (item.difficultyIndex() > 0.9) return "TOO_EASY";
+        if (item.difficultyIndex() < 0.2) return "TOO_DIFFICULT";
+        if (discrimination != null && discrimination < 0.2) return "POOR_DISCRIMINATION";
+        return "GOOD";
+    }
 
-        return Math.sqrt(variance);
+    private String interpretDiscrimination(Double discrimination) {
+        if (discrimination == null) return "INSUFFICIENT_DATA";
+        if (discrimination >= 0.4) return "EXCELLENT";
+        if (discrimination >= 0.3) return "GOOD";
+        if (discrimination >= 0.2) return "ACCEPTABLE";
+        return "POOR";
     }
 
     private String extractSubject(String examTitle) {
@@ -0,0 +1,149 @@
+package com.oerms.result.service;
+
+import com.oerms.result.entity.Result;
+
+import java.util.*;
+
+/**
+ * Single-pass summary of a stream of results over primitive doubles: count, mean and variance
+ * of the percentage (Welford), min/max, a fixed-width percentage histogram, grade counts and
+ * passes. Feeding it one result at a time keeps memory independent of the number of results.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class ScoreAccumulator {
+
+    /** Width in percentage points of each histogram bucket */
+    public static final int BUCKET_WIDTH = 10;
+
+    /** Buckets start at 0, 10, ..., 100; the last one only holds full scores */
+    private static final int BUCKETS = 100 / BUCKET_WIDTH + 1;
+
+    private final long[] buckets = new long[BUCKETS];
+    private final Map<String, long[]> gradeCounts = new HashMap<>();
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double marksSum;
+    private double marksMin = Double.POSITIVE_INFINITY;
+    private double marksMax = Double.NEGATIVE_INFINITY;
+    private long passed;
+
+    public void accept(Result result) {
+        accept(result.getPercentage() != null ? result.getPercentage() : 0.0,
+                result.getObtainedMarks() != null ? result.getObtainedMarks() : 0.0,
+                result.getGrade(),
+                Boolean.TRUE.equals(result.getPassed()));
+    }
+
+    public void accept(double percentage, double obtainedMarks, String grade, boolean passed) {
+        count++;
+        double delta = percentage - mean;
+        mean += delta / count;
+        m2 += delta * (percentage - mean);
+        min = Math.min(min, percentage);
+        max = Math.max(max, percentage);
+
+        marksSum += obtainedMarks;
+        marksMin = Math.min(marksMin, obtainedMarks);
+        marksMax = Math.max(marksMax, obtainedMarks);
+
+        int bucket = (int) Math.floor(percentage / BUCKET_WIDTH);
+        if (bucket >= 0 && bucket < BUCKETS) {
+            buckets[bucket]++;
+        }
+        if (grade != null) {
+            gradeCounts.computeIfAbsent(grade, g -> new long[1])[0]++;
+        }
+        if (passed) {
+            this.passed++;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double meanPercentage() {
+        return mean;
+    }
+
+    /**
+     * @return population variance of the percentage, as the previous two-pass calculation used
+     */
+    public double variance() {
+        return count > 0 ? m2 / count : 0.0;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double minPercentage() {
+        return count > 0 ? min : 0.0;
+    }
+
+    public double maxPercentage() {
+        return count > 0 ? max : 0.0;
+    }
+
+    public double averageMarks() {
+        return count > 0 ? marksSum / count : 0.0;
+    }
+
+    public double minMarks() {
+        return count > 0 ? marksMin : 0.0;
+    }
+
+    public double maxMarks() {
+        return count > 0 ? marksMax : 0.0;
+    }
+
+    public long passedCount() {
+        return passed;
+    }
+
+    public double passRate() {
+        return count > 0 ? (double) passed * 100 / count : 0.0;
+    }
+
+    /**
+     * @return number of results in {@code [lowerBound, lowerBound + BUCKET_WIDTH)}
+     */
+    public long bucketCount(int lowerBound) {
+        int bucket = lowerBound / BUCKET_WIDTH;
+        return bucket >= 0 && bucket < BUCKETS ? buckets[bucket] : 0L;
+    }
+
+    /**
+     * @return number of results with a percentage in {@code [from, to)}, both multiples of
+     * {@link #BUCKET_WIDTH}
+     */
+    public long countBetween(int from, int to) {
+        long total = 0;
+        for (int bound = from; bound < to; bound += BUCKET_WIDTH) {
+            total += bucketCount(bound);
+        }
+        return total;
+    }
+
+    /**
+     * @return histogram keyed by each bucket's lower bound, in ascending order
+     */
+    public Map<Integer, Long> histogram() {
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.put(i * BUCKET_WIDTH, buckets[i]);
+        }
+        return histogram;
+    }
+
+    public Map<String, Long> gradeCounts() {
+        Map<String, Long> counts = new HashMap<>(gradeCounts.size() * 2);
+        gradeCounts.forEach((grade, c) -> counts.put(grade, c[0]));
+        return counts;
+    }
+}
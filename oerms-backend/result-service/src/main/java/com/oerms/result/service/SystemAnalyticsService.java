@@ -0,0 +1,207 @@
+package com.oerms.result.service;
+
+import com.oerms.common.exception.BadRequestException;
+import com.oerms.result.dto.SystemAnalyticsDTO;
+import com.oerms.result.entity.ResultDailyRollup;
+import com.oerms.result.repository.ResultDailyRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * System-wide analytics over a period, summed from the daily rollups kept by
+ * {@link ResultRollupProjection}, so the cost depends on the days, subjects and exams in the
+ * period rather than on the number of results.
+ * <p>
+ * The backfill recomputes the rollups of all history in chunks of days that run in parallel,
+ * each in its own transaction.
+ */
+@Service
+@Slf4j
+public class SystemAnalyticsService {
+
+    private final ResultDailyRollupRepository rollupRepository;
+    private final ResultRollupProjection rollupProjection;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+    private final int chunkDays;
+    private final int defaultPeriodDays;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    public SystemAnalyticsService(ResultDailyRollupRepository rollupRepository,
+                                  ResultRollupProjection rollupProjection,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${result.rollup.backfill-threads:4}") int backfillThreads,
+                                  @Value("${result.rollup.chunk-days:7}") int chunkDays,
+                                  @Value("${result.rollup.default-period-days:30}") int defaultPeriodDays) {
+        this.rollupRepository = rollupRepository;
+        this.rollupProjection = rollupProjection;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkDays = chunkDays;
+        this.defaultPeriodDays = defaultPeriodDays;
+
+        this.backfillExecutor = new ThreadPoolTaskExecutor();
+        this.backfillExecutor.setCorePoolSize(backfillThreads);
+        this.backfillExecutor.setMaxPoolSize(backfillThreads);
+        this.backfillExecutor.setThreadNamePrefix("result-rollup-");
+        this.backfillExecutor.initialize();
+    }
+
+    /**
+     * Analytics of results submitted between the two days, both inclusive. The period defaults
+     * to the last days up to today.
+     */
+    public SystemAnalyticsDTO getSystemAnalytics(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(defaultPeriodDays - 1L);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+
+        return readOnlyTransaction.execute(status -> {
+            Totals system = new Totals();
+            Map<String, Totals> bySubject = new TreeMap<>();
+            Map<LocalDate, Totals> byDay = new TreeMap<>();
+            for (ResultDailyRollup row : rollupRepository.findByDayBetween(start, end)) {
+                system.add(row);
+                bySubject.computeIfAbsent(row.getSubject(), subject -> new Totals()).add(row);
+                byDay.computeIfAbsent(row.getDay(), day -> new Totals()).add(row);
+            }
+
+            Map<String, SystemAnalyticsDTO.SubjectStats> subjectStatistics = new LinkedHashMap<>();
+            bySubject.forEach((subject, totals) -> subjectStatistics.put(subject,
+                    SystemAnalyticsDTO.SubjectStats.builder()
+                            .subject(subject)
+                            .examCount((long) totals.exams.size())
+                            .averageScore(totals.averagePercentage())
+                            .passRate(totals.passRate())
+                            .build()));
+
+            List<SystemAnalyticsDTO.TrendPoint> performanceTrend = new ArrayList<>();
+            byDay.forEach((day, totals) -> {
+                if (totals.published > 0) {
+                    performanceTrend.add(SystemAnalyticsDTO.TrendPoint.builder()
+                            .date(day.atStartOfDay())
+                            .averageScore(totals.averagePercentage())
+                            .passRate(totals.passRate())
+                            .build());
+                }
+            });
+
+            return SystemAnalyticsDTO.builder()
+                    .periodStart(start.atStartOfDay())
+                    .periodEnd(end.plusDays(1).atStartOfDay().minusNanos(1))
+                    .totalExams((long) system.exams.size())
+                    .totalResults(system.total)
+                    .totalStudents(rollupRepository.countDistinctStudents(
+                            start.atStartOfDay(), end.plusDays(1).atStartOfDay()))
+                    .systemAverageScore(system.averagePercentage())
+                    .systemPassRate(system.passRate())
+                    .subjectStatistics(subjectStatistics)
+                    .performanceTrend(performanceTrend)
+                    .build();
+        });
+    }
+
+    /**
+     * Starts recomputing the rollups of every day since the first result. Only one backfill
+     * runs at a time.
+     *
+     * @return number of chunks scheduled
+     */
+    public int startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new BadRequestException("A rollup backfill is already running");
+        }
+        LocalDateTime firstResult;
+        try {
+            firstResult = rollupRepository.findFirstResultTime();
+        } catch (RuntimeException e) {
+            backfillRunning.set(false);
+            throw e;
+        }
+        if (firstResult == null) {
+            backfillRunning.set(false);
+            return 0;
+        }
+        LocalDate first = firstResult.toLocalDate();
+
+        long start = System.currentTimeMillis();
+        LocalDate end = LocalDate.now().plusDays(1);
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (LocalDate from = first; from.isBefore(end); from = from.plusDays(chunkDays)) {
+            LocalDate chunkStart = from;
+            LocalDate chunkEnd = from.plusDays(chunkDays).isBefore(end) ? from.plusDays(chunkDays) : end;
+            chunks.add(CompletableFuture.supplyAsync(() -> rebuildChunk(chunkStart, chunkEnd), backfillExecutor));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).whenComplete((ignored, ex) -> {
+            backfillRunning.set(false);
+            int rows = 0;
+            int failed = 0;
+            for (CompletableFuture<Integer> chunk : chunks) {
+                if (chunk.isCompletedExceptionally()) {
+                    failed++;
+                } else {
+                    rows += chunk.join();
+                }
+            }
+            log.info("Rollup backfill from {} wrote {} rows in {} chunks ({} failed) in {} ms",
+                    first, rows, chunks.size(), failed, System.currentTimeMillis() - start);
+        });
+        log.info("Rollup backfill from {} started in {} chunks of {} days", first, chunks.size(), chunkDays);
+        return chunks.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdown();
+    }
+
+    // ==================== Internals ====================
+
+    private int rebuildChunk(LocalDate from, LocalDate to) {
+        try {
+            return rollupProjection.rebuildDays(from, to);
+        } catch (RuntimeException e) {
+            log.error("Rollup backfill of days {} to {} failed: {}", from, to, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private static final class Totals {
+        final Set<UUID> exams = new HashSet<>();
+        long total;
+        long published;
+        long passed;
+        double percentageSum;
+
+        void add(ResultDailyRollup row) {
+            if (row.getTotalResults() > 0) {
+                exams.add(row.getExamId());
+            }
+            total += row.getTotalResults();
+            published += row.getPublishedResults();
+            passed += row.getPublishedPassed();
+            percentageSum += row.getPercentageSum();
+        }
+
+        double averagePercentage() {
+            return published > 0 ? percentageSum / published : 0.0;
+        }
+
+        double passRate() {
+            return published > 0 ? (double) passed / published * 100 : 0.0;
+        }
+    }
+}
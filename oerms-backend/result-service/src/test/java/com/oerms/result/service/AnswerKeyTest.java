@@ -0,0 +1,149 @@
+package com.oerms.result.service;
+
+import com.oerms.common.dto.QuestionDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyTest {
+
+    @Test
+    void singleChoiceMatchesPreviousGrading() {
+        QuestionDTO mcq = question("MCQ", List.of("Paris", "London", "Rome"), " Paris ", 4);
+        QuestionDTO trueFalse = question("TRUE_FALSE", List.of("True", "False"), "False", 1);
+
+        assertMatchesPrevious(mcq, "Paris", null);
+        assertMatchesPrevious(mcq, "  paris  ", null);
+        assertMatchesPrevious(mcq, "London", null);
+        assertMatchesPrevious(mcq, null, Set.of("PARIS"));
+        assertMatchesPrevious(mcq, "", Set.of(" Paris"));
+        assertMatchesPrevious(mcq, "London", Set.of("Paris"));
+        assertMatchesPrevious(mcq, null, Set.of("Paris", "Rome"));
+        assertMatchesPrevious(mcq, null, null);
+        assertMatchesPrevious(trueFalse, "false", null);
+        assertMatchesPrevious(trueFalse, "True", null);
+        assertMatchesPrevious(trueFalse, null, Set.of("False"));
+        assertMatchesPrevious(question("MCQ", List.of("A"), null, 2), "A", null);
+
+        AnswerKey key = AnswerKey.compile(List.of(mcq));
+        assertThat(key.grade(0, "paris", null)).isEqualTo(4.0);
+        assertThat(key.requiresManualGrading(0)).isFalse();
+    }
+
+    @Test
+    void multipleAnswerMaskPathMatchesPreviousGrading() {
+        QuestionDTO question = question("MULTIPLE_ANSWER", List.of("A", "B", "C", "D"), "A, C", 3);
+
+        assertMatchesPrevious(question, null, Set.of("A", "C"));
+        assertMatchesPrevious(question, null, Set.of(" C ", "A"));
+        assertMatchesPrevious(question, null, Set.of("A"));
+        assertMatchesPrevious(question, null, Set.of("A", "B", "C"));
+        // Selections outside the option list never match
+        assertMatchesPrevious(question, null, Set.of("A", "C", "Z"));
+        assertMatchesPrevious(question, null, Set.of("Z"));
+        assertMatchesPrevious(question, null, Set.of());
+        assertMatchesPrevious(question, "A, C", null);
+        assertMatchesPrevious(question("MULTIPLE_ANSWER", List.of("A", "B"), " ", 3), null, Set.of("A"));
+
+        AnswerKey key = AnswerKey.compile(List.of(question));
+        assertThat(key.grade(0, null, List.of("C", "A"))).isEqualTo(3.0);
+    }
+
+    @Test
+    void multipleAnswerTokenSetPathMatchesPreviousGrading() {
+        List<String> manyOptions = IntStream.rangeClosed(0, 64).mapToObj(i -> "O" + i).toList();
+        QuestionDTO overMaskLimit = question("MULTIPLE_ANSWER", manyOptions, "O3,O64", 2);
+        QuestionDTO unknownToken = question("MULTIPLE_ANSWER", List.of("A", "B", "C"), "A,D", 2);
+        QuestionDTO noOptions = question("MULTIPLE_ANSWER", null, "A,B", 2);
+
+        assertMatchesPrevious(overMaskLimit, null, Set.of("O3", "O64"));
+        assertMatchesPrevious(overMaskLimit, null, Set.of("O3"));
+        assertMatchesPrevious(overMaskLimit, null, Set.of("O3", "O64", "O5"));
+        assertMatchesPrevious(unknownToken, null, Set.of("A", "D"));
+        assertMatchesPrevious(unknownToken, null, Set.of("A"));
+        assertMatchesPrevious(unknownToken, null, Set.of("A", "B"));
+        assertMatchesPrevious(unknownToken, null, null);
+        assertMatchesPrevious(noOptions, null, Set.of(" A", "B "));
+        assertMatchesPrevious(noOptions, null, Set.of("A", "B", "C"));
+    }
+
+    @Test
+    void manualAndUnknownTypesScoreZero() {
+        QuestionDTO essay = question("ESSAY", null, "Anything", 10);
+        QuestionDTO shortAnswer = question("SHORT_ANSWER", null, "Paris", 2);
+        QuestionDTO unknown = question("MATCHING", List.of("A"), "A", 2);
+
+        assertMatchesPrevious(essay, "Anything", null);
+        assertMatchesPrevious(shortAnswer, "Paris", null);
+        assertMatchesPrevious(unknown, "A", Set.of("A"));
+
+        AnswerKey key = AnswerKey.compile(List.of(essay, shortAnswer, unknown));
+        assertThat(key.requiresManualGrading(0)).isTrue();
+        assertThat(key.requiresManualGrading(1)).isTrue();
+        assertThat(key.requiresManualGrading(2)).isFalse();
+    }
+
+    @Test
+    void questionsOutsideTheKeyAreNotGraded() {
+        QuestionDTO question = question("MCQ", List.of("A"), "A", 1);
+        AnswerKey key = AnswerKey.compile(List.of(question, question));
+
+        assertThat(key.indexOf(question.getId())).isZero();
+        assertThat(key.indexOf(UUID.randomUUID())).isEqualTo(-1);
+        assertThat(key.questionIds()).containsExactly(question.getId());
+    }
+
+    // ==================== Internals ====================
+
+    private static QuestionDTO question(String type, List<String> options, String correctAnswer, Integer marks) {
+        return QuestionDTO.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .options(options)
+                .correctAnswer(correctAnswer)
+                .marks(marks)
+                .build();
+    }
+
+    private static void assertMatchesPrevious(QuestionDTO question, String answerText, Set<String> selectedOptions) {
+        AnswerKey key = AnswerKey.compile(List.of(question));
+        assertThat(key.grade(key.indexOf(question.getId()), answerText, selectedOptions))
+                .as("%s answered %s / %s against %s", question.getType(), answerText, selectedOptions,
+                        question.getCorrectAnswer())
+                .isEqualTo(previousGrade(question, answerText, selectedOptions));
+    }
+
+    /**
+     * Grading as ResultService did it before answer keys were compiled.
+     */
+    private static double previousGrade(QuestionDTO question, String answerText, Set<String> selectedOptions) {
+        String questionType = question.getType();
+        boolean isCorrect = false;
+
+        if ("MCQ".equals(questionType) || "TRUE_FALSE".equals(questionType)) {
+            String studentAnswer = answerText;
+            if (!StringUtils.hasText(studentAnswer) && selectedOptions != null && selectedOptions.size() == 1) {
+                studentAnswer = selectedOptions.iterator().next();
+            }
+            isCorrect = studentAnswer != null && question.getCorrectAnswer() != null &&
+                    studentAnswer.trim().equalsIgnoreCase(question.getCorrectAnswer().trim());
+        } else if ("MULTIPLE_ANSWER".equals(questionType)) {
+            if (question.getCorrectAnswer() != null && !question.getCorrectAnswer().isBlank()) {
+                Set<String> correctOptions = Arrays.stream(question.getCorrectAnswer().split(","))
+                        .map(String::trim)
+                        .collect(Collectors.toSet());
+                Set<String> studentSelectedOptions = selectedOptions != null
+                        ? selectedOptions.stream().map(String::trim).collect(Collectors.toSet())
+                        : Collections.emptySet();
+                isCorrect = correctOptions.equals(studentSelectedOptions);
+            }
+        }
+
+        return isCorrect && question.getMarks() != null ? question.getMarks().doubleValue() : 0.0;
+    }
+}